@@ -4,6 +4,7 @@ import React from 'react';
 import { useNavigate } from 'react-router-dom';
 import { FaRegBuilding, FaUserCircle, FaEdit, FaEye, FaTrash } from 'react-icons/fa';
 import { useAuth } from '../../context/AuthContext'; // <-- 1. Importamos el hook de autenticación
+import ResponsiveImage from './ResponsiveImage';
 
 function PostCard({ post, onOpenDeleteConfirm }) { 
   const navigate = useNavigate();
@@ -54,12 +55,16 @@ function PostCard({ post, onOpenDeleteConfirm }) {
   return (
     <div className={cardBaseClass}>
       <div className="relative w-full cursor-pointer" style={{ paddingBottom: '56.25%' }} onClick={handleViewDetailsClick}>
-        <img 
-            src={displayImageUrl} 
+        <ResponsiveImage
+            image={post.images?.[0]}
+            fallbackSrc={displayImageUrl}
+            sizes="(min-width: 1280px) 25vw, (min-width: 1024px) 33vw, (min-width: 640px) 50vw, 100vw"
             alt={`Imagen de ${title}`} 
+            loading="lazy"
             className="absolute top-0 left-0 w-full h-full object-cover"
             onError={(e) => { 
                 e.target.onerror = null; 
+                e.target.srcset = '';
                 e.target.src = `https://via.placeholder.com/600x337/CCCCCC/FFFFFF?text=Imagen+no+disponible`;
             }}
         />
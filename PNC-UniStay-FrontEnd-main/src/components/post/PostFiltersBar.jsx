@@ -1,7 +1,22 @@
 import React, { useState } from "react";
 import { ChevronDown, ChevronUp, SlidersHorizontal } from "lucide-react";
 
-const PostFiltersBar = ({ filters, onFiltersChange, onApplyFilters, onClearFilters }) => {
+// Mismos bordes que los anillos de distancia del backend (PostFilterServiceImpl.DISTANCE_RING_EDGES),
+// así el conteo de cada opción es la suma exacta de los anillos que abarca
+const DISTANCE_OPTIONS = [1, 2, 5, 10];
+
+// Posts a menos de km: anillos que terminan antes de ese borde
+const countWithin = (rings, km) =>
+    rings
+        .filter((ring) => ring.to !== null && ring.to !== undefined && ring.to <= km)
+        .reduce((sum, ring) => sum + ring.count, 0);
+
+/**
+ * facets (opcional): { priceHistogram, distanceRings, distanceTotal } con los conteos de
+ * /post-filters. Cada faceta se cuenta sin su propio filtro aplicado, para que las opciones
+ * muestren cuántos posts quedarían al elegirlas.
+ */
+const PostFiltersBar = ({ filters, facets, onFiltersChange, onApplyFilters, onClearFilters, onSaveSearch }) => {
     const [isOpen, setIsOpen] = useState(false);
 
     const handleChange = (field, value) => {
@@ -11,6 +26,17 @@ const PostFiltersBar = ({ filters, onFiltersChange, onApplyFilters, onClearFilte
         });
     };
 
+    const priceBuckets = (facets?.priceHistogram || []).filter((bucket) => bucket.count > 0);
+    const distanceRings = facets?.distanceRings || [];
+
+    const selectPriceBucket = (bucket) => {
+        onFiltersChange({
+            ...filters,
+            minPrice: String(bucket.from),
+            maxPrice: String(bucket.to),
+        });
+    };
+
     return (
         <div className="mb-8">
 
@@ -38,7 +64,7 @@ const PostFiltersBar = ({ filters, onFiltersChange, onApplyFilters, onClearFilte
             {/* ░░░ PANEL DESPLEGABLE ░░░ */}
             <div
                 className={`overflow-hidden transition-all duration-300 ease-in-out ${
-                    isOpen ? "max-h-96 opacity-100 mt-4" : "max-h-0 opacity-0"
+                    isOpen ? "max-h-[48rem] opacity-100 mt-4" : "max-h-0 opacity-0"
                 }`}
             >
                 <div className="bg-white rounded-xl shadow-md p-6 border border-blue-200">
@@ -76,6 +102,31 @@ const PostFiltersBar = ({ filters, onFiltersChange, onApplyFilters, onClearFilte
                                 />
                             </div>
 
+                            {/* Histograma de precios: cada rango con su cantidad de posts */}
+                            {priceBuckets.length > 0 && (
+                                <div className="sm:col-span-2 flex flex-wrap gap-2 max-h-20 overflow-y-auto">
+                                    {priceBuckets.map((bucket) => {
+                                        const selected =
+                                            filters.minPrice === String(bucket.from) &&
+                                            filters.maxPrice === String(bucket.to);
+                                        return (
+                                            <button
+                                                key={bucket.from}
+                                                type="button"
+                                                onClick={() => selectPriceBucket(bucket)}
+                                                className={`px-3 py-1 rounded-full border text-xs font-semibold ${
+                                                    selected
+                                                        ? "bg-[#007bce] border-[#007bce] text-white"
+                                                        : "border-blue-300 text-blue-800 hover:bg-blue-50"
+                                                }`}
+                                            >
+                                                ${bucket.from}–${bucket.to} ({bucket.count})
+                                            </button>
+                                        );
+                                    })}
+                                </div>
+                            )}
+
                         </div>
 
                         {/* ░░░ DISTANCIA ░░░ */}
@@ -88,11 +139,14 @@ const PostFiltersBar = ({ filters, onFiltersChange, onApplyFilters, onClearFilte
                                 onChange={(e) => handleChange("maxDistanceKm", e.target.value)}
                                 className="w-full rounded-lg border-2 border-blue-300 px-4 py-2.5 text-sm bg-white focus:outline-none focus:ring-2 focus:ring-blue-500"
                             >
-                                <option value="">Cualquier distancia</option>
-                                <option value="1">Hasta 1 km</option>
-                                <option value="3">Hasta 3 km</option>
-                                <option value="5">Hasta 5 km</option>
-                                <option value="10">Hasta 10 km</option>
+                                <option value="">
+                                    Cualquier distancia{facets ? ` (${facets.distanceTotal})` : ""}
+                                </option>
+                                {DISTANCE_OPTIONS.map((km) => (
+                                    <option key={km} value={String(km)}>
+                                        Hasta {km} km{facets ? ` (${countWithin(distanceRings, km)})` : ""}
+                                    </option>
+                                ))}
                             </select>
                         </div>
 
@@ -105,6 +159,15 @@ const PostFiltersBar = ({ filters, onFiltersChange, onApplyFilters, onClearFilte
                                 Limpiar
                             </button>
 
+                            {onSaveSearch && (
+                                <button
+                                    onClick={onSaveSearch}
+                                    className="px-5 py-2.5 rounded-lg border-2 border-blue-400 text-sm font-semibold text-blue-700 hover:bg-blue-50"
+                                >
+                                    Guardar búsqueda
+                                </button>
+                            )}
+
                             <button
                                 onClick={onApplyFilters}
                                 className="px-6 py-2.5 rounded-lg bg-[#007bce] text-white text-sm font-semibold hover:bg-[#006bb5] shadow-md"
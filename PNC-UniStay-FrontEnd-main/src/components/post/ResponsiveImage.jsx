@@ -0,0 +1,88 @@
+// src/components/post/ResponsiveImage.jsx
+
+import React, { useEffect, useRef, useState } from 'react';
+
+// Tamaño de la variante que se usa como src cuando el navegador no soporta srcset
+const VARIANT_URL = {
+  thumb: 'thumbUrl',
+  card: 'cardUrl',
+  detail: 'detailUrl',
+};
+
+// Mismos límites que app.image-resize.width-step y max-width del backend
+const RESIZE_STEP = 16;
+const RESIZE_MAX_WIDTH = 2400;
+
+// Solo las imágenes que sirve el backend desde disco se pueden pedir con ?w=
+const isResizable = (url) =>
+  typeof url === 'string' && url.includes('/uploads_unistay/') && typeof ResizeObserver !== 'undefined';
+
+const resizedUrl = (url, width) => `${url}${url.includes('?') ? '&' : '?'}w=${width}`;
+
+/**
+ * Imagen de un post con sus variantes responsivas (ver PostImageResponse del backend).
+ * Si el backend puede redimensionarla a pedido, se mide el ancho real del <img> y se pide
+ * exactamente ese tamaño en píxeles (?w=); si no, el navegador elige del srcset según `sizes`.
+ * Mientras carga se ve el placeholder diminuto estirado como fondo. Si las variantes aún no
+ * existen usa la imagen original.
+ */
+function ResponsiveImage({ image, fallbackSrc, variant = 'card', sizes, alt, className, style, ...rest }) {
+  const imgRef = useRef(null);
+  const original = image?.imageUrl || fallbackSrc;
+  const resizable = isResizable(original);
+  const [width, setWidth] = useState(0);
+
+  useEffect(() => {
+    if (!resizable || !imgRef.current) {
+      return undefined;
+    }
+    const observer = new ResizeObserver(([entry]) => {
+      const cssWidth = entry.contentRect.width;
+      if (cssWidth <= 0) {
+        return;
+      }
+      const pixels = Math.min(
+        RESIZE_MAX_WIDTH,
+        Math.ceil((cssWidth * (window.devicePixelRatio || 1)) / RESIZE_STEP) * RESIZE_STEP
+      );
+      // Solo crece: al achicar la ventana la versión que ya está cargada sigue sirviendo
+      setWidth((current) => Math.max(current, pixels));
+    });
+    observer.observe(imgRef.current);
+    return () => observer.disconnect();
+  }, [resizable, original]);
+
+  const placeholderStyle = image?.placeholder
+    ? { backgroundImage: `url(${image.placeholder})`, backgroundSize: 'cover', backgroundPosition: 'center' }
+    : {};
+
+  if (resizable) {
+    return (
+      <img
+        ref={imgRef}
+        src={width > 0 ? resizedUrl(original, width) : undefined}
+        alt={alt}
+        decoding="async"
+        className={className}
+        style={{ ...placeholderStyle, ...style }}
+        {...rest}
+      />
+    );
+  }
+
+  const src = image?.[VARIANT_URL[variant]] || original;
+  return (
+    <img
+      src={src}
+      srcSet={image?.srcset || undefined}
+      sizes={image?.srcset ? sizes : undefined}
+      alt={alt}
+      decoding="async"
+      className={className}
+      style={{ ...placeholderStyle, ...style }}
+      {...rest}
+    />
+  );
+}
+
+export default ResponsiveImage;
@@ -1,6 +1,10 @@
 import React, { useState, useEffect } from 'react';
 import { FaPlus, FaTimes, FaSave } from 'react-icons/fa';
 import Map from '../map/Map.jsx'; // Asegúrate de importar el componente de Map que creaste
+import { suggestAddresses } from '../../services/roomService';
+
+// Espera entre teclas antes de pedir sugerencias de dirección
+const SUGGEST_DELAY_MS = 150;
 
 function RoomForm({
   initialData = {},
@@ -45,6 +49,30 @@ function RoomForm({
     }
   }, [initialData]);
 
+  // Autocompletado del último fragmento de la dirección ("Calle 1, Esca" -> "Calle 1, Colonia Escalón")
+  const [addressSuggestions, setAddressSuggestions] = useState([]);
+
+  useEffect(() => {
+    const lastComma = formData.address.lastIndexOf(',');
+    const fragment = formData.address.slice(lastComma + 1).trim();
+    if (fragment.length < 2) {
+      setAddressSuggestions([]);
+      return;
+    }
+    const head = lastComma >= 0 ? `${formData.address.slice(0, lastComma + 1).trimEnd()} ` : '';
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      const suggestions = await suggestAddresses(fragment);
+      if (!cancelled) {
+        setAddressSuggestions(suggestions.map(s => `${head}${s.text}`));
+      }
+    }, SUGGEST_DELAY_MS);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [formData.address]);
+
   const handleChange = (e) => {
     const { name, value, type, checked } = e.target;
     setFormData(prevData => ({
@@ -127,7 +155,10 @@ function RoomForm({
           </div>
           <div>
             <label htmlFor="address" className={labelClass}>Dirección <span className="text-red-500">*</span></label>
-            <input type="text" name="address" id="address" value={formData.address} onChange={handleChange} required className={inputClass} placeholder="Calle, número, colonia, ciudad..."/>
+            <input type="text" name="address" id="address" value={formData.address} onChange={handleChange} required className={inputClass} placeholder="Calle, número, colonia, ciudad..." list="address-suggestions" autoComplete="off"/>
+            <datalist id="address-suggestions">
+              {addressSuggestions.map(suggestion => <option key={suggestion} value={suggestion} />)}
+            </datalist>
           </div>
 
           <div className="grid grid-cols-1 sm:grid-cols-2 gap-6">
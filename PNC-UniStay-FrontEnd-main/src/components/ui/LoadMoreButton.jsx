@@ -0,0 +1,23 @@
+import React from 'react';
+
+/**
+ * Botón "Cargar más" al pie de un listado paginado por cursor. Solo se muestra mientras
+ * haya una página siguiente (hasMore).
+ */
+function LoadMoreButton({ hasMore, isLoading, onClick }) {
+  if (!hasMore) return null;
+  return (
+    <div className="flex justify-center mt-8">
+      <button
+        type="button"
+        onClick={onClick}
+        disabled={isLoading}
+        className="bg-gray-800 text-white font-bold py-3 px-8 rounded-lg hover:bg-gray-900 transition-colors duration-300 disabled:opacity-60 disabled:cursor-not-allowed"
+      >
+        {isLoading ? 'Cargando...' : 'Cargar más'}
+      </button>
+    </div>
+  );
+}
+
+export default LoadMoreButton;
@@ -1,12 +1,16 @@
 // src/pages/AllPostsPage.jsx (o donde tengas este componente)
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { getAllPosts } from '../services/postService';
-import { filterPosts } from '../services/postFilterService'; // 👈 IMPORTANTE
+import { getPostsPage } from '../services/postService';
+import { filterPosts, getFilterFacets } from '../services/postFilterService'; // 👈 IMPORTANTE
+import { createSavedSearch } from '../services/savedSearchService';
+import { toast } from 'react-toastify';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
 import ErrorMessage from '../components/ui/ErrorMessage';
+import LoadMoreButton from '../components/ui/LoadMoreButton';
 import { FaHome } from 'react-icons/fa';
 import PostFiltersBar from '../components/post/PostFiltersBar'; // 👈 NUEVO IMPORT
+import ResponsiveImage from '../components/post/ResponsiveImage';
 
 const ReadOnlyPostCard = ({ post }) => {
     const getInitials = (name) => {
@@ -22,9 +26,12 @@ const ReadOnlyPostCard = ({ post }) => {
         <div className="group bg-white rounded-xl shadow-lg overflow-hidden flex flex-col transform hover:-translate-y-1 transition-transform duration-300">
             <div className="relative">
                 <div className="aspect-w-16 aspect-h-9">
-                    <img 
-                        src={post.imageUrls && post.imageUrls.length > 0 ? post.imageUrls[0] : 'https://via.placeholder.com/400x225?text=UniStay'} 
+                    <ResponsiveImage
+                        image={post.images?.[0]}
+                        fallbackSrc={post.imageUrls && post.imageUrls.length > 0 ? post.imageUrls[0] : 'https://via.placeholder.com/400x225?text=UniStay'} 
+                        sizes="(min-width: 1024px) 33vw, (min-width: 640px) 50vw, 100vw"
                         alt={post.title}
+                        loading="lazy"
                         className="w-full h-full object-cover"
                     />
                 </div>
@@ -71,6 +78,13 @@ function AllPostsPage() {
     const [posts, setPosts] = useState([]);
     const [isLoading, setIsLoading] = useState(true);
     const [error, setError] = useState(null);
+    // Paginación por cursor: la página siguiente se pide solo con "Cargar más"
+    const [nextCursor, setNextCursor] = useState(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
+    // Filtros de la lista que se está mostrando (null = catálogo sin filtros)
+    const [appliedFilters, setAppliedFilters] = useState(null);
+    // Conteos que muestra la barra de filtros junto a cada opción
+    const [facets, setFacets] = useState(null);
 
     const [filters, setFilters] = useState({
         minPrice: '',
@@ -78,22 +92,64 @@ function AllPostsPage() {
         maxDistanceKm: '',
     });
 
-    // Carga inicial (sin filtros)
+    // Cada faceta se cuenta con los demás filtros aplicados pero sin el suyo: el histograma de
+    // precios respeta la distancia elegida y los anillos de distancia respetan el precio
+    const loadFacets = async (applied = {}) => {
+        try {
+            const [byPrice, byDistance] = await Promise.all([
+                getFilterFacets({ maxDistanceKm: applied.maxDistanceKm }),
+                getFilterFacets({ minPrice: applied.minPrice, maxPrice: applied.maxPrice }),
+            ]);
+            setFacets({
+                priceHistogram: byPrice?.priceHistogram || [],
+                distanceRings: byDistance?.distanceRings || [],
+                distanceTotal: byDistance?.total ?? 0,
+            });
+        } catch (err) {
+            // Sin conteos la barra sigue funcionando; no es motivo para mostrar un error
+            console.error("Error al cargar los conteos de filtros:", err);
+            setFacets(null);
+        }
+    };
+
+    // Carga inicial (sin filtros): solo la primera página
     const loadAllPosts = async () => {
+        loadFacets();
         try {
             setIsLoading(true);
             setError(null);
-            const postsData = await getAllPosts();
-            setPosts(postsData || []);
+            const page = await getPostsPage();
+            setPosts(page.items);
+            setNextCursor(page.nextCursor);
+            setAppliedFilters(null);
         } catch (err) {
             console.error("Error al cargar los posts en AllPostsPage:", err);
             setError(err.message || 'Ocurrió un error al obtener las publicaciones.');
             setPosts([]);
+            setNextCursor(null);
         } finally {
             setIsLoading(false);
         }
     };
 
+    // Página siguiente de la misma lista (catálogo o filtrada)
+    const handleLoadMore = async () => {
+        if (!nextCursor || isLoadingMore) return;
+        try {
+            setIsLoadingMore(true);
+            const page = appliedFilters
+                ? await filterPosts(appliedFilters, nextCursor)
+                : await getPostsPage(nextCursor);
+            setPosts((current) => [...current, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (err) {
+            console.error("Error al cargar más posts:", err);
+            toast.error(err.message || 'No se pudieron cargar más publicaciones.');
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
     useEffect(() => {
         loadAllPosts();
     }, []);
@@ -111,8 +167,11 @@ function AllPostsPage() {
                 maxDistanceKm: filters.maxDistanceKm !== '' ? Number(filters.maxDistanceKm) : undefined,
             };
 
-            const filtered = await filterPosts(payload);
-            setPosts(filtered || []);
+            loadFacets(payload);
+            const page = await filterPosts(payload);
+            setPosts(page.items);
+            setNextCursor(page.nextCursor);
+            setAppliedFilters(payload);
         } catch (err) {
             console.error("Error al filtrar posts:", err);
             setError(err.message || 'Ocurrió un error al filtrar las publicaciones.');
@@ -121,6 +180,23 @@ function AllPostsPage() {
         }
     };
 
+    // Guardar los filtros actuales: el backend avisa por correo cuando aparezca un post que los cumpla
+    const handleSaveSearch = async () => {
+        const name = window.prompt('Nombre para esta búsqueda:', 'Mi búsqueda');
+        if (!name || !name.trim()) return;
+        try {
+            await createSavedSearch({
+                name: name.trim(),
+                minPrice: filters.minPrice !== '' ? Number(filters.minPrice) : null,
+                maxPrice: filters.maxPrice !== '' ? Number(filters.maxPrice) : null,
+                maxDistanceKm: filters.maxDistanceKm !== '' ? Number(filters.maxDistanceKm) : null,
+            });
+            toast.success('Búsqueda guardada. Te avisaremos por correo cuando haya habitaciones nuevas.');
+        } catch (err) {
+            toast.error(err.message || 'No se pudo guardar la búsqueda.');
+        }
+    };
+
     // Limpiar filtros
     const handleClearFilters = async () => {
         setFilters({
@@ -161,9 +237,11 @@ function AllPostsPage() {
             {/* 🔍 BARRA DE FILTROS */}
             <PostFiltersBar
                 filters={filters}
+                facets={facets}
                 onFiltersChange={setFilters}
                 onApplyFilters={handleApplyFilters}
                 onClearFilters={handleClearFilters}
+                onSaveSearch={handleSaveSearch}
             />
 
             {posts.length > 0 ? (
@@ -183,6 +261,8 @@ function AllPostsPage() {
                     </p>
                 </div>
             )}
+
+            <LoadMoreButton hasMore={!!nextCursor} isLoading={isLoadingMore} onClick={handleLoadMore} />
         </div>
     );
 }
@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { useNavigate, Link } from 'react-router-dom';
 import PostForm from '../components/post/PostForm';
 import { createPost } from '../services/postService';
+import { uploadImagesDirect } from '../services/uploadService';
 import { getMyRooms } from '../services/roomService';
 import { toast } from 'react-toastify';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
@@ -36,20 +37,24 @@ function CreatePostPage() {
     setIsSubmitting(true);
     setError(null);
 
-    const formDataPayload = new FormData();
-    formDataPayload.append(
-      'postData', 
-      new Blob([JSON.stringify(postMetadata)], { type: "application/json" })
-    );
-
     try {
-      if (!files || files.length === 0) {
+      let images = files;
+      if (!images || images.length === 0) {
         const response = await fetch(habitacionDefault);
         const blob = await response.blob();
-        const defaultFile = new File([blob], 'habitacion.jpg', { type: blob.type });
-        formDataPayload.append('images', defaultFile);
-      } else {
-        files.forEach(file => {
+        images = [new File([blob], 'habitacion.jpg', { type: blob.type })];
+      }
+
+      // Con almacenamiento de objetos las imágenes van directo al bucket; si no, en el FormData
+      const uploadedImages = await uploadImagesDirect(images);
+
+      const formDataPayload = new FormData();
+      formDataPayload.append(
+        'postData', 
+        new Blob([JSON.stringify(uploadedImages ? { ...postMetadata, uploadedImages } : postMetadata)], { type: "application/json" })
+      );
+      if (!uploadedImages) {
+        images.forEach(file => {
           formDataPayload.append('images', file);
         });
       }
@@ -3,6 +3,7 @@ import { useParams, useNavigate, Link } from 'react-router-dom';
 import { FaArrowLeft } from 'react-icons/fa';
 import PostForm from '../components/post/PostForm'; // Reutilizamos PostForm
 import { getPostById, updatePost } from '../services/postService';
+import { uploadImagesDirect } from '../services/uploadService';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
 import ErrorMessage from '../components/ui/ErrorMessage';
 import { toast } from 'react-toastify';
@@ -70,20 +71,23 @@ function EditPostPage() {
     setIsSubmitting(true);
     setError(null);
 
-    const formDataPayload = new FormData();
-    formDataPayload.append('postData', new Blob([JSON.stringify(postMetadata)], { type: "application/json" }));
+    try {
+      // Con almacenamiento de objetos las imágenes nuevas van directo al bucket; si no, en el FormData
+      const uploadedImages = await uploadImagesDirect(newFiles);
 
-    if (newFiles && newFiles.length > 0) {
-      newFiles.forEach((file, index) => {
-        formDataPayload.append('newImages', file, file.name || `new_image-${index}`);
-      });
-    }
-    // Si PostForm envía 'imagesToDelete' en postMetadata, el backend debe manejarlo.
-    // Ejemplo: if (postMetadata.imagesToDelete && postMetadata.imagesToDelete.length > 0) {
-    //   formDataPayload.append('imagesToDelete', JSON.stringify(postMetadata.imagesToDelete));
-    // }
+      const formDataPayload = new FormData();
+      formDataPayload.append('postData', new Blob([JSON.stringify(uploadedImages ? { ...postMetadata, uploadedImages } : postMetadata)], { type: "application/json" }));
+
+      if (!uploadedImages && newFiles && newFiles.length > 0) {
+        newFiles.forEach((file, index) => {
+          formDataPayload.append('newImages', file, file.name || `new_image-${index}`);
+        });
+      }
+      // Si PostForm envía 'imagesToDelete' en postMetadata, el backend debe manejarlo.
+      // Ejemplo: if (postMetadata.imagesToDelete && postMetadata.imagesToDelete.length > 0) {
+      //   formDataPayload.append('imagesToDelete', JSON.stringify(postMetadata.imagesToDelete));
+      // }
 
-    try {
       const response = await updatePost(postId, formDataPayload); 
       toast.success(response.message || '¡Publicación actualizada exitosamente!');
       navigate(`/posts/${postId}`); 
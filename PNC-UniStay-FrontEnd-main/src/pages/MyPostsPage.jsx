@@ -6,14 +6,18 @@ import { toast } from 'react-toastify';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
 import ErrorMessage from '../components/ui/ErrorMessage';
 import EmptyState from '../components/ui/EmptyState'; // Importamos el componente
+import ResponsiveImage from '../components/post/ResponsiveImage';
 
 const MyPostCard = ({ post, onDelete }) => (
   <div className="bg-white rounded-lg shadow-md overflow-hidden flex flex-col">
     <Link to={`/posts/${post.postId}`} className="block group">
       <div className="aspect-w-16 aspect-h-9">
-        <img 
-          src={post.imageUrls && post.imageUrls.length > 0 ? post.imageUrls[0] : 'https://via.placeholder.com/400x225?text=Sin+Imagen'} 
+        <ResponsiveImage
+          image={post.images?.[0]}
+          fallbackSrc={post.imageUrls && post.imageUrls.length > 0 ? post.imageUrls[0] : 'https://via.placeholder.com/400x225?text=Sin+Imagen'} 
+          sizes="(min-width: 1024px) 33vw, (min-width: 640px) 50vw, 100vw"
           alt={post.title}
+          loading="lazy"
           className="w-full h-full object-cover"
         />
       </div>
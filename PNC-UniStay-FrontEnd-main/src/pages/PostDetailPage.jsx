@@ -1,8 +1,8 @@
 // src/pages/PostDetailPage.jsx
 
 import React, { useState, useEffect, useMemo } from 'react';
-import { useParams } from 'react-router-dom';
-import { getPostById } from '../services/postService';
+import { Link, useParams } from 'react-router-dom';
+import { getPostById, getSimilarPosts } from '../services/postService';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
 import ErrorMessage from '../components/ui/ErrorMessage';
 import {
@@ -22,6 +22,7 @@ import { addBookmark, removeBookmark, getMyBookmarks } from '../services/bookmar
 
 // ⭐ nuevo componente de valoraciones
 import PostReviewsCard from '../components/post/PostReviewsCard';
+import ResponsiveImage from '../components/post/ResponsiveImage';
 
 // Placeholders
 const staticSidebarPlaceholders = {
@@ -155,6 +156,25 @@ function PostDetailPage() {
     fetchPostDetails();
   }, [postId]);
 
+  // publicaciones similares (no bloquea la página si falla)
+  const [similarPosts, setSimilarPosts] = useState([]);
+
+  useEffect(() => {
+    if (!postId) return;
+    let cancelled = false;
+    getSimilarPosts(postId)
+      .then((posts) => {
+        if (!cancelled) setSimilarPosts(posts);
+      })
+      .catch((e) => {
+        console.error('Error al cargar publicaciones similares:', e);
+        if (!cancelled) setSimilarPosts([]);
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [postId]);
+
   // comprobar si está guardado
   useEffect(() => {
     const checkBookmark = async () => {
@@ -278,8 +298,12 @@ function PostDetailPage() {
           {/* Galería */}
           <section className="mb-6">
             <div className="relative mb-2 aspect-[16/9] overflow-hidden rounded-lg shadow-md bg-gray-200">
-              <img
-                src={activeImage}
+              <ResponsiveImage
+                key={activeImage}
+                image={post.images?.find((image) => image.imageUrl === activeImage)}
+                fallbackSrc={activeImage}
+                variant="detail"
+                sizes="(min-width: 1024px) 66vw, 100vw"
                 alt={`Imagen principal de ${post.title}`}
                 className="absolute inset-0 w-full h-full object-cover"
               />
@@ -307,9 +331,13 @@ function PostDetailPage() {
                         : 'opacity-70 hover:opacity-100'
                     }`}
                   >
-                    <img
-                      src={imgUrl}
+                    <ResponsiveImage
+                      image={post.images?.[index]}
+                      fallbackSrc={imgUrl}
+                      variant="thumb"
+                      sizes="20vw"
                       alt={`Thumbnail ${index + 1}`}
+                      loading="lazy"
                       className="w-full h-full object-cover"
                     />
                   </button>
@@ -390,6 +418,44 @@ function PostDetailPage() {
               </ul>
             </section>
           )}
+
+          {/* Habitaciones similares */}
+          {similarPosts.length > 0 && (
+            <section className="p-6 bg-gray-50 rounded-lg border border-gray-200 mb-8">
+              <h2 className="text-lg font-semibold text-gray-800 mb-4">
+                Habitaciones similares
+              </h2>
+              <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-3 gap-4">
+                {similarPosts.map((similar) => (
+                  <Link
+                    key={similar.postId || similar.id}
+                    to={`/posts/${similar.postId || similar.id}`}
+                    className="block bg-white rounded-lg border border-gray-200 overflow-hidden hover:shadow-md transition-shadow"
+                  >
+                    <ResponsiveImage
+                      image={similar.images?.[0]}
+                      fallbackSrc={
+                        similar.imageUrls?.[0] ||
+                        `https://picsum.photos/seed/${similar.postId || similar.id}/600/337`
+                      }
+                      sizes="(min-width: 1024px) 22vw, (min-width: 640px) 50vw, 100vw"
+                      alt={similar.title}
+                      loading="lazy"
+                      className="w-full h-32 object-cover"
+                    />
+                    <div className="p-3">
+                      <p className="text-sm font-medium text-gray-800 truncate">
+                        {similar.title}
+                      </p>
+                      <p className="text-sm text-sky-600 font-semibold">
+                        ${parseFloat(similar.price || 0).toFixed(2)}/mes
+                      </p>
+                    </div>
+                  </Link>
+                ))}
+              </div>
+            </section>
+          )}
         </main>
 
         {/* Sidebar */}
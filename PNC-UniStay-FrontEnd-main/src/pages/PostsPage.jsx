@@ -2,10 +2,11 @@
 
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { getAllPosts, deletePost } from '../services/postService';
+import { getPostsPage, deletePost } from '../services/postService';
 import PostCard from '../components/post/PostCard';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
 import ErrorMessage from '../components/ui/ErrorMessage';
+import LoadMoreButton from '../components/ui/LoadMoreButton';
 import ConfirmModal from '../components/ui/ConfirmModal';
 import { FaPlus, FaTrash } from 'react-icons/fa';
 import { toast } from 'react-toastify';
@@ -18,6 +19,9 @@ function PostsPage() {
     const [error, setError] = useState(null);
     const [showDeletePostModal, setShowDeletePostModal] = useState(false);
     const [postToDelete, setPostToDelete] = useState(null);
+    // Paginación por cursor: la página siguiente se pide solo con "Cargar más"
+    const [nextCursor, setNextCursor] = useState(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
 
     // --- 2. OBTENEMOS EL USUARIO Y DETERMINAMOS SU ROL ---
     const { user } = useAuth();
@@ -32,17 +36,33 @@ function PostsPage() {
         try {
             setIsLoading(true);
             setError(null);
-            const fetchedPosts = await getAllPosts();
-            setPosts(fetchedPosts);
+            const page = await getPostsPage();
+            setPosts(page.items);
+            setNextCursor(page.nextCursor);
         } catch (err) {
             console.error("Error al cargar los posts en PostsPage:", err);
             setError(err.message || 'Ocurrió un error desconocido al obtener las publicaciones.');
             setPosts([]);
+            setNextCursor(null);
         } finally {
             setIsLoading(false);
         }
     };
 
+    const handleLoadMore = async () => {
+        if (!nextCursor || isLoadingMore) return;
+        try {
+            setIsLoadingMore(true);
+            const page = await getPostsPage(nextCursor);
+            setPosts(prevPosts => [...prevPosts, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (err) {
+            toast.error(err.message || "No se pudieron cargar más publicaciones.");
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
     const handleCreateNewPost = () => {
         navigate('/posts/new'); 
     };
@@ -98,6 +118,8 @@ function PostsPage() {
                 </div>
             )}
 
+            <LoadMoreButton hasMore={!!nextCursor} isLoading={isLoadingMore} onClick={handleLoadMore} />
+
             <ConfirmModal
                 isOpen={showDeletePostModal}
                 onClose={closeDeletePostConfirmModal}
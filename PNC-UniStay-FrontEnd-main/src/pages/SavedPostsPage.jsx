@@ -6,6 +6,7 @@ import { getMyBookmarks } from '../services/bookmarkService';
 import LoadingSpinner from '../components/ui/LoadingSpinner';
 import ErrorMessage from '../components/ui/ErrorMessage';
 import { Link } from 'react-router-dom';
+import ResponsiveImage from '../components/post/ResponsiveImage';
 
 const SavedPostsPage = () => {
     const [savedPosts, setSavedPosts] = useState([]);
@@ -83,13 +84,16 @@ const SavedPostsPage = () => {
                             {/* Imagen */}
                             <div className="relative">
                                 <div className="aspect-w-16 aspect-h-9">
-                                    <img
-                                        src={
+                                    <ResponsiveImage
+                                        image={post.images?.[0]}
+                                        fallbackSrc={
                                             post.imageUrls?.length > 0
                                                 ? post.imageUrls[0]
                                                 : "https://via.placeholder.com/400x225?text=UniStay"
                                         }
+                                        sizes="(min-width: 1024px) 33vw, (min-width: 640px) 50vw, 100vw"
                                         alt={post.title}
+                                        loading="lazy"
                                         className="w-full h-full object-cover"
                                     />
                                 </div>
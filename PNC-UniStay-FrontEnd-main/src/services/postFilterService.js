@@ -1,16 +1,8 @@
 // src/services/postFilterService.js
 import apiClient from "./apiClient";
 
-/**
- * Filtra posts por:
- *  - minPrice (opcional)
- *  - maxPrice (opcional)
- *  - maxDistanceKm (opcional)
- *
- * Ejemplo:
- * filterPosts({ minPrice: 150, maxPrice: 300, maxDistanceKm: 5 })
- */
-export async function filterPosts({ minPrice, maxPrice, maxDistanceKm }) {
+// Parámetros de /post-filters: solo se envían los filtros con valor
+const buildParams = ({ minPrice, maxPrice, maxDistanceKm, sort }) => {
     const params = {};
 
     if (minPrice !== undefined && minPrice !== null) {
@@ -22,7 +14,46 @@ export async function filterPosts({ minPrice, maxPrice, maxDistanceKm }) {
     if (maxDistanceKm !== undefined && maxDistanceKm !== null) {
         params.maxDistanceKm = maxDistanceKm;
     }
+    if (sort) {
+        params.sort = sort;
+    }
+    return params;
+};
 
+/**
+ * Filtra posts por:
+ *  - minPrice (opcional)
+ *  - maxPrice (opcional)
+ *  - maxDistanceKm (opcional)
+ *  - sort (opcional): NEWEST, PRICE_ASC, PRICE_DESC, DISTANCE o RATING
+ *
+ * Devuelve una página { items, nextCursor }; para la siguiente se repiten los mismos filtros
+ * con el nextCursor recibido (null en la última página).
+ *
+ * Ejemplo:
+ * filterPosts({ minPrice: 150, maxPrice: 300, maxDistanceKm: 5 })
+ * filterPosts({ minPrice: 150, maxPrice: 300, maxDistanceKm: 5 }, page.nextCursor)
+ */
+export async function filterPosts(filters, cursor = null) {
+    const params = buildParams(filters);
+    if (cursor) {
+        params.cursor = cursor;
+    }
+
+    // El backend pagina por cursor: { data: { items, nextCursor, hasMore } }
     const { data } = await apiClient.get("/post-filters", { params });
-    return data.data || [];
-}
\ No newline at end of file
+    const page = data.data || {};
+    return { items: page.items || [], nextCursor: page.nextCursor || null };
+}
+
+/**
+ * Conteos por faceta (histograma de precios, anillos de distancia, ...) de los posts que
+ * cumplen los filtros dados. Vienen en la primera página de /post-filters; se pide una
+ * página de un solo post porque solo interesan los conteos.
+ */
+export async function getFilterFacets(filters) {
+    const { data } = await apiClient.get("/post-filters", {
+        params: { ...buildParams(filters), size: 1 },
+    });
+    return data.data?.facets || null;
+}
@@ -1,12 +1,17 @@
 // src/services/postService.js
 import apiClient from './apiClient'; // <-- Importamos nuestra instancia centralizada
 
-export const getAllPosts = async () => {
+/**
+ * Una página del catálogo (más nuevos primero). El backend pagina por cursor:
+ * { data: { items, nextCursor, hasMore } }; para la página siguiente se pasa el nextCursor
+ * recibido. nextCursor es null en la última página.
+ */
+export const getPostsPage = async (cursor = null) => {
   try {
-    // axios automáticamente parsea el JSON y lanza un error si el status no es 2xx
-    const response = await apiClient.get('/post');
-    // Asumimos que tu backend devuelve { data: [...] }
-    return response.data.data || []; 
+    const params = cursor ? { cursor } : {};
+    const response = await apiClient.get('/post', { params });
+    const page = response.data.data || {};
+    return { items: page.items || [], nextCursor: page.nextCursor || null };
   } catch (error) {
     console.error("Error al obtener publicaciones:", error.response?.data || error.message);
     // Lanzamos un error más limpio para que el componente lo maneje
@@ -89,4 +94,34 @@ export const deletePost = async (postId) => {
     console.error(`Error al eliminar la publicación ${postId}:`, error.response?.data || error.message);
     throw new Error(error.response?.data?.message || `Error de red al eliminar la publicación ${postId}.`);
   }
-};
\ No newline at end of file
+};
+/**
+ * Datos del mapa para el área visible.
+ * bbox = [minLng, minLat, maxLng, maxLat]. Con zoom bajo devuelve clusters
+ * ({ lat, lng, count, minPrice, maxPrice }); con zoom alto, pins individuales.
+ */
+export const getMapData = async (bbox, zoom) => {
+  try {
+    const response = await apiClient.get('/post/map', {
+      params: { bbox: bbox.join(','), zoom: Math.round(zoom) },
+    });
+    return response.data.data;
+  } catch (error) {
+    console.error("Error al obtener datos del mapa:", error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || 'Error de red al obtener datos del mapa.');
+  }
+};
+
+/**
+ * Publicaciones disponibles más parecidas a la dada (precio, tamaño, ubicación, amenidades...).
+ */
+export const getSimilarPosts = async (postId, limit = 6) => {
+  if (!postId) throw new Error("El ID del post es requerido.");
+  try {
+    const response = await apiClient.get(`/post/${postId}/similar`, { params: { limit } });
+    return response.data.data || [];
+  } catch (error) {
+    console.error(`Error al obtener publicaciones similares a ${postId}:`, error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || 'Error de red al obtener publicaciones similares.');
+  }
+};
@@ -81,4 +81,17 @@ export const getMyRooms = async () => {
     console.error("Error al obtener mis habitaciones:", error.response?.data || error.message);
     throw new Error(error.response?.data?.message || 'Error al obtener tus habitaciones.');
   }
-};
\ No newline at end of file
+};
+/**
+ * Sugerencias de dirección (colonia, ciudad...) a partir de lo que el usuario lleva escrito.
+ * Devuelve [{ text, count }], ordenadas por cantidad de habitaciones.
+ */
+export const suggestAddresses = async (q, limit = 8) => {
+  try {
+    const response = await apiClient.get('/room/address-suggest', { params: { q, limit } });
+    return response.data.data || [];
+  } catch (error) {
+    console.error("Error al obtener sugerencias de dirección:", error.response?.data || error.message);
+    return [];
+  }
+};
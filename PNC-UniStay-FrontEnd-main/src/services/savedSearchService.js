@@ -0,0 +1,38 @@
+// src/services/savedSearchService.js
+import apiClient from './apiClient';
+
+/**
+ * Guarda los filtros actuales como búsqueda. Cuando se publique un post que los cumpla,
+ * el backend avisa por correo (en lotes).
+ * @param {object} search - { name, minPrice, maxPrice, maxDistanceKm, amenities }
+ */
+export const createSavedSearch = async (search) => {
+  try {
+    const response = await apiClient.post('/saved-searches', search);
+    return response.data.data;
+  } catch (error) {
+    console.error("Error al guardar la búsqueda:", error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || 'Error de red al guardar la búsqueda.');
+  }
+};
+
+export const getMySavedSearches = async () => {
+  try {
+    const response = await apiClient.get('/saved-searches');
+    return response.data.data || [];
+  } catch (error) {
+    console.error("Error al obtener las búsquedas guardadas:", error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || 'Error de red al obtener las búsquedas guardadas.');
+  }
+};
+
+export const deleteSavedSearch = async (searchId) => {
+  if (!searchId) throw new Error("El ID de la búsqueda es requerido.");
+  try {
+    const response = await apiClient.delete(`/saved-searches/${searchId}`);
+    return response.data;
+  } catch (error) {
+    console.error(`Error al eliminar la búsqueda ${searchId}:`, error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || 'Error de red al eliminar la búsqueda.');
+  }
+};
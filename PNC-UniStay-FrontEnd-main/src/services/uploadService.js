@@ -0,0 +1,81 @@
+// src/services/uploadService.js
+import apiClient from './apiClient';
+
+// Partes de una subida multipart que se mandan a la vez
+const PARALLEL_PARTS = 3;
+
+const sha256Hex = async (file) => {
+  const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+  return Array.from(new Uint8Array(digest), (b) => b.toString(16).padStart(2, '0')).join('');
+};
+
+// PUT directo al almacenamiento: sin apiClient, la URL prefirmada ya lleva la autorización
+const putToStorage = async (url, body, headers = {}) => {
+  const response = await fetch(url, { method: 'PUT', body, headers });
+  if (!response.ok) {
+    throw new Error(`El almacenamiento rechazó la subida (${response.status}).`);
+  }
+  return response;
+};
+
+const uploadParts = async (file, upload) => {
+  const parts = new Array(upload.partUrls.length);
+  let next = 0;
+  const worker = async () => {
+    while (next < upload.partUrls.length) {
+      const index = next++;
+      const start = index * upload.partSize;
+      const response = await putToStorage(upload.partUrls[index], file.slice(start, start + upload.partSize));
+      // El bucket debe exponer ETag en su configuración CORS
+      parts[index] = { partNumber: index + 1, etag: response.headers.get('ETag') };
+    }
+  };
+  await Promise.all(Array.from({ length: Math.min(PARALLEL_PARTS, parts.length) }, worker));
+  return parts;
+};
+
+const uploadOne = async (file) => {
+  const { data } = await apiClient.post('/uploads', {
+    contentType: file.type,
+    size: file.size,
+    sha256: await sha256Hex(file),
+  });
+  const upload = data.data;
+  if (upload.alreadyStored) {
+    return upload.uploadKey;
+  }
+  if (upload.uploadUrl) {
+    await putToStorage(upload.uploadUrl, file, upload.headers);
+    return upload.uploadKey;
+  }
+
+  try {
+    const parts = await uploadParts(file, upload);
+    await apiClient.post('/uploads/complete', { uploadKey: upload.uploadKey, uploadId: upload.uploadId, parts });
+  } catch (error) {
+    apiClient.delete('/uploads', { params: { uploadKey: upload.uploadKey, uploadId: upload.uploadId } }).catch(() => {});
+    throw error;
+  }
+  return upload.uploadKey;
+};
+
+/**
+ * Sube las imágenes directo al almacenamiento de objetos (URLs prefirmadas) y devuelve sus
+ * claves, para mandarlas en postData.uploadedImages. Devuelve null si el backend guarda en
+ * disco local (responde 501) o el navegador no puede calcular el SHA-256: en ese caso las
+ * imágenes se mandan en el FormData como siempre.
+ */
+export const uploadImagesDirect = async (files) => {
+  if (!files || files.length === 0 || !globalThis.crypto?.subtle) {
+    return null;
+  }
+  try {
+    return await Promise.all(files.map(uploadOne));
+  } catch (error) {
+    if (error.response?.status === 501) {
+      return null;
+    }
+    console.error('Error al subir las imágenes:', error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || error.message || 'Error de red al subir las imágenes.');
+  }
+};
@@ -0,0 +1,19 @@
+package com.dog.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cachés en memoria (Caffeine). Tamaño y TTL se configuran con spring.cache.caffeine.spec;
+ * los nombres deben coincidir con spring.cache.cache-names.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // PostResponse ya enriquecido, por id de post
+    public static final String POSTS = "posts";
+
+    // Páginas del catálogo y el listado completo
+    public static final String POST_CATALOG = "postCatalog";
+}
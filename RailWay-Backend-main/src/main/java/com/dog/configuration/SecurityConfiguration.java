@@ -49,6 +49,10 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/user", "/api/user/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/post-filters", "/api/post-filters/**").permitAll()
 
+                        // Actuator: health abierto; métricas y /actuator/caches (que permite vaciar cachés) solo ADMIN
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // El resto requiere autenticación
                         .anyRequest().authenticated()
                 );
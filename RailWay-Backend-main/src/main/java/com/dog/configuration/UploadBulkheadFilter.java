@@ -0,0 +1,116 @@
+package com.dog.configuration;
+
+import com.dog.dto.response.ApiErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.filter.OrderedHiddenHttpMethodFilter;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead de subidas: como mucho file.max-concurrent-uploads peticiones multipart leen su cuerpo
+ * a la vez. Las demás esperan file.upload-wait-ms y, si no hay lugar, reciben 503 con Retry-After
+ * sin haber leído el cuerpo, así una ráfaga de propietarios subiendo fotos no ocupa los hilos
+ * que atienden al resto del sitio.
+ *
+ * Va antes del HiddenHttpMethodFilter: ese filtro lee los parámetros del POST y con eso Tomcat
+ * ya procesa el multipart completo.
+ */
+@Component
+@Order(OrderedHiddenHttpMethodFilter.DEFAULT_ORDER - 1)
+public class UploadBulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadBulkheadFilter.class);
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final Semaphore permits;
+    private final long waitMs;
+    private final ObjectMapper objectMapper;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    public UploadBulkheadFilter(@Value("${file.max-concurrent-uploads:10}") int maxConcurrentUploads,
+                                @Value("${file.upload-wait-ms:500}") long waitMs,
+                                ObjectMapper objectMapper,
+                                CorsConfigurationSource corsConfigurationSource) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrentUploads));
+        this.waitMs = Math.max(0, waitMs);
+        this.objectMapper = objectMapper;
+        this.corsConfigurationSource = corsConfigurationSource;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        String contentType = request.getContentType();
+        return !(HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method) || HttpMethod.PATCH.matches(method))
+                || contentType == null
+                || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.warn("Subida rechazada por exceso de subidas simultáneas: {} {}", request.getMethod(), request.getRequestURI());
+
+        // Corre antes que Spring Security: sin los headers CORS el navegador no dejaría leer el 503
+        CorsConfiguration cors = corsConfigurationSource.getCorsConfiguration(request);
+        if (cors != null && !corsProcessor.processRequest(cors, request, response)) {
+            return;
+        }
+
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        // El cuerpo no se leyó: se cierra la conexión en vez de que Tomcat lo descarte
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiErrorResponse.builder()
+                .message("Hay demasiadas subidas en curso. Intenta de nuevo en unos segundos.")
+                .status(status.value())
+                .uri(request.getRequestURI())
+                .build());
+    }
+}
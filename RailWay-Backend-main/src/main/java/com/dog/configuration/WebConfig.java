@@ -1,39 +1,45 @@
 package com.dog.configuration;
 
+import com.dog.service.impl.LocalFileStorageServiceImpl;
+import jakarta.servlet.MultipartConfigElement;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    @Value("${file.upload-dir:./uploads_unistay}")
-    private String uploadDir;
-
-    @Value("${file.base-url:/uploads_unistay}")
-    private String baseUrlPath;
-
     // SIN CONFIGURACIÓN DE CORS AQUÍ
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        Path resolvedUploadPath = Paths.get(uploadDir).toAbsolutePath();
-        String absoluteUploadPath = resolvedUploadPath.normalize().toString();
-
-        String cleanBaseUrlPath = baseUrlPath.startsWith("/") ? baseUrlPath : "/" + baseUrlPath;
-        if (cleanBaseUrlPath.endsWith("/")) {
-            cleanBaseUrlPath = cleanBaseUrlPath.substring(0, cleanBaseUrlPath.length() - 1);
+    // Los archivos de file.base-url los sirve UploadController (Range, sendfile y caché de archivos abiertos)
+
+    /**
+     * Tomcat escribe cada parte del multipart a disco mientras la recibe. Por defecto lo hace en su
+     * directorio temporal; aquí va dentro de upload-dir para que LocalFileStorageServiceImpl la
+     * mueva a su lugar final con un renombrado en vez de copiarla otra vez.
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties multipartProperties,
+                                                         @Value("${file.upload-dir:./uploads_unistay}") String uploadDir)
+            throws IOException {
+        MultipartConfigElement config = multipartProperties.createMultipartConfig();
+        if (StringUtils.hasText(multipartProperties.getLocation())) {
+            return config;
         }
-        String urlPattern = cleanBaseUrlPath + "/**";
-        String resourceLocation = "file:" + absoluteUploadPath + (absoluteUploadPath.endsWith("/") ? "" : "/");
 
-        registry.addResourceHandler(urlPattern)
-                .addResourceLocations(resourceLocation);
+        Path location = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(LocalFileStorageServiceImpl.UPLOAD_TMP_DIR);
+        Files.createDirectories(location);
+        return new MultipartConfigElement(location.toString(), config.getMaxFileSize(),
+                config.getMaxRequestSize(), config.getFileSizeThreshold());
     }
 
     @Override
@@ -0,0 +1,71 @@
+package com.dog.controller;
+
+import com.dog.dto.request.Upload.CompleteUploadRequest;
+import com.dog.dto.request.Upload.DirectUploadRequest;
+import com.dog.dto.response.DirectUploadResponse;
+import com.dog.dto.response.GeneralResponse;
+import com.dog.exception.DirectUploadUnavailableException;
+import com.dog.service.DirectUploadService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Subida de imágenes directo al almacenamiento (ver DirectUploadService). El uploadKey que se
+ * obtiene aquí se manda en postData.uploadedImages al crear o editar el post.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+public class DirectUploadController {
+
+    // Solo existe con file.storage=s3
+    private final ObjectProvider<DirectUploadService> directUploadService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('PROPIETARIO') or hasRole('ADMIN')")
+    public ResponseEntity<GeneralResponse> prepareUpload(@Valid @RequestBody DirectUploadRequest request) throws IOException {
+        DirectUploadResponse upload = directUploads().prepare(request);
+        return buildResponse("Upload prepared", HttpStatus.OK, upload);
+    }
+
+    @PostMapping("/complete")
+    @PreAuthorize("hasRole('PROPIETARIO') or hasRole('ADMIN')")
+    public ResponseEntity<GeneralResponse> completeUpload(@Valid @RequestBody CompleteUploadRequest request) throws IOException {
+        directUploads().complete(request);
+        return buildResponse("Upload completed", HttpStatus.OK, null);
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('PROPIETARIO') or hasRole('ADMIN')")
+    public ResponseEntity<GeneralResponse> abortUpload(@RequestParam String uploadKey,
+                                                       @RequestParam String uploadId) throws IOException {
+        directUploads().abort(uploadKey, uploadId);
+        return buildResponse("Upload aborted", HttpStatus.OK, null);
+    }
+
+    private DirectUploadService directUploads() {
+        DirectUploadService service = directUploadService.getIfAvailable();
+        if (service == null) {
+            throw new DirectUploadUnavailableException("El almacenamiento actual no admite subidas directas; envía las imágenes con el post.");
+        }
+        return service;
+    }
+
+    private ResponseEntity<GeneralResponse> buildResponse(String message, HttpStatus status, Object data) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+        return ResponseEntity.status(status).body(GeneralResponse.builder()
+                .message(message)
+                .status(status.value())
+                .data(data)
+                .uri(uri)
+                .build());
+    }
+}
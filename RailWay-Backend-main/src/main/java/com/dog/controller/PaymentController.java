@@ -6,6 +6,9 @@ import com.dog.dto.request.Payment.PaymentRequest;
 import com.dog.dto.response.GeneralResponse;
 import com.dog.dto.response.PaymentResponse;
 import com.dog.service.PaymentService;
+import com.dog.utils.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,6 +28,7 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
 
     // --- ENDPOINT AÑADIDO PARA REGENERAR PAGOS ---
     @PostMapping("/{previousPaymentId}/regenerate")
@@ -84,6 +89,17 @@ public class PaymentController {
         return buildResponse("All payments retrieved successfully", HttpStatus.OK, payments);
     }
 
+    // --- Todos los pagos en NDJSON, una línea por elemento (Accept: application/x-ndjson o ?stream=true) ---
+    @GetMapping(produces = NdjsonUtil.MEDIA_TYPE)
+    public void streamAllPayments(HttpServletResponse response) throws IOException {
+        NdjsonUtil.write(response, objectMapper, paymentService::streamAllPayments);
+    }
+
+    @GetMapping(params = "stream=true")
+    public void streamAllPaymentsByFlag(HttpServletResponse response) throws IOException {
+        streamAllPayments(response);
+    }
+
     @GetMapping("/owner/mine")
     @PreAuthorize("hasRole('PROPIETARIO') or hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse> getOwnerPayments(
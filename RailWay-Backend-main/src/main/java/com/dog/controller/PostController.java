@@ -2,11 +2,26 @@ package com.dog.controller;
 
 import com.dog.dto.request.Post.PostCreateRequest;
 import com.dog.dto.request.Post.PostUpdateRequest;
+import com.dog.dto.response.CursorPageResponse;
 import com.dog.dto.response.GeneralResponse;
+import com.dog.dto.response.PostMapResponse;
 import com.dog.dto.response.PostResponse;
+import com.dog.exception.InvalidBoundingBoxException;
+import com.dog.service.CatalogSnapshotService;
+import com.dog.service.PostMapIndex;
+import com.dog.service.PostSearchService;
 import com.dog.service.PostService;
+import com.dog.service.ResourceVersionService;
+import com.dog.utils.ConditionalResponseUtil;
+import com.dog.utils.FileResponseUtil;
+import com.dog.utils.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +29,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,17 +42,83 @@ import java.util.UUID;
 public class PostController {
 
     private final PostService postService;
+    private final PostSearchService postSearchService;
+    private final ResourceVersionService resourceVersionService;
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final PostMapIndex postMapIndex;
+
+    // Límite de posts similares por petición
+    private static final int DEFAULT_SIMILAR = 10;
+    private static final int MAX_SIMILAR = 50;
 
     @Autowired
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostSearchService postSearchService,
+                          ResourceVersionService resourceVersionService, ObjectMapper objectMapper,
+                          CatalogSnapshotService catalogSnapshotService, PostMapIndex postMapIndex) {
         this.postService = postService;
+        this.postSearchService = postSearchService;
+        this.resourceVersionService = resourceVersionService;
+        this.objectMapper = objectMapper;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.postMapIndex = postMapIndex;
     }
 
-    // --- ENDPOINT PÚBLICO PARA OBTENER TODOS LOS POSTS ---
+    // --- ENDPOINT PÚBLICO PARA OBTENER LOS POSTS (PAGINADO POR CURSOR) ---
     @GetMapping
-    public ResponseEntity<GeneralResponse> getAllPosts() {
-        List<PostResponse> posts = postService.findAll();
-        return buildResponse("Posts found", HttpStatus.OK, posts);
+    public ResponseEntity<GeneralResponse> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        // 304 antes de cargar posts: solo se consulta la versión del catálogo
+        String etag = resourceVersionService.catalogTag(cursor, size);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        // Primera página por defecto: archivo ya serializado y comprimido, si está al día
+        if (cursor == null && size == null && serveCatalogSnapshot(etag, request, response)) {
+            return null;
+        }
+        CursorPageResponse<PostResponse> page = postService.findPage(cursor, size);
+        return ConditionalResponseUtil.ok("Posts found", etag, page);
+    }
+
+    // --- Catálogo completo en NDJSON, una línea por elemento (Accept: application/x-ndjson o ?stream=true) ---
+    @GetMapping(produces = NdjsonUtil.MEDIA_TYPE)
+    public void streamAllPosts(HttpServletResponse response) throws IOException {
+        NdjsonUtil.write(response, objectMapper, postService::streamCatalog);
+    }
+
+    @GetMapping(params = "stream=true")
+    public void streamAllPostsByFlag(HttpServletResponse response) throws IOException {
+        streamAllPosts(response);
+    }
+
+    // --- ENDPOINT PÚBLICO DE BÚSQUEDA POR PALABRAS CLAVE ---
+    // Ejemplo: GET /api/post/search?q=amueblado cerca UCA&size=20
+    @GetMapping("/search")
+    public ResponseEntity<GeneralResponse> searchPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        CursorPageResponse<PostResponse> page = postSearchService.search(q, cursor, size);
+        return buildResponse("Search results: " + page.getSize(), HttpStatus.OK, page);
+    }
+
+    // --- ENDPOINT PÚBLICO PARA EL MAPA (CLUSTERS O PINS SEGÚN EL ZOOM) ---
+    // Ejemplo: GET /api/post/map?bbox=-89.30,13.65,-89.18,13.73&zoom=13
+    @GetMapping("/map")
+    public ResponseEntity<GeneralResponse> getPostsMap(
+            @RequestParam String bbox,
+            @RequestParam int zoom
+    ) {
+        double[] box = parseBoundingBox(bbox);
+        PostMapResponse map = postMapIndex.query(box[1], box[0], box[3], box[2], zoom);
+        return buildResponse("Map data retrieved successfully", HttpStatus.OK, map);
     }
 
     // --- NUEVO ENDPOINT SEGURO PARA OBTENER MIS POSTS ---
@@ -49,9 +132,25 @@ public class PostController {
 
     // --- ENDPOINT PÚBLICO PARA OBTENER UN POST POR ID ---
     @GetMapping("/{id}")
-    public ResponseEntity<GeneralResponse> getPostById(@PathVariable UUID id) {
+    public ResponseEntity<GeneralResponse> getPostById(@PathVariable UUID id, WebRequest webRequest) {
+        String etag = resourceVersionService.postTag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         PostResponse post = postService.findById(id);
-        return buildResponse("Post found", HttpStatus.OK, post);
+        return ConditionalResponseUtil.ok("Post found", etag, post);
+    }
+
+    // --- ENDPOINT PÚBLICO DE POSTS SIMILARES ---
+    // Ejemplo: GET /api/post/{id}/similar?limit=10
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<GeneralResponse> getSimilarPosts(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer limit
+    ) {
+        int max = limit == null ? DEFAULT_SIMILAR : Math.max(1, Math.min(limit, MAX_SIMILAR));
+        List<PostResponse> similar = postService.findSimilar(id, max);
+        return buildResponse("Similar posts: " + similar.size(), HttpStatus.OK, similar);
     }
 
     // --- ENDPOINTS DE ESCRITURA (CREATE, UPDATE, DELETE) ---
@@ -92,6 +191,51 @@ public class PostController {
         return buildResponse("Post deleted successfully", HttpStatus.OK, null);
     }
 
+    private boolean serveCatalogSnapshot(String etag, HttpServletRequest request,
+                                         HttpServletResponse response) throws IOException {
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.current(etag);
+        if (snapshot == null) {
+            return false;
+        }
+        boolean gzip = FileResponseUtil.acceptsEncoding(request, "gzip");
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        FileResponseUtil.send(request, response, gzip ? snapshot.gzip() : snapshot.json());
+        return true;
+    }
+
+    /**
+     * bbox = "minLng,minLat,maxLng,maxLat" (mismo orden que GeoJSON).
+     */
+    private double[] parseBoundingBox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new InvalidBoundingBoxException("bbox debe tener el formato minLng,minLat,maxLng,maxLat.");
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+                if (!Double.isFinite(box[i])) {
+                    throw new NumberFormatException(parts[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidBoundingBoxException("bbox contiene valores no numéricos.", e);
+        }
+        if (box[0] < -180 || box[2] > 180 || box[1] < -90 || box[3] > 90
+                || box[0] > box[2] || box[1] > box[3]) {
+            throw new InvalidBoundingBoxException("bbox fuera de rango o con mínimos mayores que máximos.");
+        }
+        return box;
+    }
+
     private ResponseEntity<GeneralResponse> buildResponse(String message, HttpStatus status, Object data) {
         String uri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
         return ResponseEntity.status(status).body(GeneralResponse.builder()
@@ -101,4 +245,4 @@ public class PostController {
                 .uri(uri)
                 .build());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,11 @@
 package com.dog.controller;
 
 import com.dog.dto.request.Post.PostFilterRequest;
+import com.dog.dto.request.Post.PostSortMode;
+import com.dog.dto.response.CursorPageResponse;
 import com.dog.dto.response.GeneralResponse;
+import com.dog.dto.response.PostFacetsResponse;
+import com.dog.dto.response.PostFilterResponse;
 import com.dog.dto.response.PostResponse;
 import com.dog.service.PostFilterService;
 import org.springframework.http.HttpStatus;
@@ -9,8 +13,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/post-filters")
 public class PostFilterController {
@@ -25,26 +27,48 @@ public class PostFilterController {
      * Endpoint público para filtrar posts por:
      *  - rango de precios (minPrice, maxPrice)
      *  - distancia máxima a la UCA (maxDistanceKm)
+     * y ordena según sort: NEWEST (por defecto), PRICE_ASC, PRICE_DESC, DISTANCE o RATING.
      *
-     * Todos los parámetros son opcionales.
+     * Todos los parámetros son opcionales. El resultado viene paginado:
+     * para pedir la siguiente página se reenvía el nextCursor recibido.
+     * La primera página trae además los conteos por faceta (facets).
      *
      * Ejemplo:
-     *   GET /api/post-filters?minPrice=150&maxPrice=250&maxDistanceKm=5
+     *   GET /api/post-filters?minPrice=150&maxPrice=250&maxDistanceKm=5&sort=PRICE_ASC&size=20
      */
     @GetMapping
     public ResponseEntity<GeneralResponse> filterPosts(
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
-            @RequestParam(required = false) Double maxDistanceKm
+            @RequestParam(required = false) Double maxDistanceKm,
+            @RequestParam(required = false) PostSortMode sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
         PostFilterRequest request = new PostFilterRequest();
         request.setMinPrice(minPrice);
         request.setMaxPrice(maxPrice);
         request.setMaxDistanceKm(maxDistanceKm);
+        request.setSort(sort);
+        request.setCursor(cursor);
+        request.setSize(size);
+
+        CursorPageResponse<PostResponse> page = postFilterService.filterPosts(request);
+
+        // Las facetas no dependen de la página, así que solo se calculan en la primera
+        PostFacetsResponse facets = (cursor == null || cursor.isBlank())
+                ? postFilterService.computeFacets(request)
+                : null;
 
-        List<PostResponse> results = postFilterService.filterPosts(request);
+        PostFilterResponse results = PostFilterResponse.builder()
+                .items(page.getItems())
+                .size(page.getSize())
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.isHasMore())
+                .facets(facets)
+                .build();
 
-        String message = "Posts filtrados encontrados: " + results.size();
+        String message = "Posts filtrados encontrados: " + results.getSize();
         return buildResponse(message, HttpStatus.OK, results);
     }
 
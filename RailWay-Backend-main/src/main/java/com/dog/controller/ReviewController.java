@@ -4,7 +4,9 @@ import com.dog.dto.request.Review.ReviewCreateRequest;
 import com.dog.dto.response.GeneralResponse;
 import com.dog.dto.response.Review.ReviewResponse;
 import com.dog.dto.response.Review.ReviewSummaryResponse;
+import com.dog.service.ResourceVersionService;
 import com.dog.service.ReviewService;
+import com.dog.utils.ConditionalResponseUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
@@ -24,6 +27,7 @@ import java.util.UUID;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ResourceVersionService resourceVersionService;
 
     @PostMapping("/{postId}/reviews")
     @PreAuthorize("hasRole('ESTUDIANTE')")
@@ -37,15 +41,23 @@ public class ReviewController {
     }
 
     @GetMapping("/{postId}/reviews")
-    public ResponseEntity<GeneralResponse> getReviewsForPost(@PathVariable UUID postId) {
+    public ResponseEntity<GeneralResponse> getReviewsForPost(@PathVariable UUID postId, WebRequest webRequest) {
+        String etag = resourceVersionService.reviewsTag(postId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ReviewResponse> reviews = reviewService.getReviewsForPost(postId);
-        return buildResponse("Reviews encontradas", HttpStatus.OK, reviews);
+        return ConditionalResponseUtil.ok("Reviews encontradas", etag, reviews);
     }
 
     @GetMapping("/{postId}/reviews/summary")
-    public ResponseEntity<GeneralResponse> getSummaryForPost(@PathVariable UUID postId) {
+    public ResponseEntity<GeneralResponse> getSummaryForPost(@PathVariable UUID postId, WebRequest webRequest) {
+        String etag = resourceVersionService.reviewSummaryTag(postId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         ReviewSummaryResponse summary = reviewService.getSummaryForPost(postId);
-        return buildResponse("Resumen de calificaciones obtenido", HttpStatus.OK, summary);
+        return ConditionalResponseUtil.ok("Resumen de calificaciones obtenido", etag, summary);
     }
 
     private ResponseEntity<GeneralResponse> buildResponse(String message, HttpStatus status, Object data) {
@@ -57,4 +69,4 @@ public class ReviewController {
                 .uri(uri)
                 .build());
     }
-}
\ No newline at end of file
+}
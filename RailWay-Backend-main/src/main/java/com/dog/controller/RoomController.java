@@ -4,9 +4,16 @@ package com.dog.controller;
 
 import com.dog.dto.request.Room.RoomRequest;
 import com.dog.dto.request.Room.RoomUpdateRequest;
+import com.dog.dto.response.AddressSuggestion;
 import com.dog.dto.response.GeneralResponse;
 import com.dog.dto.response.RoomResponse;
+import com.dog.service.AddressSuggestIndex;
+import com.dog.service.ResourceVersionService;
 import com.dog.service.RoomService;
+import com.dog.utils.ConditionalResponseUtil;
+import com.dog.utils.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,8 +23,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -28,10 +37,25 @@ import java.util.stream.Collectors;
 public class RoomController {
 
     private final RoomService roomService;
+    private final ResourceVersionService resourceVersionService;
+    private final ObjectMapper objectMapper;
+    private final AddressSuggestIndex addressSuggestIndex;
+
+    // Límite de sugerencias por petición
+    private static final int DEFAULT_SUGGESTIONS = 8;
+    private static final int MAX_SUGGESTIONS = 20;
+
+    // Límite de habitaciones cercanas por petición
+    private static final int DEFAULT_NEAREST = 10;
+    private static final int MAX_NEAREST = 50;
 
     @Autowired
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, ResourceVersionService resourceVersionService,
+                          ObjectMapper objectMapper, AddressSuggestIndex addressSuggestIndex) {
         this.roomService = roomService;
+        this.resourceVersionService = resourceVersionService;
+        this.objectMapper = objectMapper;
+        this.addressSuggestIndex = addressSuggestIndex;
     }
 
     // --- ENDPOINT DE DIAGNÓSTICO ---
@@ -85,16 +109,60 @@ public class RoomController {
 
     // --- Endpoint público para obtener todas las habitaciones ---
     @GetMapping
-    public ResponseEntity<GeneralResponse> getAllRooms() {
+    public ResponseEntity<GeneralResponse> getAllRooms(WebRequest webRequest) {
+        String etag = resourceVersionService.roomsTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<RoomResponse> rooms = roomService.findAll();
-        return buildResponse("All rooms retrieved successfully", HttpStatus.OK, rooms);
+        return ConditionalResponseUtil.ok("All rooms retrieved successfully", etag, rooms);
+    }
+
+    // --- Todas las habitaciones en NDJSON, una línea por elemento (Accept: application/x-ndjson o ?stream=true) ---
+    @GetMapping(produces = NdjsonUtil.MEDIA_TYPE)
+    public void streamAllRooms(HttpServletResponse response) throws IOException {
+        NdjsonUtil.write(response, objectMapper, roomService::streamAll);
+    }
+
+    @GetMapping(params = "stream=true")
+    public void streamAllRoomsByFlag(HttpServletResponse response) throws IOException {
+        streamAllRooms(response);
+    }
+
+    // --- Endpoint público de autocompletado de direcciones (sin consultar la BD) ---
+    // Ejemplo: GET /api/room/address-suggest?q=esca
+    @GetMapping("/address-suggest")
+    public ResponseEntity<GeneralResponse> suggestAddresses(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        int max = limit == null ? DEFAULT_SUGGESTIONS : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        List<AddressSuggestion> suggestions = addressSuggestIndex.suggest(q, max);
+        return buildResponse("Address suggestions: " + suggestions.size(), HttpStatus.OK, suggestions);
+    }
+
+    // --- Endpoint público: las habitaciones más cercanas a un punto, ordenadas por distancia ---
+    // Ejemplo: GET /api/room/nearest?lat=13.6824&lng=-89.2360&k=5
+    @GetMapping("/nearest")
+    public ResponseEntity<GeneralResponse> findNearestRooms(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Integer k
+    ) {
+        int max = k == null ? DEFAULT_NEAREST : Math.max(1, Math.min(k, MAX_NEAREST));
+        List<RoomResponse> rooms = roomService.findNearest(lat, lng, max);
+        return buildResponse("Nearest rooms: " + rooms.size(), HttpStatus.OK, rooms);
     }
 
     // --- Endpoint público para obtener una habitación por ID ---
     @GetMapping("/{roomId}")
-    public ResponseEntity<GeneralResponse> getRoomById(@PathVariable UUID roomId) {
+    public ResponseEntity<GeneralResponse> getRoomById(@PathVariable UUID roomId, WebRequest webRequest) {
+        String etag = resourceVersionService.roomTag(roomId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         RoomResponse room = roomService.findById(roomId);
-        return buildResponse("Room found", HttpStatus.OK, room);
+        return ConditionalResponseUtil.ok("Room found", etag, room);
     }
 
     // --- Endpoint para actualizar una habitación ---
@@ -0,0 +1,67 @@
+package com.dog.controller;
+
+import com.dog.dto.request.SavedSearch.SavedSearchRequest;
+import com.dog.dto.response.GeneralResponse;
+import com.dog.dto.response.SavedSearchResponse;
+import com.dog.service.SavedSearchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    // Guardar los filtros actuales; se avisará por correo cuando se publique un post que los cumpla
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN','PROPIETARIO','ESTUDIANTE','USER')")
+    public ResponseEntity<GeneralResponse> createSavedSearch(
+            @Valid @RequestBody SavedSearchRequest request,
+            Authentication authentication
+    ) {
+        SavedSearchResponse saved = savedSearchService.create(request, authentication.getName());
+        return buildResponse("Búsqueda guardada", HttpStatus.CREATED, saved);
+    }
+
+    // Listar mis búsquedas guardadas
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN','PROPIETARIO','ESTUDIANTE','USER')")
+    public ResponseEntity<GeneralResponse> getMySavedSearches(Authentication authentication) {
+        List<SavedSearchResponse> searches = savedSearchService.getMySearches(authentication.getName());
+        return buildResponse("Búsquedas guardadas del usuario", HttpStatus.OK, searches);
+    }
+
+    // Eliminar una búsqueda guardada
+    @DeleteMapping("/{searchId}")
+    @PreAuthorize("hasAnyRole('ADMIN','PROPIETARIO','ESTUDIANTE','USER')")
+    public ResponseEntity<GeneralResponse> deleteSavedSearch(
+            @PathVariable UUID searchId,
+            Authentication authentication
+    ) {
+        savedSearchService.delete(searchId, authentication.getName());
+        return buildResponse("Búsqueda eliminada", HttpStatus.OK, null);
+    }
+
+    private ResponseEntity<GeneralResponse> buildResponse(String message, HttpStatus status, Object data) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+        return ResponseEntity.status(status).body(
+                GeneralResponse.builder()
+                        .message(message)
+                        .status(status.value())
+                        .data(data)
+                        .uri(uri)
+                        .build()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.dog.controller;
+
+import com.dog.service.UploadServingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnProperty(name = "file.storage", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadServingService uploadServingService;
+
+    // Imágenes subidas y sus variantes (también responde HEAD; ?w=400&fmt=webp redimensiona); público, ver SecurityConfiguration
+    @GetMapping("${file.base-url:/uploads_unistay}/**")
+    public void serveUpload(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String relativePath = new AntPathMatcher().extractPathWithinPattern(pattern, path);
+        uploadServingService.serve(relativePath, request, response);
+    }
+}
@@ -8,6 +8,9 @@ import com.dog.dto.response.UserResponse;
 import com.dog.exception.UserNotFoundException;
 import com.dog.service.PostService;
 import com.dog.service.UserService;
+import com.dog.utils.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,11 +28,13 @@ public class UserController {
 
     private final UserService userService;
     private final PostService postService; // Inyecta PostService
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService, PostService postService) { // Modifica el constructor
+    public UserController(UserService userService, PostService postService, ObjectMapper objectMapper) { // Modifica el constructor
         this.userService = userService;
         this.postService = postService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping()
@@ -41,6 +47,17 @@ public class UserController {
         return buildResponse("Users found", HttpStatus.OK, users);
     }
 
+    // --- Todos los usuarios en NDJSON, una línea por elemento (Accept: application/x-ndjson o ?stream=true) ---
+    @GetMapping(produces = NdjsonUtil.MEDIA_TYPE)
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        NdjsonUtil.write(response, objectMapper, userService::streamAll);
+    }
+
+    @GetMapping(params = "stream=true")
+    public void streamUsersByFlag(HttpServletResponse response) throws IOException {
+        streamUsers(response);
+    }
+
     @GetMapping("/{id}")
     //@PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse> getUserById(@PathVariable UUID id) {
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -28,4 +29,7 @@ public class PostCreateRequest {
     private String maximumLeaseTerm;
     @NotNull(message = "El precio es obligatorio.")
     private BigDecimal securityDeposit;
+
+    // Claves de imágenes ya subidas directo al almacenamiento (ver DirectUploadService)
+    private List<String> uploadedImages;
 }
@@ -11,4 +11,11 @@ public class PostFilterRequest {
 
     // Distancia máxima en km desde la UCA (puede venir en null)
     private Double maxDistanceKm;
+
+    // Orden del resultado (por defecto NEWEST)
+    private PostSortMode sort;
+
+    // Paginación por cursor (ambos opcionales)
+    private String cursor;
+    private Integer size;
 }
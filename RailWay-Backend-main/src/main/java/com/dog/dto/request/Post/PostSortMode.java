@@ -0,0 +1,9 @@
+package com.dog.dto.request.Post;
+
+public enum PostSortMode {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC,
+    DISTANCE,
+    RATING
+}
@@ -28,4 +28,7 @@ public class PostUpdateRequest {
 
     private List<String> imagesToDelete;
 
+    // Claves de imágenes nuevas ya subidas directo al almacenamiento (ver DirectUploadService)
+    private List<String> uploadedImages;
+
 }
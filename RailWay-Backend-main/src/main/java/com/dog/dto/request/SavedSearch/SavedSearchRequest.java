@@ -0,0 +1,36 @@
+package com.dog.dto.request.SavedSearch;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchRequest {
+
+    @NotBlank(message = "El nombre de la búsqueda es requerido.")
+    @Size(max = 100, message = "El nombre no puede superar 100 caracteres.")
+    private String name;
+
+    // Mismos filtros que PostFilterRequest (pueden venir en null)
+    @PositiveOrZero(message = "El precio mínimo no puede ser negativo.")
+    private Double minPrice;
+
+    @PositiveOrZero(message = "El precio máximo no puede ser negativo.")
+    private Double maxPrice;
+
+    @Positive(message = "La distancia máxima debe ser un número positivo.")
+    private Double maxDistanceKm;
+
+    @Size(max = 20, message = "No puedes pedir más de 20 amenidades.")
+    private List<String> amenities;
+}
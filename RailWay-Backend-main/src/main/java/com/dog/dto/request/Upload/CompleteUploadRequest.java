@@ -0,0 +1,27 @@
+package com.dog.dto.request.Upload;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompleteUploadRequest {
+
+    @NotBlank(message = "La clave de la subida es requerida.")
+    private String uploadKey;
+
+    @NotBlank(message = "El id de la subida multipart es requerido.")
+    private String uploadId;
+
+    @NotEmpty(message = "La subida no tiene partes.")
+    private List<@Valid UploadedPart> parts;
+}
@@ -0,0 +1,28 @@
+package com.dog.dto.request.Upload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadRequest {
+
+    @NotBlank(message = "El tipo de archivo es requerido.")
+    private String contentType;
+
+    @NotNull(message = "El tamaño del archivo es requerido.")
+    @Positive(message = "El tamaño del archivo debe ser un número positivo.")
+    private Long size;
+
+    // SHA-256 del archivo en hexadecimal; obligatorio en las subidas de una sola parte
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "El SHA-256 debe tener 64 dígitos hexadecimales.")
+    private String sha256;
+}
@@ -0,0 +1,22 @@
+package com.dog.dto.request.Upload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedPart {
+
+    @Positive(message = "El número de parte debe ser un número positivo.")
+    private int partNumber;
+
+    // Header ETag que devolvió el almacenamiento al subir la parte
+    @NotBlank(message = "El ETag de la parte es requerido.")
+    private String etag;
+}
@@ -0,0 +1,15 @@
+package com.dog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressSuggestion {
+    private String text;
+    private long count; // habitaciones publicadas con ese fragmento de dirección
+}
@@ -0,0 +1,29 @@
+package com.dog.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instrucciones para subir una imagen directo al almacenamiento. Al terminar, uploadKey se manda
+ * en uploadedImages al crear o editar el post.
+ */
+@Data
+@Builder
+public class DirectUploadResponse {
+    private String uploadKey;
+
+    // El contenido ya está guardado: no hay que subir nada
+    private boolean alreadyStored;
+
+    // Una sola parte: PUT del archivo a uploadUrl con exactamente estos headers
+    private String uploadUrl;
+    private Map<String, String> headers;
+
+    // Multipart: PUT de cada tramo de partSize bytes a su URL, en orden, y después /complete
+    private String uploadId;
+    private Long partSize;
+    private List<String> partUrls;
+}
@@ -0,0 +1,22 @@
+package com.dog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Grupo de posts en una celda de la grilla del zoom pedido.
+ * (lat, lng) es el centroide de los posts de la celda, no el centro de la celda.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapCluster {
+    private double lat;
+    private double lng;
+    private long count;
+    private double minPrice;
+    private double maxPrice;
+}
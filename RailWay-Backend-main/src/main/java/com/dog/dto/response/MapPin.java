@@ -0,0 +1,23 @@
+package com.dog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Pin individual del mapa: solo lo necesario para dibujarlo y abrir el post.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapPin {
+    private UUID postId;
+    private String title;
+    private double price;
+    private double lat;
+    private double lng;
+}
@@ -0,0 +1,19 @@
+package com.dog.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class PostFacetsResponse {
+    private long total;
+    private List<RangeBucket> priceHistogram;
+    private List<RangeBucket> distanceRings;
+    private Map<String, Long> bathroomType;
+    private Map<String, Long> kitchenType;
+    private Map<String, Long> isFurnished;
+    private Map<String, Long> amenities;
+}
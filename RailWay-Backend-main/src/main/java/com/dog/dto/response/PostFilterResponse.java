@@ -0,0 +1,18 @@
+package com.dog.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PostFilterResponse {
+    private List<PostResponse> items;
+    private int size;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Solo viene en la primera página (sin cursor); es igual para todas las páginas
+    private PostFacetsResponse facets;
+}
@@ -10,4 +10,11 @@ public class PostImageResponse {
     private UUID id;
     private String imageUrl;
     private int displayOrder;
+
+    // null mientras no se generen las variantes: usar imageUrl
+    private String thumbUrl;
+    private String cardUrl;
+    private String detailUrl;
+    private String srcset;
+    private String placeholder;
 }
\ No newline at end of file
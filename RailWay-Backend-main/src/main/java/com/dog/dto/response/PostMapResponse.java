@@ -0,0 +1,20 @@
+package com.dog.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Respuesta de /api/post/map: clusters en zoom bajo, pins en zoom alto (nunca ambos).
+ */
+@Data
+@Builder
+public class PostMapResponse {
+    private int zoom;
+    private boolean clustered;
+    private List<MapCluster> clusters;
+    private List<MapPin> pins;
+    // true si había más pins de los que se devuelven (conviene acercar el mapa)
+    private boolean truncated;
+}
@@ -12,6 +12,8 @@ public class PostResponse {
     private String title;
     private double price;
     private List<String> imageUrls;
+    // Mismas imágenes con sus variantes responsivas (srcset y placeholder)
+    private List<PostImageResponse> images;
     private String status;
     private String owner;
     private RoomResponse roomDetails;
@@ -0,0 +1,16 @@
+package com.dog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeBucket {
+    private Double from;
+    private Double to; // null = sin límite superior
+    private long count;
+}
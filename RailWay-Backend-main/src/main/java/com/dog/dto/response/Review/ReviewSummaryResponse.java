@@ -3,10 +3,15 @@ package com.dog.dto.response.Review;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 @Builder
 public class ReviewSummaryResponse {
 
     private double averageRating;
     private long totalReviews;
+
+    // Cantidad de reseñas por estrella: índice 0 = 1 estrella ... índice 4 = 5 estrellas
+    private List<Long> starCounts;
 }
@@ -0,0 +1,24 @@
+package com.dog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchResponse {
+    private UUID id;
+    private String name;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double maxDistanceKm;
+    private List<String> amenities;
+    private LocalDateTime createdAt;
+}
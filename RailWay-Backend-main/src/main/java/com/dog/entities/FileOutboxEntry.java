@@ -0,0 +1,46 @@
+package com.dog.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archivo pendiente de borrar (ver FileOutboxService). Las fechas las pone la base, con el
+ * mismo reloj que compara claimDue: al insertar valen now() y cada reintento se reprograma
+ * en SQL (FileOutboxRepository.reschedule).
+ */
+@Entity
+@Table(name = "file_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_url", nullable = false, length = 1024)
+    private String fileUrl;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "next_attempt_at", nullable = false, updatable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -5,7 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -16,8 +19,23 @@ import java.util.UUID;
 @AllArgsConstructor
 @Entity
 @Table(name = "posts")
+@NamedEntityGraph(
+        name = Post.LISTING_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode(value = "room", subgraph = "room")
+        },
+        subgraphs = @NamedSubgraph(name = "room", attributeNodes = @NamedAttributeNode("owner"))
+)
 public class Post {
 
+    /**
+     * Lo que recorre PostMapper.toDTO en los listados. Solo trae las relaciones *-to-one;
+     * imágenes y amenidades se cargan por lotes (hibernate.default_batch_fetch_size),
+     * porque hacer fetch join de colecciones rompería el LIMIT de la paginación.
+     */
+    public static final String LISTING_GRAPH = "Post.listing";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -51,4 +69,20 @@ public class Post {
 
     @Column(name = "security_deposit")
     private Double securityDeposit;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Base del ETag del post (ver ResourceVersionService). Lo pone la base en cada INSERT/UPDATE,
+    // con el mismo reloj que touchUpdatedAt y las demás marcas que se comparan en greatest()
+    @CurrentTimestamp(source = SourceType.DB)
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
\ No newline at end of file
@@ -25,6 +25,29 @@ public class PostImage {
     @Column(name = "display_order", columnDefinition = "integer default 0")
     private int displayOrder;
 
+    // SHA-256 del archivo (almacenamiento por contenido); null en imágenes anteriores
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Variantes generadas en segundo plano (ver ImageVariantService); null hasta que estén listas
+    @Column(name = "thumb_url", length = 1024)
+    private String thumbUrl;
+
+    @Column(name = "card_url", length = 1024)
+    private String cardUrl;
+
+    @Column(name = "detail_url", length = 1024)
+    private String detailUrl;
+
+    @Column(name = "srcset", length = 4096)
+    private String srcset;
+
+    @Column(name = "placeholder", columnDefinition = "text")
+    private String placeholder;
+
+    @Column(name = "variants_status", length = 16)
+    private String variantsStatus;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
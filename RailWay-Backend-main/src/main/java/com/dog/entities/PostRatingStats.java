@@ -0,0 +1,54 @@
+package com.dog.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Agregados de calificación de un post. Solo se escribe desde
+ * PostRatingStatsRepository.applyRatingChange (upsert atómico).
+ */
+@Entity
+@Table(name = "post_rating_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostRatingStats {
+
+    @Id
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_avg", nullable = false)
+    private double ratingAvg;
+
+    @Column(name = "star_1", nullable = false)
+    private long star1;
+
+    @Column(name = "star_2", nullable = false)
+    private long star2;
+
+    @Column(name = "star_3", nullable = false)
+    private long star3;
+
+    @Column(name = "star_4", nullable = false)
+    private long star4;
+
+    @Column(name = "star_5", nullable = false)
+    private long star5;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
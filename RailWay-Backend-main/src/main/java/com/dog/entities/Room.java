@@ -5,7 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.UUID;
@@ -59,4 +62,9 @@ public class Room {
     @Column(name = "amenity")
     @Builder.Default // Si usas Lombok @Builder, para inicializar la lista
     private List<String> amenities = new ArrayList<>();
+
+    // Base del ETag de la habitación (ver ResourceVersionService); reloj de la base, como en Post
+    @CurrentTimestamp(source = SourceType.DB)
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.dog.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Table(name = "saved_searches", schema = "public")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    // Mismos filtros que PostFilterRequest; null = sin límite
+    @Column(name = "min_price")
+    private Double minPrice;
+
+    @Column(name = "max_price")
+    private Double maxPrice;
+
+    @Column(name = "max_distance_km")
+    private Double maxDistanceKm;
+
+    // La habitación debe tener todas estas amenidades
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "saved_search_amenities", joinColumns = @JoinColumn(name = "saved_search_id"))
+    @Column(name = "amenity")
+    @Builder.Default
+    private List<String> amenities = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
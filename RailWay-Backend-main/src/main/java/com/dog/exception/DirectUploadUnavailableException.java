@@ -0,0 +1,7 @@
+package com.dog.exception;
+
+public class DirectUploadUnavailableException extends RuntimeException {
+    public DirectUploadUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -52,6 +52,42 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(e, HttpStatus.CONFLICT, e.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidCursorException(InvalidCursorException e) {
+        return buildErrorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidBoundingBoxException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidBoundingBoxException(InvalidBoundingBoxException e) {
+        return buildErrorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFilterException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidFilterException(InvalidFilterException e) {
+        return buildErrorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSavedSearchException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidSavedSearchException(InvalidSavedSearchException e) {
+        return buildErrorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidImageException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidImageException(InvalidImageException e) {
+        return buildErrorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidUploadException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidUploadException(InvalidUploadException e) {
+        return buildErrorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // Almacenamiento local: el cliente vuelve a la subida multipart a través de la API
+    @ExceptionHandler(DirectUploadUnavailableException.class)
+    public ResponseEntity<ApiErrorResponse> handleDirectUploadUnavailableException(DirectUploadUnavailableException e) {
+        return buildErrorResponse(e, HttpStatus.NOT_IMPLEMENTED, e.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiErrorResponse> handleValueOfEntity(MethodArgumentNotValidException e) {
         List<String> errors = e.getFieldErrors().stream()
@@ -0,0 +1,11 @@
+package com.dog.exception;
+
+public class InvalidBoundingBoxException extends RuntimeException {
+    public InvalidBoundingBoxException(String message) {
+        super(message);
+    }
+
+    public InvalidBoundingBoxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
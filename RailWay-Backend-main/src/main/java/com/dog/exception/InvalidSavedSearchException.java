@@ -0,0 +1,7 @@
+package com.dog.exception;
+
+public class InvalidSavedSearchException extends RuntimeException {
+    public InvalidSavedSearchException(String message) {
+        super(message);
+    }
+}
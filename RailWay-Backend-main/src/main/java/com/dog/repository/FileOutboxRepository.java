@@ -0,0 +1,31 @@
+package com.dog.repository;
+
+import com.dog.entities.FileOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FileOutboxRepository extends JpaRepository<FileOutboxEntry, Long> {
+
+    /**
+     * Toma un lote de borrados vencidos. Debe llamarse dentro de una transacción: las filas quedan
+     * bloqueadas hasta el commit y otra instancia que procese a la vez salta esas y toma las siguientes.
+     */
+    @Query(value =
+            "SELECT * FROM public.file_outbox WHERE next_attempt_at <= now() " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<FileOutboxEntry> claimDue(int limit);
+
+    // El próximo intento se calcula con el reloj de la base, el mismo que compara claimDue
+    @Modifying
+    @Query(value =
+            "UPDATE public.file_outbox SET attempts = :attempts, last_error = :lastError, " +
+            "next_attempt_at = now() + make_interval(secs => :delaySeconds) WHERE id = :id",
+            nativeQuery = true)
+    void reschedule(Long id, int attempts, String lastError, long delaySeconds);
+}
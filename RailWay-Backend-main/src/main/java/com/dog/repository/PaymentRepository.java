@@ -1,12 +1,18 @@
 package com.dog.repository;
 
 import com.dog.entities.Payment;
+import com.dog.utils.NdjsonUtil;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
@@ -15,4 +21,12 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     List<Payment> findByInterestRequest_Id(UUID interestRequestId);
     List<Payment> findByInterestRequest_Post_Owner_Email(String ownerEmail);
     boolean existsByInterestRequest_Id(UUID interestRequestId);
+
+    // Recorrido completo para NDJSON (ver NdjsonUtil)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonUtil.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p")
+    Stream<Payment> streamAll();
 }
@@ -1,6 +1,7 @@
 package com.dog.repository;
 
 import com.dog.entities.PostFavorite;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -15,5 +16,7 @@ public interface PostFavoriteRepository extends JpaRepository<PostFavorite, UUID
 
     Optional<PostFavorite> findByUser_IdAndPost_Id(UUID userId, UUID postId);
 
+    // Mismo plan que Post.LISTING_GRAPH, partiendo del favorito
+    @EntityGraph(attributePaths = {"post", "post.owner", "post.room", "post.room.owner"})
     List<PostFavorite> findByUser_IdOrderByCreatedAtDesc(UUID userId);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.dog.repository;
+
+import com.dog.dto.request.Post.PostSortMode;
+import com.dog.entities.Post;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fragmento de PostRepository para listados filtrados con orden configurable.
+ * El orden y el LIMIT se resuelven en la BD, así que pedir los 20 más baratos
+ * nunca ordena ni materializa todo el conjunto de candidatos.
+ */
+public interface PostFilterQueryRepository {
+
+    /**
+     * Post junto con el valor de la clave de orden, necesario para armar el siguiente cursor.
+     */
+    record SortedPost(Post post, Object sortValue) {
+    }
+
+    /**
+     * Devuelve hasta limit posts que cumplen filters, ordenados por sort y luego por id.
+     * Si afterId no es null, empieza justo después de la posición (afterValue, afterId).
+     */
+    List<SortedPost> findFilteredPage(Specification<Post> filters, PostSortMode sort,
+                                      double refLat, double refLng,
+                                      Object afterValue, UUID afterId, int limit);
+}
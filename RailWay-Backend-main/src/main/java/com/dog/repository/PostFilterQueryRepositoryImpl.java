@@ -0,0 +1,137 @@
+package com.dog.repository;
+
+import com.dog.dto.request.Post.PostSortMode;
+import com.dog.entities.Post;
+import com.dog.entities.PostRatingStats;
+import com.dog.entities.Room;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class PostFilterQueryRepositoryImpl implements PostFilterQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SortedPost> findFilteredPage(Specification<Post> filters, PostSortMode sort,
+                                             double refLat, double refLng,
+                                             Object afterValue, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+        Path<UUID> id = root.get("id");
+
+        // Mismo plan que Post.LISTING_GRAPH: dueño y habitación en la misma consulta
+        root.fetch("owner", JoinType.LEFT);
+        Fetch<Post, Room> room = root.fetch("room", JoinType.LEFT);
+        room.fetch("owner", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filters != null) {
+            Predicate filterPredicate = filters.toPredicate(root, query, cb);
+            if (filterPredicate != null) {
+                predicates.add(filterPredicate);
+            }
+        }
+
+        boolean ascending = sort == PostSortMode.PRICE_ASC || sort == PostSortMode.DISTANCE;
+        Expression<?> sortKey;
+
+        if (sort == PostSortMode.NEWEST) {
+            Expression<LocalDateTime> createdAt = root.get("createdAt");
+            if (afterId != null) {
+                predicates.add(after(cb, createdAt, (LocalDateTime) afterValue, id, afterId, false));
+            }
+            sortKey = createdAt;
+        } else {
+            if (sort == PostSortMode.DISTANCE) {
+                // Sin coordenadas no hay distancia que ordenar
+                predicates.add(cb.isNotNull(root.get("room").get("lat")));
+                predicates.add(cb.isNotNull(root.get("room").get("lng")));
+            }
+            Expression<Double> numericKey = numericSortKey(sort, root, query, cb, refLat, refLng);
+            if (afterId != null) {
+                predicates.add(after(cb, numericKey, (Double) afterValue, id, afterId, ascending));
+            }
+            sortKey = numericKey;
+        }
+
+        query.multiselect(root, sortKey)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(
+                        ascending ? cb.asc(sortKey) : cb.desc(sortKey),
+                        ascending ? cb.asc(id) : cb.desc(id)
+                );
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<SortedPost> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            result.add(new SortedPost(row.get(0, Post.class), row.get(1)));
+        }
+        return result;
+    }
+
+    private Expression<Double> numericSortKey(PostSortMode sort, Root<Post> root, CriteriaQuery<?> query,
+                                              CriteriaBuilder cb, double refLat, double refLng) {
+        switch (sort) {
+            case PRICE_ASC:
+            case PRICE_DESC:
+                return root.get("price");
+            case DISTANCE: {
+                // Distancia equirectangular al cuadrado (en grados): misma ordenación que la
+                // distancia real a escala de ciudad y sin funciones trigonométricas por fila
+                Expression<Double> dLat = cb.diff(root.get("room").<Double>get("lat"), refLat);
+                Expression<Double> dLng = cb.prod(
+                        cb.diff(root.get("room").<Double>get("lng"), refLng),
+                        Math.cos(Math.toRadians(refLat)));
+                return cb.sum(cb.prod(dLat, dLat), cb.prod(dLng, dLng));
+            }
+            case RATING: {
+                // Promedio precalculado en post_rating_stats: lectura por PK, sin AVG sobre reviews
+                Subquery<Double> avgRating = query.subquery(Double.class);
+                Root<PostRatingStats> stats = avgRating.from(PostRatingStats.class);
+                avgRating.select(stats.get("ratingAvg"))
+                        .where(cb.equal(stats.get("postId"), root.get("id")));
+                return cb.coalesce(avgRating, 0.0);
+            }
+            default:
+                throw new IllegalArgumentException("Orden no soportado: " + sort);
+        }
+    }
+
+    /**
+     * Predicado de keyset: (key, id) estrictamente después de (value, afterId) en el orden dado.
+     */
+    private <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Expression<Y> key, Y value,
+                                                              Path<UUID> id, UUID afterId, boolean ascending) {
+        if (ascending) {
+            return cb.or(
+                    cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(id, afterId))
+            );
+        }
+        return cb.or(
+                cb.lessThan(key, value),
+                cb.and(cb.equal(key, value), cb.lessThan(id, afterId))
+        );
+    }
+}
@@ -1,10 +1,48 @@
 package com.dog.repository;
 
 import com.dog.entities.PostImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PostImageRepository extends JpaRepository<PostImage, Long> {
-}
\ No newline at end of file
+public interface PostImageRepository extends JpaRepository<PostImage, UUID> {
+
+    /**
+     * Guarda el resultado del procesamiento; devuelve 0 si la imagen se borró mientras tanto.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PostImage i SET i.thumbUrl = :thumbUrl, i.cardUrl = :cardUrl, i.detailUrl = :detailUrl, " +
+            "i.srcset = :srcset, i.placeholder = :placeholder, i.variantsStatus = :status WHERE i.id = :id")
+    int updateVariants(UUID id, String thumbUrl, String cardUrl, String detailUrl,
+                       String srcset, String placeholder, String status);
+
+    // Referencias a un mismo archivo guardado por contenido (ver LocalFileStorageServiceImpl.deleteFile)
+    long countByContentHash(String contentHash);
+
+    // Otra imagen con el mismo contenido y variantes listas: se reutilizan en vez de regenerarlas
+    Optional<PostImage> findFirstByContentHashAndVariantsStatus(String contentHash, String variantsStatus);
+
+    // --- Recolector de archivos huérfanos (ver OrphanFileCollector) ---
+
+    // Hashes de la lista que todavía tienen alguna imagen
+    @Query("SELECT DISTINCT i.contentHash FROM PostImage i WHERE i.contentHash IN :contentHashes")
+    List<String> findReferencedContentHashes(Collection<String> contentHashes);
+
+    // Archivos de las imágenes de un post: (imageUrl, thumbUrl, cardUrl, detailUrl)
+    @Query("SELECT i.imageUrl, i.thumbUrl, i.cardUrl, i.detailUrl FROM PostImage i WHERE i.post.id = :postId")
+    List<Object[]> findFileUrlsByPostId(UUID postId);
+
+    // --- Imágenes sin variantes todavía: (id, postId, imageUrl), agrupadas por post ---
+    @Query("SELECT i.id, i.post.id, i.imageUrl FROM PostImage i WHERE i.variantsStatus IS NULL ORDER BY i.post.id")
+    List<Object[]> findPendingVariants(Pageable pageable);
+}
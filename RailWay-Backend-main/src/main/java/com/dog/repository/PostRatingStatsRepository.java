@@ -0,0 +1,41 @@
+package com.dog.repository;
+
+import com.dog.entities.PostRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface PostRatingStatsRepository extends JpaRepository<PostRatingStats, UUID> {
+
+    /**
+     * Suma los deltas a los agregados del post (creando la fila si no existe).
+     * Se hace en un único UPSERT para que dos reseñas simultáneas no pisen sus cambios.
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO public.post_rating_stats " +
+            "  (post_id, rating_sum, rating_count, rating_avg, star_1, star_2, star_3, star_4, star_5) " +
+            "VALUES (:postId, :sumDelta, :countDelta, " +
+            "        CASE WHEN :countDelta > 0 THEN CAST(:sumDelta AS double precision) / :countDelta ELSE 0 END, " +
+            "        :star1, :star2, :star3, :star4, :star5) " +
+            "ON CONFLICT (post_id) DO UPDATE SET " +
+            "  rating_sum   = post_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "  rating_count = post_rating_stats.rating_count + EXCLUDED.rating_count, " +
+            "  rating_avg   = CASE WHEN post_rating_stats.rating_count + EXCLUDED.rating_count > 0 " +
+            "                      THEN CAST(post_rating_stats.rating_sum + EXCLUDED.rating_sum AS double precision) " +
+            "                           / (post_rating_stats.rating_count + EXCLUDED.rating_count) " +
+            "                      ELSE 0 END, " +
+            "  star_1 = post_rating_stats.star_1 + EXCLUDED.star_1, " +
+            "  star_2 = post_rating_stats.star_2 + EXCLUDED.star_2, " +
+            "  star_3 = post_rating_stats.star_3 + EXCLUDED.star_3, " +
+            "  star_4 = post_rating_stats.star_4 + EXCLUDED.star_4, " +
+            "  star_5 = post_rating_stats.star_5 + EXCLUDED.star_5, " +
+            "  updated_at = now()",
+            nativeQuery = true)
+    void applyRatingChange(UUID postId, long sumDelta, long countDelta,
+                           long star1, long star2, long star3, long star4, long star5);
+}
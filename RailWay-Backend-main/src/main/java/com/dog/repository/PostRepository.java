@@ -1,15 +1,196 @@
 package com.dog.repository;
 
 import com.dog.entities.Post;
+import com.dog.utils.NdjsonUtil;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, UUID> {
+public interface PostRepository extends JpaRepository<Post, UUID>, PostFilterQueryRepository {
+    @EntityGraph(Post.LISTING_GRAPH)
     List<Post> findByOwnerId(UUID ownerId);
 
+    @Override
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findAll();
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findByIdIn(Collection<UUID> ids);
+
     long countByRoomId(UUID roomId);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id FROM Post p WHERE p.room.id = :roomId")
+    Optional<UUID> findIdByRoomId(UUID roomId);
+
+    // --- Versiones para ETags (ver ResourceVersionService) ---
+    // El PostResponse incluye datos de la habitación, del dueño y el rating, así que cuentan sus marcas también.
+    // Todas las escribe la base (now() / @CurrentTimestamp): un mismo reloj para poder compararlas
+    @Query(value = "SELECT CAST(greatest(p.updated_at, r.updated_at, u.updated_at, s.updated_at) AS text) " +
+            "FROM public.posts p " +
+            "JOIN public.rooms r ON r.id = p.room_id " +
+            "JOIN public.users u ON u.id = p.user_id " +
+            "LEFT JOIN public.post_rating_stats s ON s.post_id = p.id " +
+            "WHERE p.id = :id",
+            nativeQuery = true)
+    Optional<String> findVersionById(UUID id);
+
+    // count(*) detecta borrados; los max(updated_at) salen de los índices idx_*_updated_at
+    @Query(value = "SELECT concat_ws('|', " +
+            "  (SELECT count(*) FROM public.posts), " +
+            "  (SELECT max(updated_at) FROM public.posts), " +
+            "  (SELECT max(updated_at) FROM public.rooms), " +
+            // Todos los usuarios, no solo los dueños: así sigue siendo un solo paso por idx_users_updated_at
+            "  (SELECT max(updated_at) FROM public.users), " +
+            "  (SELECT max(updated_at) FROM public.post_rating_stats))",
+            nativeQuery = true)
+    String findCatalogVersion();
+
+    // Cambios que no pasan por la entidad Post (p. ej. variantes de imágenes) también cambian su ETag
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE public.posts SET updated_at = now() WHERE id = :id", nativeQuery = true)
+    int touchUpdatedAt(UUID id);
+
+    // --- Datos mínimos para el mapa (ver PostMapIndex): (id, title, price, lat, lng) ---
+    @Query("SELECT p.id, p.title, p.price, r.lat, r.lng FROM Post p JOIN p.room r " +
+            "WHERE r.lat IS NOT NULL AND r.lng IS NOT NULL")
+    List<Object[]> findAllMapPins();
+
+    @Query("SELECT p.id, p.title, p.price, r.lat, r.lng FROM Post p JOIN p.room r " +
+            "WHERE p.id = :id AND r.lat IS NOT NULL AND r.lng IS NOT NULL")
+    List<Object[]> findMapPinById(UUID id);
+
+    // --- Atributos para el índice de posts similares (ver SimilarPostIndex) ---
+    // (id, price, securityDeposit, status, available, squareFootage, lat, lng, bathroomType, kitchenType, isFurnished)
+    @Query("SELECT p.id, p.price, p.securityDeposit, p.status, r.available, r.squareFootage, r.lat, r.lng, " +
+            "r.bathroomType, r.kitchenType, r.isFurnished FROM Post p JOIN p.room r")
+    List<Object[]> findAllSimilarityFeatures();
+
+    @Query("SELECT p.id, p.price, p.securityDeposit, p.status, r.available, r.squareFootage, r.lat, r.lng, " +
+            "r.bathroomType, r.kitchenType, r.isFurnished FROM Post p JOIN p.room r WHERE p.id = :id")
+    List<Object[]> findSimilarityFeaturesById(UUID id);
+
+    // (postId, amenity)
+    @Query("SELECT p.id, a FROM Post p JOIN p.room r JOIN r.amenities a")
+    List<Object[]> findAllAmenities();
+
+    @Query("SELECT a FROM Post p JOIN p.room r JOIN r.amenities a WHERE p.id = :id")
+    List<String> findAmenitiesById(UUID id);
+
+    // --- Paginación por keyset del catálogo (más nuevos primero) ---
+    @EntityGraph(Post.LISTING_GRAPH)
+    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findCatalogFirstPage(Pageable pageable);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    @Query("SELECT p FROM Post p " +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findCatalogPageAfter(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    // --- Recorrido completo para NDJSON (ver NdjsonUtil): cursor JDBC en vez de List ---
+    @EntityGraph(Post.LISTING_GRAPH)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonUtil.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    Stream<Post> streamCatalog();
+
+    // --- Búsqueda full-text + trigramas (ver V12__add_full_text_search.sql) ---
+    // Devuelve filas (post_id, score) ordenadas por relevancia y luego por id.
+    // Los candidatos salen de un UNION con una rama por índice (idx_posts_search_vector,
+    // idx_rooms_search_vector, idx_posts_title_trgm, idx_rooms_address_trgm): un OR entre columnas
+    // de las dos tablas del join no puede usar ninguno y termina en un recorrido completo.
+    // El ranking se calcula después, solo sobre los candidatos.
+    String SEARCH_RANKED_SUBQUERY =
+            // Términos unidos con OR: basta con que coincida alguno, el ranking premia a los que coinciden más
+            "WITH q AS (SELECT CAST(replace(CAST(plainto_tsquery('spanish', :q) AS text), ' & ', ' | ') AS tsquery) AS tsq), " +
+            "candidates AS ( " +
+            // (SELECT tsq FROM q) es un parámetro para el planificador: se puede usar como condición de índice
+            "  SELECT p.id FROM public.posts p WHERE p.search_vector @@ (SELECT tsq FROM q) " +
+            "  UNION " +
+            "  SELECT p.id FROM public.rooms r JOIN public.posts p ON p.room_id = r.id " +
+            "  WHERE r.search_vector @@ (SELECT tsq FROM q) " +
+            "  UNION " +
+            "  SELECT p.id FROM public.posts p WHERE p.title % :q " +
+            "  UNION " +
+            "  SELECT p.id FROM public.rooms r JOIN public.posts p ON p.room_id = r.id WHERE r.address % :q " +
+            ") " +
+            "SELECT p.id AS id, CAST(" +
+            "   2 * ts_rank(p.search_vector, q.tsq) + ts_rank(r.search_vector, q.tsq)" +
+            "   + greatest(similarity(p.title, :q), similarity(coalesce(r.address, ''), :q))" +
+            " AS double precision) AS score " +
+            "FROM candidates c " +
+            "JOIN public.posts p ON p.id = c.id " +
+            "JOIN public.rooms r ON r.id = p.room_id " +
+            "CROSS JOIN q";
+
+    @Query(value = "SELECT s.id, s.score FROM (" + SEARCH_RANKED_SUBQUERY + ") s " +
+            "ORDER BY s.score DESC, s.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> searchFirstPage(String q, int limit);
+
+    @Query(value = "SELECT s.id, s.score FROM (" + SEARCH_RANKED_SUBQUERY + ") s " +
+            "WHERE s.score < :score OR (s.score = :score AND s.id < :id) " +
+            "ORDER BY s.score DESC, s.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> searchPageAfter(String q, double score, UUID id, int limit);
+
+    // --- Facetas de /api/post-filters en una sola pasada (GROUPING SETS) ---
+    // Cada fila es (faceta, valor, cantidad de posts). La faceta 'total' trae el conteo general.
+    @Query(value =
+            "WITH scoped AS ( " +
+            "  SELECT p.id, p.price, r.id AS room_id, r.bathroom_type, r.kitchen_type, r.is_furnished, " +
+            "         CASE WHEN r.lat IS NULL OR r.lng IS NULL THEN NULL ELSE " +
+            "           2 * 6371.0 * asin(least(1.0, sqrt( " +
+            "               power(sin(radians(r.lat - :refLat) / 2), 2) " +
+            "             + cos(radians(:refLat)) * cos(radians(r.lat)) * power(sin(radians(r.lng - :refLng) / 2), 2)))) " +
+            "         END AS distance_km " +
+            "  FROM public.posts p " +
+            "  JOIN public.rooms r ON r.id = p.room_id " +
+            "  WHERE (CAST(:minPrice AS double precision) IS NULL OR p.price >= CAST(:minPrice AS double precision)) " +
+            "    AND (CAST(:maxPrice AS double precision) IS NULL OR p.price <= CAST(:maxPrice AS double precision)) " +
+            "), expanded AS ( " +
+            "  SELECT s.id, s.bathroom_type, s.kitchen_type, s.is_furnished, a.amenity, " +
+            "         floor(s.price / :priceBucketWidth) * :priceBucketWidth AS price_bucket, " +
+            "         CASE WHEN s.distance_km IS NULL THEN NULL " +
+            "              WHEN s.distance_km < 1 THEN 0 WHEN s.distance_km < 2 THEN 1 " +
+            "              WHEN s.distance_km < 5 THEN 2 WHEN s.distance_km < 10 THEN 5 ELSE 10 END AS distance_ring " +
+            "  FROM scoped s " +
+            "  LEFT JOIN public.room_amenities a ON a.room_id = s.room_id " +
+            "  WHERE CAST(:maxDistanceKm AS double precision) IS NULL " +
+            "     OR s.distance_km <= CAST(:maxDistanceKm AS double precision) " +
+            ") " +
+            "SELECT CASE WHEN GROUPING(price_bucket) = 0 THEN 'price' " +
+            "            WHEN GROUPING(distance_ring) = 0 THEN 'distance' " +
+            "            WHEN GROUPING(bathroom_type) = 0 THEN 'bathroomType' " +
+            "            WHEN GROUPING(kitchen_type) = 0 THEN 'kitchenType' " +
+            "            WHEN GROUPING(is_furnished) = 0 THEN 'isFurnished' " +
+            "            WHEN GROUPING(amenity) = 0 THEN 'amenity' " +
+            "            ELSE 'total' END AS facet, " +
+            "       COALESCE(CAST(price_bucket AS text), CAST(distance_ring AS text), bathroom_type, kitchen_type, " +
+            "                CAST(is_furnished AS text), amenity) AS bucket, " +
+            "       COUNT(DISTINCT id) AS total " +
+            "FROM expanded " +
+            "GROUP BY GROUPING SETS ((price_bucket), (distance_ring), (bathroom_type), (kitchen_type), " +
+            "                        (is_furnished), (amenity), ())",
+            nativeQuery = true)
+    List<Object[]> computeFilterFacets(Double minPrice, Double maxPrice, Double maxDistanceKm,
+                                       double refLat, double refLng, double priceBucketWidth);
+}
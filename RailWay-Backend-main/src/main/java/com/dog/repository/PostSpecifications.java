@@ -0,0 +1,36 @@
+package com.dog.repository;
+
+import com.dog.entities.Post;
+import com.dog.entities.Room;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Predicados reutilizables para construir consultas dinámicas sobre Post.
+ * Cada método devuelve una Specification que se combina con allOf/and.
+ */
+public class PostSpecifications {
+
+    public static Specification<Post> priceAtLeast(double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Post> priceAtMost(double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    /**
+     * Prefiltro rectangular sobre las coordenadas de la habitación.
+     * Las habitaciones sin lat/lng quedan fuera (el BETWEEN con NULL no cumple).
+     */
+    public static Specification<Post> roomInsideBoundingBox(double minLat, double maxLat,
+                                                            double minLng, double maxLng) {
+        return (root, query, cb) -> {
+            Join<Post, Room> room = root.join("room");
+            return cb.and(
+                    cb.between(room.get("lat"), minLat, maxLat),
+                    cb.between(room.get("lng"), minLng, maxLng)
+            );
+        };
+    }
+}
@@ -18,4 +18,9 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.post.id = :postId")
     Double findAverageRatingByPostId(UUID postId);
+
+    // Versión de las reseñas de un post para ETags: cambia al crear o editar una reseña
+    @Query(value = "SELECT concat_ws('|', count(*), max(updated_at)) FROM public.reviews WHERE post_id = :postId",
+            nativeQuery = true)
+    String findVersionByPostId(UUID postId);
 }
\ No newline at end of file
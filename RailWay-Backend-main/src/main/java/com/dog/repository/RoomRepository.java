@@ -1,14 +1,49 @@
 package com.dog.repository;
 
 import com.dog.entities.Room;
+import com.dog.utils.NdjsonUtil;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, UUID> {
     List<Room> findByOwner_Email(String email);
+
+    // Dueño y amenidades en la misma consulta: RoomMapper.toDTO los lee para cada habitación
+    @EntityGraph(attributePaths = {"owner", "amenities"})
+    List<Room> findByIdIn(Collection<UUID> ids);
+
+    // --- Versiones para ETags (ver ResourceVersionService) ---
+    @Query(value = "SELECT CAST(updated_at AS text) FROM public.rooms WHERE id = :id", nativeQuery = true)
+    Optional<String> findVersionById(UUID id);
+
+    @Query(value = "SELECT concat_ws('|', count(*), max(updated_at)) FROM public.rooms", nativeQuery = true)
+    String findAllVersion();
+
+    // Recorrido completo para NDJSON (ver NdjsonUtil); el dueño viene en la misma fila
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonUtil.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Room r JOIN FETCH r.owner")
+    Stream<Room> streamAll();
+
+    // Solo (id, lat, lng), para cargar el índice espacial sin materializar entidades
+    @Query("SELECT r.id, r.lat, r.lng FROM Room r WHERE r.lat IS NOT NULL AND r.lng IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+
+    // Solo (id, address), para cargar el índice de autocompletado de direcciones
+    @Query("SELECT r.id, r.address FROM Room r WHERE r.address IS NOT NULL")
+    List<Object[]> findAllAddresses();
 }
@@ -0,0 +1,91 @@
+package com.dog.repository;
+
+import com.dog.entities.SavedSearch;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, UUID> {
+
+    @EntityGraph(attributePaths = {"amenities"})
+    List<SavedSearch> findByUser_IdOrderByCreatedAtDesc(UUID userId);
+
+    long countByUser_Id(UUID userId);
+
+    // --- Carga del índice de búsquedas (ver SavedSearchMatcher): (id, minPrice, maxPrice, maxDistanceKm) ---
+    @Query("SELECT s.id, s.minPrice, s.maxPrice, s.maxDistanceKm FROM SavedSearch s")
+    List<Object[]> findAllCriteria();
+
+    // (savedSearchId, amenity)
+    @Query("SELECT s.id, a FROM SavedSearch s JOIN s.amenities a")
+    List<Object[]> findAllAmenities();
+
+    /**
+     * Registra el post como coincidencia de las búsquedas dadas, salvo las del propio dueño.
+     * Si la coincidencia ya existía (p. ej. el post se editó) no se vuelve a avisar.
+     * matchedAt viene de la aplicación, igual que el corte de findPendingNotifications.
+     */
+    @Transactional
+    @Modifying
+    @Query(value =
+            "INSERT INTO public.saved_search_matches (saved_search_id, post_id, matched_at) " +
+            "SELECT s.id, p.id, :matchedAt FROM public.saved_searches s JOIN public.posts p ON p.id = :postId " +
+            "WHERE s.id IN (:searchIds) AND s.user_id <> p.user_id " +
+            "ON CONFLICT (saved_search_id, post_id) DO NOTHING",
+            nativeQuery = true)
+    int insertMatches(UUID postId, Collection<UUID> searchIds, LocalDateTime matchedAt);
+
+    // Avisos pendientes hasta cutoff: (email, userName, searchName, postId, postTitle, postPrice), agrupados por usuario
+    @Query(value =
+            "SELECT u.email, u.name, s.name, p.id, p.title, p.price " +
+            "FROM public.saved_search_matches m " +
+            "JOIN public.saved_searches s ON s.id = m.saved_search_id " +
+            "JOIN public.users u ON u.id = s.user_id " +
+            "JOIN public.posts p ON p.id = m.post_id " +
+            "WHERE m.notified_at IS NULL AND m.matched_at <= :cutoff " +
+            "ORDER BY u.email, s.name, m.matched_at",
+            nativeQuery = true)
+    List<Object[]> findPendingNotifications(LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query(value =
+            "UPDATE public.saved_search_matches SET notified_at = now() " +
+            "WHERE notified_at IS NULL AND matched_at <= :cutoff",
+            nativeQuery = true)
+    int markNotified(LocalDateTime cutoff);
+
+    // --- Cola persistente de posts por comparar (ver SavedSearchServiceImpl.processBatch) ---
+
+    @Modifying
+    @Query(value =
+            "INSERT INTO public.saved_search_queue (post_id, enqueued_at) VALUES (:postId, now()) " +
+            "ON CONFLICT (post_id) DO UPDATE SET enqueued_at = EXCLUDED.enqueued_at",
+            nativeQuery = true)
+    void enqueuePost(UUID postId);
+
+    // (postId, enqueuedAt), los más antiguos primero
+    @Query(value =
+            "SELECT post_id, enqueued_at FROM public.saved_search_queue ORDER BY enqueued_at LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findQueuedPosts(int limit);
+
+    /**
+     * Saca el post de la cola si no se volvió a encolar (otra edición) mientras se comparaba.
+     */
+    @Transactional
+    @Modifying
+    @Query(value =
+            "DELETE FROM public.saved_search_queue WHERE post_id = :postId AND enqueued_at <= :enqueuedAt",
+            nativeQuery = true)
+    int dequeuePost(UUID postId, LocalDateTime enqueuedAt);
+}
@@ -0,0 +1,25 @@
+package com.dog.service;
+
+import com.dog.dto.response.AddressSuggestion;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Índice de prefijos en memoria sobre los fragmentos de rooms.address (calle, colonia,
+ * ciudad...). Ignora mayúsculas y tildes, y se actualiza de forma incremental desde RoomService.
+ */
+public interface AddressSuggestIndex {
+
+    void upsert(UUID roomId, String address);
+
+    void remove(UUID roomId);
+
+    /**
+     * Hasta limit fragmentos que tienen alguna palabra que empieza con el texto,
+     * ordenados por cantidad de habitaciones.
+     */
+    List<AddressSuggestion> suggest(String query, int limit);
+
+    int size();
+}
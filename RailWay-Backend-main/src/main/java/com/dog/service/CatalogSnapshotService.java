@@ -0,0 +1,28 @@
+package com.dog.service;
+
+import java.nio.file.Path;
+
+/**
+ * Primera página del catálogo público (GET /api/post sin parámetros) ya serializada
+ * y comprimida en disco, para servirla sin tocar la BD ni Jackson.
+ */
+public interface CatalogSnapshotService {
+
+    /**
+     * Archivos de una versión del catálogo. etag es el mismo que
+     * ResourceVersionService.catalogTag(null, null) al momento de generarlo.
+     */
+    record Snapshot(String etag, Path json, Path gzip) {
+    }
+
+    /**
+     * Snapshot vigente si corresponde a la versión actual del catálogo; null si no hay
+     * o si quedó desactualizado (el endpoint responde entonces por la vía normal).
+     */
+    Snapshot current(String etag);
+
+    /**
+     * Programa una regeneración. Varios cambios seguidos se agrupan en una sola (debounce).
+     */
+    void requestRebuild();
+}
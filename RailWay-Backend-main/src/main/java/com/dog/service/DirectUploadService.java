@@ -0,0 +1,39 @@
+package com.dog.service;
+
+import com.dog.dto.request.Upload.CompleteUploadRequest;
+import com.dog.dto.request.Upload.DirectUploadRequest;
+import com.dog.dto.response.DirectUploadResponse;
+
+import java.io.IOException;
+
+/**
+ * Subidas del navegador directo al almacenamiento de objetos con URLs prefirmadas: los bytes
+ * no pasan por la API. Solo existe con file.storage=s3; con el disco local las imágenes se
+ * siguen mandando como multipart al crear o editar el post.
+ */
+public interface DirectUploadService {
+
+    /**
+     * URL(s) prefirmadas para subir la imagen. Si el mismo contenido ya está guardado no hay
+     * nada que subir (alreadyStored); los archivos grandes se suben en partes (multipart).
+     */
+    DirectUploadResponse prepare(DirectUploadRequest request) throws IOException;
+
+    /**
+     * Une las partes de una subida multipart cuando el navegador terminó de mandarlas.
+     */
+    void complete(CompleteUploadRequest request) throws IOException;
+
+    /**
+     * Cancela una subida multipart y libera las partes ya subidas.
+     */
+    void abort(String uploadKey, String uploadId) throws IOException;
+
+    /**
+     * Verifica una subida terminada (existe, no supera el máximo y es una imagen según sus
+     * primeros bytes), la mueve a su ubicación definitiva y devuelve el archivo cuya URL se
+     * guarda en el PostImage. Una subida inválida se borra y lanza InvalidUploadException o
+     * InvalidImageException.
+     */
+    FileStorageService.StoredFile attach(String uploadKey) throws IOException;
+}
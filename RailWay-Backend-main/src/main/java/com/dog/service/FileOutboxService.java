@@ -0,0 +1,16 @@
+package com.dog.service;
+
+import java.util.Collection;
+
+/**
+ * Borrado diferido y transaccional de archivos guardados con FileStorageService.
+ */
+public interface FileOutboxService {
+
+    /**
+     * Registra los archivos para borrarlos. Se llama dentro de la transacción que deja de usarlos:
+     * si esa transacción se revierte no se borra nada. El borrado ocurre después, por lotes y en
+     * segundo plano, con reintentos si falla.
+     */
+    void enqueueDeletion(Collection<String> fileUrls);
+}
@@ -2,10 +2,68 @@ package com.dog.service;
 
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 public interface FileStorageService {
 
-    String storeFile(MultipartFile file, String subfolder) throws IOException;
+    /**
+     * Archivo guardado por storeFiles o DirectUploadService.attach. createdAt es la fecha de
+     * modificación (según el almacenamiento) con que esta llamada lo creó, o 0 si el contenido
+     * ya estaba guardado y solo se reutilizó. discardFiles la usa para saber si otra subida lo
+     * reutilizó después.
+     */
+    record StoredFile(String url, long createdAt) {
+        public boolean created() {
+            return createdAt > 0;
+        }
+    }
 
+    /**
+     * Guarda el archivo y devuelve su URL. La URL depende solo del contenido: el mismo archivo
+     * subido dos veces devuelve la misma URL y se guarda una sola vez. Solo acepta imágenes
+     * (JPEG, PNG, GIF o WebP, según sus primeros bytes); lo demás lanza InvalidImageException.
+     */
+    String storeFile(MultipartFile file) throws IOException;
+
+    /**
+     * Guarda varios archivos en paralelo y los devuelve en el mismo orden (los vacíos se
+     * omiten). Si alguno falla, descarta los que sí se escribieron (ver discardFiles) y lanza
+     * la excepción: o se guardan todos o ninguno.
+     */
+    List<StoredFile> storeFiles(MultipartFile[] files) throws IOException;
+
+    /**
+     * Deshace storeFiles o attach cuando la fila que iba a referenciar los archivos no se
+     * confirmó. Los que esa llamada creó se borran enseguida, sin esperar blobGraceMs, salvo
+     * que una fila ya los referencie o que otra subida los haya reutilizado después. Los que
+     * solo se reutilizaron no se tocan: pueden ser de otra subida en curso. No lanza; un fallo
+     * se registra en el log.
+     */
+    void discardFiles(List<StoredFile> files);
+
+    /**
+     * Borra el archivo, salvo que otras imágenes sigan usando el mismo contenido. Un archivo que
+     * ya no existe o una URL ajena a este almacenamiento no son error; un fallo al borrar lanza
+     * la excepción para poder reintentarlo (ver FileOutboxService).
+     */
     void deleteFile(String fileIdentifier) throws IOException;
+
+    /**
+     * SHA-256 del contenido de un archivo guardado por contenido (o de una de sus variantes);
+     * null para URLs anteriores a este esquema.
+     */
+    String contentHash(String fileUrl);
+
+    /**
+     * Abre un archivo guardado a partir de la URL que devolvió storeFile.
+     */
+    InputStream openFile(String fileUrl) throws IOException;
+
+    /**
+     * Guarda un derivado junto al archivo original (mismo directorio, nombre con sufijo) y
+     * devuelve su URL. La URL se arma desde la del original, así que no hace falta una
+     * petición en curso (se usa desde hilos en segundo plano).
+     */
+    String storeVariant(String originalUrl, String suffix, byte[] content) throws IOException;
 }
@@ -0,0 +1,17 @@
+package com.dog.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Genera en segundo plano las variantes responsivas de las imágenes de los posts
+ * (miniatura, tarjeta, detalle y placeholder) y las registra en PostImage.
+ */
+public interface ImageVariantService {
+
+    /**
+     * Encola las imágenes (id -> URL del original) de un post. No bloquea: se llama después
+     * del commit y, si la cola está llena, las imágenes quedan para el barrido periódico.
+     */
+    void submit(UUID postId, Map<UUID, String> imageUrls);
+}
@@ -0,0 +1,17 @@
+package com.dog.service;
+
+/**
+ * Recolector de archivos huérfanos (mark-and-sweep): recorre el directorio de subidas y borra
+ * los archivos que ya no referencia ninguna fila de post_images. Cubre lo que el outbox de
+ * archivos no ve: subidas de transacciones que nunca se confirmaron, temporales de procesos
+ * caídos y borrados que se abandonaron tras varios intentos.
+ */
+public interface OrphanFileCollector {
+
+    /**
+     * Revisa directorios hasta cubrir unos maxFiles archivos, continuando desde donde quedó el
+     * paso anterior (la posición se guarda en disco y sobrevive a reinicios). Devuelve true si
+     * con este paso se completó una pasada entera.
+     */
+    boolean sweep(int maxFiles);
+}
@@ -7,6 +7,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface PaymentService {
     PaymentResponse makePayment(PaymentRequest dto, UserDetails currentUser);
@@ -14,6 +15,8 @@ public interface PaymentService {
     List<PaymentResponse> getPaymentsByStudent(UUID studentId);
     List<PaymentResponse> getPaymentsByPost(UUID postId);
     List<PaymentResponse> getAllPayments();
+    // Todos los pagos en streaming (NDJSON)
+    void streamAllPayments(Consumer<PaymentResponse> sink);
 
     List<PaymentResponse> getMyPayments(UserDetails currentUser);
     List<PaymentResponse> getPaymentsByOwner(UserDetails currentUser);
@@ -0,0 +1,20 @@
+package com.dog.service;
+
+import java.util.UUID;
+
+/**
+ * Invalidación de las cachés de posts. Las entradas se borran después del commit,
+ * para que una lectura concurrente no vuelva a cachear el estado anterior.
+ */
+public interface PostCacheService {
+
+    /**
+     * Invalida el post y todas las páginas del catálogo (donde también aparece).
+     */
+    void evictPost(UUID postId);
+
+    /**
+     * Solo el catálogo, para cambios que no son de un post puntual.
+     */
+    void evictCatalog();
+}
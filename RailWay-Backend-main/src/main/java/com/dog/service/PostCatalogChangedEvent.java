@@ -0,0 +1,11 @@
+package com.dog.service;
+
+import java.util.UUID;
+
+/**
+ * Se publica después del commit de cualquier cambio que altere el catálogo público
+ * (post, habitación o reseña). postId es null cuando el cambio no es de un post puntual.
+ * Ver PostCacheService.
+ */
+public record PostCatalogChangedEvent(UUID postId) {
+}
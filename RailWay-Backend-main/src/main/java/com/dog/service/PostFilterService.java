@@ -1,15 +1,23 @@
 package com.dog.service;
 
 import com.dog.dto.request.Post.PostFilterRequest;
+import com.dog.dto.response.CursorPageResponse;
+import com.dog.dto.response.PostFacetsResponse;
 import com.dog.dto.response.PostResponse;
 
-import java.util.List;
-
 public interface PostFilterService {
 
     /**
      * Filtra posts por rango de precio y/o distancia a la UCA.
      * Cualquiera de los parámetros puede ir en null.
+     * El resultado se pagina por cursor (ver CursorUtil).
+     */
+    CursorPageResponse<PostResponse> filterPosts(PostFilterRequest filterRequest);
+
+    /**
+     * Conteos por faceta (histograma de precio, anillos de distancia, tipo de baño,
+     * tipo de cocina, amueblado y amenidades) sobre el mismo conjunto filtrado.
+     * Se calculan con una sola consulta agregada.
      */
-    List<PostResponse> filterPosts(PostFilterRequest filterRequest);
-}
\ No newline at end of file
+    PostFacetsResponse computeFacets(PostFilterRequest filterRequest);
+}
@@ -0,0 +1,29 @@
+package com.dog.service;
+
+import com.dog.dto.response.PostMapResponse;
+
+import java.util.UUID;
+
+/**
+ * Índice en memoria para el mapa de posts. Mantiene, por cada nivel de zoom bajo,
+ * los agregados (conteo, centroide, precio mín/máx) de cada celda de la grilla,
+ * y actualiza solo las celdas afectadas cuando cambia un post o su habitación.
+ */
+public interface PostMapIndex {
+
+    void upsert(UUID postId, String title, double price, Double lat, Double lng);
+
+    void remove(UUID postId);
+
+    /**
+     * Relee el post de la BD; si ya no existe o su habitación no tiene coordenadas, lo quita.
+     */
+    void refresh(UUID postId);
+
+    /**
+     * Clusters de la grilla del zoom pedido o, en zoom alto, los pins dentro del rectángulo.
+     */
+    PostMapResponse query(double minLat, double minLng, double maxLat, double maxLng, int zoom);
+
+    int size();
+}
@@ -0,0 +1,28 @@
+package com.dog.service;
+
+import com.dog.dto.response.PostResponse;
+import com.dog.entities.PostRatingStats;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lectura y mantenimiento de los agregados de calificación por post (post_rating_stats).
+ */
+public interface PostRatingService {
+
+    /**
+     * Registra una reseña nueva (previousRating null) o el cambio de una existente.
+     * Debe llamarse dentro de la misma transacción que guarda la reseña.
+     */
+    void applyReview(UUID postId, Integer previousRating, int newRating);
+
+    PostRatingStats getStats(UUID postId);
+
+    /**
+     * Completa averageRating y totalReviews de todos los posts con una sola consulta.
+     */
+    void enrich(List<PostResponse> responses);
+
+    void enrich(PostResponse response);
+}
@@ -0,0 +1,13 @@
+package com.dog.service;
+
+import com.dog.dto.response.CursorPageResponse;
+import com.dog.dto.response.PostResponse;
+
+public interface PostSearchService {
+
+    /**
+     * Búsqueda por palabras clave sobre título, descripción y dirección,
+     * tolerante a errores de tipeo. Resultados ordenados por relevancia y paginados por cursor.
+     */
+    CursorPageResponse<PostResponse> search(String query, String cursor, Integer size);
+}
@@ -4,20 +4,29 @@ package com.dog.service;
 
 import com.dog.dto.request.Post.PostCreateRequest;
 import com.dog.dto.request.Post.PostUpdateRequest;
+import com.dog.dto.response.CursorPageResponse;
 import com.dog.dto.response.PostResponse;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface PostService {
 
     List<PostResponse> findAll();
+    CursorPageResponse<PostResponse> findPage(String cursor, Integer size);
     PostResponse findById(UUID id);
     List<PostResponse> findPostsByOwnerId(UUID ownerId);
     PostResponse createPostForAuthenticatedOwner(PostCreateRequest postRequest, MultipartFile[] images, String ownerEmail);
     PostResponse update(PostUpdateRequest postUpdateRequest, MultipartFile[] newImages, UserDetails currentUser);
     void delete(UUID id, UserDetails currentUser);
     List<PostResponse> findPostsByCurrentUser(String email);
+
+    // Posts disponibles más parecidos al dado, del más al menos parecido (ver SimilarPostIndex)
+    List<PostResponse> findSimilar(UUID id, int limit);
+
+    // Catálogo completo en streaming (NDJSON): entrega cada post a sink sin armar la lista
+    void streamCatalog(Consumer<PostResponse> sink);
 }
@@ -0,0 +1,43 @@
+package com.dog.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Versiones redimensionadas a pedido de las imágenes subidas (?w=400&fmt=webp), guardadas en
+ * una caché en disco de tamaño acotado.
+ */
+public interface ResizedImageCache {
+
+    /**
+     * @param file           archivo de la versión, listo para servir
+     * @param contentType    tipo MIME con que se generó
+     * @param variesByAccept true si el formato salió del header Accept (la respuesta lleva Vary: Accept)
+     */
+    record Variant(Path file, String contentType, boolean variesByAccept) {
+    }
+
+    /**
+     * @param contentType    tipo MIME en que se va a generar la versión
+     * @param variesByAccept true si salió del header Accept
+     */
+    record Format(String contentType, boolean variesByAccept) {
+    }
+
+    /**
+     * El formato que usaría resolve para format y accept, sin convertir nada: alcanza para armar
+     * los validadores (ETag, Vary) y responder un 304 sin generar la versión.
+     */
+    Format negotiate(String format, String accept);
+
+    /**
+     * Devuelve la versión de source con el ancho pedido (redondeado hacia arriba y nunca más
+     * ancha que el original). El formato es format si se puede generar; si no, el mejor que
+     * acepte el cliente según accept, o JPEG. Varias peticiones simultáneas por la misma versión
+     * esperan a una sola conversión. null si source no es una imagen que se pueda decodificar
+     * o si todas las conversiones están ocupadas más de app.image-resize.wait-ms; en los dos
+     * casos se sirve el original.
+     */
+    Variant resolve(Path source, BasicFileAttributes attributes, int width, String format, String accept) throws IOException;
+}
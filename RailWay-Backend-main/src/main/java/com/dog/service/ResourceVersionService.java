@@ -0,0 +1,24 @@
+package com.dog.service;
+
+import java.util.UUID;
+
+/**
+ * ETags fuertes para las lecturas de posts, habitaciones y reseñas.
+ * Se calculan con una consulta de marcas (updated_at / conteos) antes de cargar
+ * y mapear entidades, para poder responder 304 sin construir el cuerpo.
+ * Devuelven null si el recurso no existe (el endpoint sigue su flujo normal y da 404).
+ */
+public interface ResourceVersionService {
+
+    String postTag(UUID postId);
+
+    String catalogTag(String cursor, Integer size);
+
+    String roomTag(UUID roomId);
+
+    String roomsTag();
+
+    String reviewsTag(UUID postId);
+
+    String reviewSummaryTag(UUID postId);
+}
@@ -5,6 +5,7 @@ import com.dog.dto.request.Room.RoomUpdateRequest;
 import com.dog.dto.response.RoomResponse;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.security.core.userdetails.UserDetails;
 
 
@@ -15,4 +16,10 @@ public interface RoomService {
     RoomResponse update(RoomUpdateRequest roomUpdateRequest, UserDetails currentUser);
     void delete(UUID UUID, UserDetails currentUser);
     List<RoomResponse> findRoomsByCurrentUser(String email);
+
+    // Las k habitaciones más cercanas al punto, de la más cercana a la más lejana (ver RoomSpatialIndex)
+    List<RoomResponse> findNearest(double lat, double lng, int k);
+
+    // Todas las habitaciones en streaming (NDJSON)
+    void streamAll(Consumer<RoomResponse> sink);
 }
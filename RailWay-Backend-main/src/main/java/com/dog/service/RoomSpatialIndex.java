@@ -0,0 +1,30 @@
+package com.dog.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Índice espacial en memoria sobre las coordenadas (lat, lng) de las habitaciones.
+ * Se mantiene actualizado de forma incremental desde RoomService.
+ */
+public interface RoomSpatialIndex {
+
+    void upsert(UUID roomId, Double lat, Double lng);
+
+    void remove(UUID roomId);
+
+    /**
+     * Habitaciones a menos de radiusKm del punto, con su distancia exacta en km.
+     */
+    Map<UUID, Double> findWithinRadius(double lat, double lng, double radiusKm);
+
+    /**
+     * Las k habitaciones más cercanas al punto, ordenadas por distancia. Recorre la grilla
+     * anillo por anillo desde la celda del punto y se detiene cuando ninguna celda más lejana
+     * puede mejorar el resultado.
+     */
+    List<UUID> findNearest(double lat, double lng, int k);
+
+    int size();
+}
@@ -0,0 +1,24 @@
+package com.dog.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Percolador: índice en memoria de las búsquedas guardadas (no de los posts). Dado un post,
+ * devuelve las búsquedas que cumple evaluando solo las candidatas de su franja de precio
+ * o de su anillo de distancia a la UCA, nunca todas las búsquedas.
+ */
+public interface SavedSearchMatcher {
+
+    void upsert(UUID searchId, Double minPrice, Double maxPrice, Double maxDistanceKm, Collection<String> amenities);
+
+    void remove(UUID searchId);
+
+    /**
+     * distanceKm es null si la habitación no tiene coordenadas (solo cumplen las búsquedas sin límite de distancia).
+     */
+    List<UUID> match(double price, Double distanceKm, Collection<String> amenities);
+
+    int size();
+}
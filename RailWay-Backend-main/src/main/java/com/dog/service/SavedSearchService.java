@@ -0,0 +1,23 @@
+package com.dog.service;
+
+import com.dog.dto.request.SavedSearch.SavedSearchRequest;
+import com.dog.dto.response.SavedSearchResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface SavedSearchService {
+
+    SavedSearchResponse create(SavedSearchRequest request, String userEmail);
+
+    List<SavedSearchResponse> getMySearches(String userEmail);
+
+    void delete(UUID searchId, String userEmail);
+
+    /**
+     * Encola el post para compararlo con las búsquedas guardadas. Se llama dentro de la transacción
+     * que lo crea o edita, así solo se encola si el cambio se confirma; la comparación y los
+     * avisos salen en el siguiente lote.
+     */
+    void postPublished(UUID postId);
+}
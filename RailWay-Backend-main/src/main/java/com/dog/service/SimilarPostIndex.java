@@ -0,0 +1,27 @@
+package com.dog.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Índice en memoria de vecinos más cercanos sobre un vector numérico por post
+ * (precio, depósito, tamaño, ubicación, tipo de baño y cocina, amueblado y amenidades).
+ * Se actualiza de forma incremental cuando cambia un post o su habitación.
+ */
+public interface SimilarPostIndex {
+
+    /**
+     * Relee el post de la BD; si ya no existe, lo quita.
+     */
+    void refresh(UUID postId);
+
+    void remove(UUID postId);
+
+    /**
+     * Los k posts disponibles más parecidos al dado (sin incluirlo), del más al menos parecido.
+     * Vacío si el post no está en el índice.
+     */
+    List<UUID> findSimilar(UUID postId, int k);
+
+    int size();
+}
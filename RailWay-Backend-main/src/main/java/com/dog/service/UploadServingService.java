@@ -0,0 +1,20 @@
+package com.dog.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Sirve los archivos subidos (imágenes de los posts y sus variantes) directamente desde el disco.
+ */
+public interface UploadServingService {
+
+    /**
+     * Escribe la respuesta para la ruta relativa al directorio de subidas: 200 o 206 (Range)
+     * con el archivo, 304/412 según los headers condicionales, 416 si el rango no existe y
+     * 404 si el archivo no existe o no se puede servir. Con ?w= (y opcionalmente fmt=) sirve
+     * una versión redimensionada (ver ResizedImageCache); 400 si el ancho no es válido.
+     */
+    void serve(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException;
+}
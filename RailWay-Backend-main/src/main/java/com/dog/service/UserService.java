@@ -7,6 +7,7 @@ import com.dog.dto.response.UserResponse;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface UserService {
     List<UserResponse> findAll();
@@ -16,4 +17,7 @@ public interface UserService {
     void delete(UUID UUID);
 
     UserResponse registerUser(RegisterRequest registerRequest);
+
+    // Todos los usuarios en streaming (NDJSON)
+    void streamAll(Consumer<UserResponse> sink);
 }
@@ -0,0 +1,355 @@
+package com.dog.service.impl;
+
+import com.dog.dto.response.AddressSuggestion;
+import com.dog.repository.RoomRepository;
+import com.dog.service.AddressSuggestIndex;
+import com.dog.utils.TextNormalizeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie sobre los fragmentos normalizados de las direcciones ("Colonia Escalón, San Salvador"
+ * -> "colonia escalon", "san salvador"). Cada fragmento se inserta una vez por cada palabra,
+ * así "esca" también encuentra "Colonia Escalón". Cada nodo guarda el mayor conteo de su
+ * subárbol, y la búsqueda recorre primero los nodos con mayor conteo: para sacar el top-N
+ * solo se visitan las ramas que pueden aportar, no todo lo que cuelga del prefijo.
+ */
+@Service
+public class AddressSuggestIndexImpl implements AddressSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AddressSuggestIndexImpl.class);
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final RoomRepository roomRepository;
+
+    private final Node root = new Node();
+    // Fragmento normalizado -> término (texto a mostrar y cantidad de habitaciones)
+    private final Map<String, Term> terms = new HashMap<>();
+    // Fragmentos normalizados de cada habitación, para poder descontarlos al editarla
+    private final Map<UUID, Set<String>> roomSegments = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Term {
+        private final String display;
+        private long count;
+
+        private Term(String display) {
+            this.display = display;
+        }
+    }
+
+    /**
+     * Hijos en arreglos ordenados por carácter (búsqueda binaria): mucho más compacto que
+     * un HashMap por nodo, y los nodos de un trie de direcciones tienen pocos hijos.
+     */
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private List<Term> terms;
+        private long best;
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node addChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return children[i];
+
+            int at = -i - 1;
+            Node node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = node;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+
+        private void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) return;
+
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        private boolean isEmpty() {
+            return keys.length == 0 && (terms == null || terms.isEmpty());
+        }
+    }
+
+    // Elemento de la cola de la búsqueda: un nodo (prioridad = best) o un término (prioridad = count)
+    private record Candidate(long priority, Node node, Term term) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingLong(Candidate::priority).reversed()
+            // A igual conteo, primero los términos: así se emiten sin seguir bajando
+            .thenComparing(candidate -> candidate.term() == null);
+
+    public AddressSuggestIndexImpl(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Carga inicial con las direcciones de todas las habitaciones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = roomRepository.findAllAddresses();
+        lock.writeLock().lock();
+        try {
+            for (UUID roomId : new ArrayList<>(roomSegments.keySet())) {
+                removeUnlocked(roomId);
+            }
+            for (Object[] row : rows) {
+                insertUnlocked((UUID) row[0], (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de direcciones cargado: {} habitaciones, {} fragmentos", rows.size(), terms.size());
+    }
+
+    @Override
+    public void upsert(UUID roomId, String address) {
+        if (roomId == null) return;
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(roomId);
+            insertUnlocked(roomId, address);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID roomId) {
+        if (roomId == null) return;
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<AddressSuggestion> suggest(String query, int limit) {
+        String prefix = TextNormalizeUtil.normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+
+            List<AddressSuggestion> result = new ArrayList<>(limit);
+            // Un mismo fragmento cuelga de varias ramas (una por palabra): se emite una vez
+            Set<Term> emitted = new HashSet<>();
+            PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+            queue.add(new Candidate(node.best, node, null));
+
+            while (!queue.isEmpty() && result.size() < limit) {
+                Candidate candidate = queue.poll();
+                if (candidate.term() != null) {
+                    if (emitted.add(candidate.term())) {
+                        result.add(new AddressSuggestion(candidate.term().display, candidate.term().count));
+                    }
+                    continue;
+                }
+                Node current = candidate.node();
+                if (current.terms != null) {
+                    for (Term term : current.terms) {
+                        queue.add(new Candidate(term.count, null, term));
+                    }
+                }
+                for (Node child : current.children) {
+                    queue.add(new Candidate(child.best, child, null));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Mantenimiento incremental ----------
+
+    private void insertUnlocked(UUID roomId, String address) {
+        Map<String, String> segments = splitAddress(address);
+        if (segments.isEmpty()) return;
+
+        roomSegments.put(roomId, segments.keySet());
+        segments.forEach((key, display) -> {
+            Term term = terms.get(key);
+            if (term == null) {
+                term = new Term(display);
+                terms.put(key, term);
+                for (String path : wordSuffixes(key)) {
+                    List<Node> stack = walk(path, true);
+                    Node leaf = stack.get(stack.size() - 1);
+                    if (leaf.terms == null) {
+                        leaf.terms = new ArrayList<>(1);
+                    }
+                    leaf.terms.add(term);
+                }
+            }
+            term.count++;
+            refreshBest(key);
+        });
+    }
+
+    private void removeUnlocked(UUID roomId) {
+        Set<String> segments = roomSegments.remove(roomId);
+        if (segments == null) return;
+
+        for (String key : segments) {
+            Term term = terms.get(key);
+            if (term == null) continue;
+
+            term.count--;
+            if (term.count <= 0) {
+                terms.remove(key);
+                for (String path : wordSuffixes(key)) {
+                    List<Node> stack = walk(path, false);
+                    if (stack == null) continue;
+                    Node leaf = stack.get(stack.size() - 1);
+                    if (leaf.terms != null) {
+                        leaf.terms.remove(term);
+                        if (leaf.terms.isEmpty()) {
+                            leaf.terms = null;
+                        }
+                    }
+                }
+            }
+            refreshBest(key);
+        }
+    }
+
+    /**
+     * Recalcula el máximo de cada nodo en los caminos del fragmento, de la hoja a la raíz,
+     * y poda los nodos que quedaron vacíos.
+     */
+    private void refreshBest(String key) {
+        for (String path : wordSuffixes(key)) {
+            List<Node> stack = walk(path, false);
+            if (stack == null) continue;
+
+            for (int depth = stack.size() - 1; depth >= 0; depth--) {
+                Node node = stack.get(depth);
+                if (depth > 0 && node.isEmpty()) {
+                    stack.get(depth - 1).removeChild(path.charAt(depth - 1));
+                    continue;
+                }
+                long best = 0;
+                if (node.terms != null) {
+                    for (Term term : node.terms) {
+                        best = Math.max(best, term.count);
+                    }
+                }
+                for (Node child : node.children) {
+                    best = Math.max(best, child.best);
+                }
+                node.best = best;
+            }
+        }
+    }
+
+    /**
+     * Nodos desde la raíz hasta el final de path; null si no existe y create es false.
+     */
+    private List<Node> walk(String path, boolean create) {
+        List<Node> stack = new ArrayList<>(path.length() + 1);
+        Node node = root;
+        stack.add(node);
+        for (int i = 0; i < path.length(); i++) {
+            node = create ? node.addChild(path.charAt(i)) : node.child(path.charAt(i));
+            if (node == null) return null;
+            stack.add(node);
+        }
+        return stack;
+    }
+
+    // ---------- Helpers ----------
+
+    /**
+     * Fragmentos separados por coma: normalizado -> texto original (sin espacios repetidos).
+     */
+    private static Map<String, String> splitAddress(String address) {
+        Map<String, String> segments = new LinkedHashMap<>();
+        if (address == null) return segments;
+
+        for (String part : address.split(",")) {
+            String display = part.trim().replaceAll("\\s+", " ");
+            String key = TextNormalizeUtil.normalize(display);
+            if (!key.isEmpty()) {
+                segments.putIfAbsent(key, display);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * "colonia escalon" -> ["colonia escalon", "escalon"]
+     */
+    private static List<String> wordSuffixes(String key) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (i == 0 || key.charAt(i - 1) == ' ') {
+                suffixes.add(key.substring(i));
+            }
+        }
+        return suffixes;
+    }
+}
@@ -0,0 +1,179 @@
+package com.dog.service.impl;
+
+import com.dog.dto.response.CursorPageResponse;
+import com.dog.dto.response.GeneralResponse;
+import com.dog.dto.response.PostResponse;
+import com.dog.service.CatalogSnapshotService;
+import com.dog.service.PostCatalogChangedEvent;
+import com.dog.service.PostService;
+import com.dog.service.ResourceVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Genera el snapshot en un hilo propio, un rato después del último cambio del catálogo.
+ * Los archivos se nombran con el ETag de la versión y se escriben de forma atómica;
+ * se conserva la versión anterior para no borrar un archivo que aún se está enviando.
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+    // Mismo valor que devuelve buildResponse en el controlador, pero relativo (no depende del host)
+    private static final String CATALOG_URI = "/api/post";
+
+    private final PostService postService;
+    private final ResourceVersionService resourceVersionService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long debounceMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+
+    private volatile Snapshot current;
+    private volatile Snapshot previous;
+
+    public CatalogSnapshotServiceImpl(PostService postService,
+                                      ResourceVersionService resourceVersionService,
+                                      ObjectMapper objectMapper,
+                                      @Value("${app.catalog-snapshot.dir:./catalog_snapshots}") String directory,
+                                      @Value("${app.catalog-snapshot.debounce-ms:2000}") long debounceMs) {
+        this.postService = postService;
+        this.resourceVersionService = resourceVersionService;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.debounceMs = debounceMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduler.execute(this::rebuild);
+    }
+
+    @EventListener
+    public void onCatalogChanged(PostCatalogChangedEvent event) {
+        requestRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public Snapshot current(String etag) {
+        Snapshot snapshot = current;
+        return snapshot != null && snapshot.etag().equals(etag) ? snapshot : null;
+    }
+
+    @Override
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            scheduler.schedule(this::rebuild, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        rebuildPending.set(false);
+        try {
+            // Primero la versión y después los datos: el contenido nunca es más viejo que su etiqueta
+            String etag = resourceVersionService.catalogTag(null, null);
+            Snapshot snapshot = current;
+            if (snapshot != null && snapshot.etag().equals(etag)) {
+                return;
+            }
+
+            CursorPageResponse<PostResponse> page = postService.findPage(null, null);
+            byte[] json = objectMapper.writeValueAsBytes(GeneralResponse.builder()
+                    .message("Posts found")
+                    .status(HttpStatus.OK.value())
+                    .data(page)
+                    .uri(CATALOG_URI)
+                    .build());
+
+            Files.createDirectories(directory);
+            String baseName = etag.replace("\"", "");
+            Path jsonFile = writeAtomically(directory.resolve(baseName + ".json"), json);
+            Path gzipFile = writeAtomically(directory.resolve(baseName + ".json.gz"), gzip(json));
+
+            previous = current;
+            current = new Snapshot(etag, jsonFile, gzipFile);
+            deleteStaleFiles();
+
+            logger.info("Snapshot del catálogo {} generado ({} bytes, gzip {} bytes)",
+                    etag, json.length, Files.size(gzipFile));
+        } catch (Exception e) {
+            // Sin snapshot el endpoint sigue respondiendo por la vía normal
+            logger.warn("No se pudo generar el snapshot del catálogo", e);
+        }
+    }
+
+    private Path writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(directory, "snapshot-", ".tmp");
+        try {
+            Files.write(temp, content);
+            return Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        // Se comprime una sola vez por versión, así que conviene el nivel máximo
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return buffer.toByteArray();
+    }
+
+    private void deleteStaleFiles() throws IOException {
+        Set<Path> keep = new HashSet<>();
+        for (Snapshot snapshot : new Snapshot[]{current, previous}) {
+            if (snapshot != null) {
+                keep.add(snapshot.json());
+                keep.add(snapshot.gzip());
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "catalog-*")) {
+            for (Path file : files) {
+                if (!keep.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.dog.service.impl;
+
+import com.dog.entities.FileOutboxEntry;
+import com.dog.repository.FileOutboxRepository;
+import com.dog.service.FileOutboxService;
+import com.dog.service.FileStorageService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cada lote se toma con FOR UPDATE SKIP LOCKED dentro de una transacción corta: los archivos
+ * borrados (o que ya no existían) sacan su fila, los fallos se reprograman con espera
+ * exponencial y después de MAX_ATTEMPTS se abandonan; lo que quede en disco lo recoge
+ * OrphanFileCollector.
+ */
+@Service
+public class FileOutboxServiceImpl implements FileOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileOutboxServiceImpl.class);
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long FIRST_RETRY_SECONDS = 30;
+    private static final long MAX_RETRY_SECONDS = TimeUnit.HOURS.toSeconds(6);
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final FileOutboxRepository fileOutboxRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final long pollMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "file-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FileOutboxServiceImpl(FileOutboxRepository fileOutboxRepository,
+                                 FileStorageService fileStorageService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.file-outbox.batch-size:100}") int batchSize,
+                                 @Value("${app.file-outbox.poll-ms:30000}") long pollMs) {
+        this.fileOutboxRepository = fileOutboxRepository;
+        this.fileStorageService = fileStorageService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMs = pollMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduler.scheduleWithFixedDelay(this::drain, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueDeletion(Collection<String> fileUrls) {
+        if (fileUrls == null) return;
+
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl != null && !fileUrl.isBlank()) {
+                distinct.add(fileUrl);
+            }
+        }
+        if (distinct.isEmpty()) return;
+
+        List<FileOutboxEntry> entries = new ArrayList<>(distinct.size());
+        for (String fileUrl : distinct) {
+            entries.add(FileOutboxEntry.builder().fileUrl(fileUrl).build());
+        }
+        fileOutboxRepository.saveAll(entries);
+    }
+
+    // ---------- Procesamiento ----------
+
+    private void drain() {
+        try {
+            Integer claimed;
+            do {
+                claimed = transaction.execute(status -> processBatch());
+            } while (claimed != null && claimed == batchSize);
+        } catch (Exception e) {
+            // El hilo programado se detiene si una ejecución lanza; las filas siguen pendientes
+            logger.warn("No se pudo procesar el outbox de archivos", e);
+        }
+    }
+
+    private int processBatch() {
+        List<FileOutboxEntry> batch = fileOutboxRepository.claimDue(batchSize);
+        List<FileOutboxEntry> finished = new ArrayList<>();
+        for (FileOutboxEntry entry : batch) {
+            try {
+                fileStorageService.deleteFile(entry.getFileUrl());
+                finished.add(entry);
+            } catch (Exception e) {
+                int attempts = entry.getAttempts() + 1;
+                if (attempts >= MAX_ATTEMPTS) {
+                    logger.error("Se abandona el borrado de {} tras {} intentos", entry.getFileUrl(), attempts, e);
+                    finished.add(entry);
+                    continue;
+                }
+                long delaySeconds = Math.min(MAX_RETRY_SECONDS, FIRST_RETRY_SECONDS << (attempts - 1));
+                String error = String.valueOf(e.getMessage());
+                fileOutboxRepository.reschedule(entry.getId(), attempts,
+                        error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, delaySeconds);
+                logger.warn("No se pudo borrar {} (intento {}), se reintenta en {} s", entry.getFileUrl(), attempts, delaySeconds);
+            }
+        }
+        if (!finished.isEmpty()) {
+            fileOutboxRepository.deleteAllInBatch(finished);
+        }
+        return batch.size();
+    }
+}
@@ -0,0 +1,264 @@
+package com.dog.service.impl;
+
+import com.dog.entities.PostImage;
+import com.dog.repository.PostImageRepository;
+import com.dog.repository.PostRepository;
+import com.dog.service.FileStorageService;
+import com.dog.service.ImageVariantService;
+import com.dog.service.PostCacheService;
+import com.dog.utils.ImageResizeUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cada imagen se decodifica una sola vez (submuestreada al leer) y se reduce en cascada:
+ * detalle -> tarjeta -> miniatura -> placeholder, cada paso a partir del anterior.
+ * Las variantes son JPEG progresivos junto al original; el srcset se guarda ya armado con
+ * los anchos reales (una foto más angosta que el detalle no se amplía ni se duplica).
+ *
+ * El trabajo corre en un pool acotado con cola acotada: si la cola se llena las imágenes
+ * no se pierden, quedan con variants_status en null y las recoge el barrido periódico
+ * (que también procesa las imágenes subidas antes de existir las variantes).
+ */
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantServiceImpl.class);
+
+    private static final String STATUS_READY = "READY";
+    private static final String STATUS_FAILED = "FAILED";
+
+    // Anchos pensados para: galería de miniaturas, PostCard en la grilla y la foto principal del detalle
+    private static final int THUMB_WIDTH = 160;
+    private static final int CARD_WIDTH = 480;
+    private static final int DETAIL_WIDTH = 1200;
+    private static final int PLACEHOLDER_WIDTH = 16;
+
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final float PLACEHOLDER_QUALITY = 0.5f;
+
+    private final PostImageRepository postImageRepository;
+    private final PostRepository postRepository;
+    private final FileStorageService fileStorageService;
+    private final PostCacheService postCacheService;
+    private final long sweepMs;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-variants-sweep");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Imágenes encoladas o en proceso, para que el barrido no las repita
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantServiceImpl(PostImageRepository postImageRepository,
+                                   PostRepository postRepository,
+                                   FileStorageService fileStorageService,
+                                   PostCacheService postCacheService,
+                                   @Value("${app.image-variants.threads:2}") int threads,
+                                   @Value("${app.image-variants.queue-capacity:200}") int queueCapacity,
+                                   @Value("${app.image-variants.sweep-ms:300000}") long sweepMs) {
+        this.postImageRepository = postImageRepository;
+        this.postRepository = postRepository;
+        this.fileStorageService = fileStorageService;
+        this.postCacheService = postCacheService;
+        this.sweepMs = sweepMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Que el redimensionado no le quite CPU a las peticiones
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void submit(UUID postId, Map<UUID, String> imageUrls) {
+        if (postId == null || imageUrls == null) return;
+
+        Map<UUID, String> pending = new LinkedHashMap<>();
+        imageUrls.forEach((imageId, imageUrl) -> {
+            if (imageId != null && imageUrl != null && inFlight.add(imageId)) {
+                pending.put(imageId, imageUrl);
+            }
+        });
+        if (pending.isEmpty()) return;
+
+        try {
+            executor.execute(() -> processPost(postId, pending));
+        } catch (RejectedExecutionException e) {
+            inFlight.removeAll(pending.keySet());
+            logger.warn("Cola de variantes llena; {} imágenes del post {} quedan para el barrido", pending.size(), postId);
+        }
+    }
+
+    // ---------- Procesamiento ----------
+
+    private void processPost(UUID postId, Map<UUID, String> images) {
+        try {
+            int ready = 0;
+            for (Map.Entry<UUID, String> image : images.entrySet()) {
+                if (processImage(image.getKey(), image.getValue())) {
+                    ready++;
+                }
+            }
+            if (ready > 0) {
+                // El PostResponse incluye el srcset: nueva versión (ETag) y fuera de las cachés
+                postRepository.touchUpdatedAt(postId);
+                postCacheService.evictPost(postId);
+            }
+        } catch (Exception e) {
+            logger.warn("No se pudieron registrar las variantes del post {}", postId, e);
+        } finally {
+            inFlight.removeAll(images.keySet());
+        }
+    }
+
+    /**
+     * true si las variantes quedaron registradas; una imagen ilegible se marca FAILED
+     * para que el barrido no la reintente en cada pasada.
+     */
+    private boolean processImage(UUID imageId, String imageUrl) {
+        List<String> written = new ArrayList<>();
+        try {
+            // Mismo contenido ya procesado para otra imagen: sus variantes son los mismos archivos
+            String contentHash = fileStorageService.contentHash(imageUrl);
+            Optional<PostImage> processed = contentHash != null
+                    ? postImageRepository.findFirstByContentHashAndVariantsStatus(contentHash, STATUS_READY)
+                    : Optional.empty();
+            if (processed.isPresent()) {
+                PostImage same = processed.get();
+                return postImageRepository.updateVariants(imageId, same.getThumbUrl(), same.getCardUrl(),
+                        same.getDetailUrl(), same.getSrcset(), same.getPlaceholder(), STATUS_READY) > 0;
+            }
+
+            BufferedImage source;
+            try (InputStream input = fileStorageService.openFile(imageUrl)) {
+                source = ImageResizeUtil.readDownsampled(input, DETAIL_WIDTH);
+            }
+            if (source == null) {
+                throw new IOException("Formato de imagen no soportado");
+            }
+
+            BufferedImage detail = ImageResizeUtil.resizeToWidth(source, DETAIL_WIDTH);
+            BufferedImage card = ImageResizeUtil.resizeToWidth(detail, CARD_WIDTH);
+            BufferedImage thumb = ImageResizeUtil.resizeToWidth(card, THUMB_WIDTH);
+            BufferedImage tiny = ImageResizeUtil.resizeToWidth(thumb, PLACEHOLDER_WIDTH);
+
+            String detailUrl = storeVariant(imageUrl, "_detail.jpg", detail, written);
+            String cardUrl = card.getWidth() < detail.getWidth()
+                    ? storeVariant(imageUrl, "_card.jpg", card, written) : detailUrl;
+            String thumbUrl = thumb.getWidth() < card.getWidth()
+                    ? storeVariant(imageUrl, "_thumb.jpg", thumb, written) : cardUrl;
+
+            StringJoiner srcset = new StringJoiner(", ");
+            srcset.add(thumbUrl + " " + thumb.getWidth() + "w");
+            if (!cardUrl.equals(thumbUrl)) {
+                srcset.add(cardUrl + " " + card.getWidth() + "w");
+            }
+            if (!detailUrl.equals(cardUrl)) {
+                srcset.add(detailUrl + " " + detail.getWidth() + "w");
+            }
+
+            String placeholder = "data:image/jpeg;base64,"
+                    + Base64.getEncoder().encodeToString(ImageResizeUtil.encodeJpeg(tiny, PLACEHOLDER_QUALITY));
+
+            int updated = postImageRepository.updateVariants(imageId, thumbUrl, cardUrl, detailUrl,
+                    srcset.toString(), placeholder, STATUS_READY);
+            if (updated == 0) {
+                // La imagen se borró mientras se procesaba: no dejar archivos huérfanos
+                deleteQuietly(written);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("No se pudieron generar las variantes de la imagen {} ({})", imageId, imageUrl, e);
+            deleteQuietly(written);
+            postImageRepository.updateVariants(imageId, null, null, null, null, null, STATUS_FAILED);
+            return false;
+        }
+    }
+
+    private String storeVariant(String imageUrl, String suffix, BufferedImage image, List<String> written)
+            throws IOException {
+        String url = fileStorageService.storeVariant(imageUrl, suffix, ImageResizeUtil.encodeJpeg(image, JPEG_QUALITY));
+        written.add(url);
+        return url;
+    }
+
+    private void deleteQuietly(Iterable<String> urls) {
+        for (String url : urls) {
+            try {
+                fileStorageService.deleteFile(url);
+            } catch (IOException | RuntimeException e) {
+                // Queda sin referencias: OrphanFileCollector lo borra más adelante
+                logger.warn("No se pudo eliminar la variante {}", url, e);
+            }
+        }
+    }
+
+    // ---------- Barrido de pendientes ----------
+
+    private void sweep() {
+        try {
+            int room = executor.getQueue().remainingCapacity();
+            if (room == 0) return;
+
+            // (id, postId, imageUrl), ordenadas por post para armar un trabajo por post
+            List<Object[]> rows = postImageRepository.findPendingVariants(PageRequest.of(0, room));
+            Map<UUID, Map<UUID, String>> byPost = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                byPost.computeIfAbsent((UUID) row[1], id -> new LinkedHashMap<>()).put((UUID) row[0], (String) row[2]);
+            }
+            byPost.forEach(this::submit);
+        } catch (Exception e) {
+            // El hilo programado se detiene si una ejecución lanza
+            logger.warn("No se pudo completar el barrido de variantes pendientes", e);
+        }
+    }
+}
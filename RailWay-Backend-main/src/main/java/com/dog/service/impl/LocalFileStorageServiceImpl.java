@@ -1,30 +1,74 @@
 package com.dog.service.impl;
 
+import com.dog.exception.InvalidImageException;
+import com.dog.repository.PostImageRepository;
 import com.dog.service.FileStorageService;
+import com.dog.utils.ImageFormatUtil;
+import com.dog.utils.ParallelStoreUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Almacenamiento direccionado por contenido: cada archivo se guarda una sola vez bajo el
+ * SHA-256 de sus bytes, así la misma foto subida para varias habitaciones ocupa un único
+ * archivo y su URL nunca cambia de contenido (se sirve con Cache-Control: immutable).
+ */
 @Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "local", matchIfMissing = true)
 public class LocalFileStorageServiceImpl implements FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LocalFileStorageServiceImpl.class);
+
+    // Ruta relativa de los blobs dentro de upload-dir (ver WebConfig)
+    public static final String BLOB_DIR = "blobs";
+    // Donde Tomcat escribe las partes multipart; dentro del mismo volumen para poder renombrarlas
+    public static final String UPLOAD_TMP_DIR = BLOB_DIR + "/tmp";
+
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(?:[._].*)?");
+
     private final Path fileStorageLocation;
     private final String cleanFileBaseUrlPath; // Usaremos esta variable "limpia"
+    private final PostImageRepository postImageRepository;
+    private final long blobGraceMs;
+    // Escrituras en paralelo de storeFiles; acotado para no saturar el disco con muchas subidas a la vez
+    private final ExecutorService storeExecutor;
 
     public LocalFileStorageServiceImpl(
             @Value("${file.upload-dir:./uploads_unistay}") String uploadDir,
-            @Value("${file.base-url:/uploads_unistay}") String baseUrlPath
+            @Value("${file.base-url:/uploads_unistay}") String baseUrlPath,
+            @Value("${file.store-threads:8}") int storeThreads,
+            @Value("${file.blob-grace-ms:600000}") long blobGraceMs,
+            PostImageRepository postImageRepository
     ) {
+        this.postImageRepository = postImageRepository;
+        this.blobGraceMs = blobGraceMs;
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
 
         // Limpiamos la ruta base para asegurar que no haya dobles barras
@@ -36,90 +80,272 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
         }
 
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.fileStorageLocation.resolve(UPLOAD_TMP_DIR));
         } catch (Exception ex) {
             throw new RuntimeException("No se pudo crear el directorio para los archivos subidos.", ex);
         }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.storeExecutor = Executors.newFixedThreadPool(Math.max(1, storeThreads), runnable -> {
+            Thread thread = new Thread(runnable, "file-store-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        storeExecutor.shutdownNow();
     }
 
     @Override
-    public String storeFile(MultipartFile file, String subfolder) throws IOException {
+    public String storeFile(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IOException("Fallo al guardar archivo vacío.");
         }
 
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        String fileExtension = "";
-        try {
-            fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-        } catch (Exception e) {
-            // No hay extensión de archivo
-        }
-        String newFileName = UUID.randomUUID().toString() + fileExtension;
+        String finalUrl = currentBaseUrl() + "/" + writeBlob(file).relativePath();
+        logger.debug("Imagen guardada: {}", finalUrl);
+        return finalUrl;
+    }
 
-        Path targetDirectory = this.fileStorageLocation;
-        if (subfolder != null && !subfolder.isBlank()) {
-            targetDirectory = this.fileStorageLocation.resolve(subfolder);
-            if (!Files.exists(targetDirectory)) {
-                Files.createDirectories(targetDirectory);
+    @Override
+    public List<StoredFile> storeFiles(MultipartFile[] files) throws IOException {
+        // La URL base sale de la petición en curso: se calcula aquí, los hilos del pool no la ven
+        String baseUrl = currentBaseUrl();
+        return ParallelStoreUtil.storeAll(files, storeExecutor, file -> writeBlob(file).withBaseUrl(baseUrl), this::discardFiles);
+    }
+
+    /**
+     * Guarda el archivo por su contenido. El multipart ya está en disco, en UPLOAD_TMP_DIR (mismo
+     * volumen, ver WebConfig): se lee una vez para validar la cabecera y calcular el SHA-256, y se
+     * mueve con dos renombrados a blobs/ab/cd/<hash>.<ext> (dos niveles para que ningún directorio
+     * crezca demasiado), sin volver a escribir los bytes. Si ya hay un archivo idéntico se reutiliza.
+     */
+    private Blob writeBlob(MultipartFile file) throws IOException {
+        MessageDigest digest = newSha256();
+        String extension;
+        try (InputStream inputStream = file.getInputStream()) {
+            byte[] buffer = new byte[64 * 1024];
+            // Un archivo que no es imagen se corta con el primer bloque, sin leer el resto
+            int headerLength = inputStream.readNBytes(buffer, 0, ImageFormatUtil.HEADER_BYTES);
+            extension = ImageFormatUtil.extension(buffer, headerLength);
+            if (extension == null) {
+                throw new InvalidImageException("El archivo " + file.getOriginalFilename()
+                        + " no es una imagen JPEG, PNG, GIF o WebP.");
+            }
+            digest.update(buffer, 0, headerLength);
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
             }
         }
 
-        Path targetLocation = targetDirectory.resolve(newFileName);
+        String hash = HexFormat.of().formatHex(digest.digest());
+        String relativePath = BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+        Path targetLocation = this.fileStorageLocation.resolve(relativePath);
+        Files.createDirectories(targetLocation.getParent());
 
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Reutilizado: se marca como reciente para que deleteFile no lo borre mientras se confirma la fila
+        if (touchIfExists(targetLocation)) {
+            return new Blob(relativePath, 0);
         }
 
-        String relativePath = (subfolder != null && !subfolder.isBlank() ? subfolder + "/" : "") + newFileName;
+        // transferTo(File) renombra la parte de Tomcat (transferTo(Path) en cambio copia los bytes);
+        // el segundo renombrado es atómico, nunca se sirve un archivo a medio escribir
+        Path tempFile = this.fileStorageLocation.resolve(UPLOAD_TMP_DIR).resolve("upload-" + UUID.randomUUID() + ".tmp");
+        // La fecha se fija antes del renombrado: si otra subida lo reutiliza después, la cambia
+        long createdAt = System.currentTimeMillis();
+        try {
+            file.transferTo(tempFile.toFile());
+            Files.setLastModifiedTime(tempFile, FileTime.fromMillis(createdAt));
+            Files.move(tempFile, targetLocation, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return new Blob(relativePath, createdAt);
+    }
 
-        // Construimos la URL final de forma segura
-        String finalUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path(this.cleanFileBaseUrlPath)
-                .path("/")
-                .path(relativePath)
-                .toUriString();
+    // Ruta relativa del blob y createdAt de StoredFile (0 si se reutilizó)
+    private record Blob(String relativePath, long createdAt) {
+        StoredFile withBaseUrl(String baseUrl) {
+            return new StoredFile(baseUrl + "/" + relativePath, createdAt);
+        }
+    }
 
-        // Línea de depuración para ver la URL exacta que se está generando
-        System.out.println("URL de imagen generada y guardada en BD: " + finalUrl);
+    private static boolean touchIfExists(Path path) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
 
-        return finalUrl;
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    // Construimos la URL base de forma segura (requiere una petición en curso)
+    private String currentBaseUrl() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(this.cleanFileBaseUrlPath)
+                .toUriString();
     }
 
     @Override
     public void deleteFile(String fileUrl) throws IOException {
         if (fileUrl == null || fileUrl.isBlank()) {
-            System.err.println("FileStorageService: Intento de eliminar archivo con URL nula o vacía.");
+            logger.warn("Intento de eliminar un archivo con URL nula o vacía");
             return;
         }
 
+        Path filePath;
         try {
-            String contextPath = ServletUriComponentsBuilder.fromCurrentContextPath().build().getPath();
-            if (contextPath == null || contextPath.equals("/")) {
-                contextPath = "";
-            }
-            String pathAfterContext = fileUrl.startsWith(contextPath) ? fileUrl.substring(contextPath.length()) : fileUrl;
+            filePath = resolveStoredPath(fileUrl);
+        } catch (IOException e) {
+            // No es un archivo de este almacenamiento (p. ej. una URL externa): no hay nada que borrar
+            logger.warn("No se elimina {}: {}", fileUrl, e.getMessage());
+            return;
+        }
 
-            String pathAfterBaseUrl = pathAfterContext.startsWith(this.cleanFileBaseUrlPath) ? pathAfterContext.substring(this.cleanFileBaseUrlPath.length()) : pathAfterContext;
+        String hash = contentHash(fileUrl);
+        if (hash != null && !canDeleteBlob(hash, filePath)) {
+            logger.debug("El archivo sigue en uso, no se elimina: {}", filePath);
+            return;
+        }
 
-            String relativeFilePath = pathAfterBaseUrl.startsWith("/") ? pathAfterBaseUrl.substring(1) : pathAfterBaseUrl;
+        if (Files.deleteIfExists(filePath)) {
+            logger.debug("Archivo eliminado: {}", filePath);
+        } else {
+            logger.debug("El archivo a eliminar ya no existía: {}", filePath);
+        }
+    }
 
-            if (relativeFilePath.isBlank()) {
-                System.err.println("FileStorageService: No se pudo extraer el path relativo del archivo de la URL: " + fileUrl);
-                return;
+    /**
+     * El blob se aparta con un renombrado atómico antes de comprobar su fecha: una subida que lo
+     * reutilice a partir de ahí ya no lo encuentra y lo vuelve a escribir, y una que lo reutilizó
+     * antes cambió la fecha, así que se devuelve a su lugar.
+     */
+    @Override
+    public void discardFiles(List<StoredFile> files) {
+        for (StoredFile file : files) {
+            if (!file.created()) {
+                continue;
+            }
+            try {
+                discardCreated(file);
+            } catch (IOException | RuntimeException e) {
+                // Sin fila que lo referencie: OrphanFileCollector lo borra más adelante
+                logger.warn("No se pudo descartar {}", file.url(), e);
             }
+        }
+    }
 
-            Path filePath = this.fileStorageLocation.resolve(relativeFilePath).normalize();
-            System.out.println("FileStorageService: Intentando eliminar archivo en path: " + filePath.toString());
+    private void discardCreated(StoredFile file) throws IOException {
+        Path filePath = resolveStoredPath(file.url());
+        String hash = contentHash(file.url());
+        if (hash != null && postImageRepository.countByContentHash(hash) > 0) {
+            return;
+        }
 
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-                System.out.println("FileStorageService: Archivo eliminado exitosamente: " + filePath.toString());
-            } else {
-                System.err.println("FileStorageService: El archivo a eliminar no existe en el path: " + filePath.toString());
-            }
-        } catch (Exception e) {
-            System.err.println("FileStorageService: Error al eliminar el archivo: " + fileUrl + " - " + e.getMessage());
+        Path aside = this.fileStorageLocation.resolve(UPLOAD_TMP_DIR).resolve("discard-" + UUID.randomUUID() + ".tmp");
+        try {
+            Files.move(filePath, aside, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (Files.getLastModifiedTime(aside).toMillis() == file.createdAt()) {
+            Files.delete(aside);
+            logger.debug("Archivo descartado: {}", filePath);
+        } else {
+            Files.move(aside, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public InputStream openFile(String fileUrl) throws IOException {
+        return Files.newInputStream(resolveStoredPath(fileUrl));
+    }
+
+    @Override
+    public String storeVariant(String originalUrl, String suffix, byte[] content) throws IOException {
+        Path originalPath = resolveStoredPath(originalUrl);
+        String originalName = originalPath.getFileName().toString();
+        int dot = originalName.lastIndexOf('.');
+        String variantName = (dot > 0 ? originalName.substring(0, dot) : originalName) + suffix;
+
+        // Se escribe a un temporal y se renombra: nunca se sirve un archivo a medio escribir
+        Path variantPath = originalPath.resolveSibling(variantName);
+        // Temporal con nombre único: dos imágenes con el mismo contenido pueden generar la misma variante a la vez
+        Path tempPath = originalPath.resolveSibling(variantName + "." + UUID.randomUUID() + ".tmp");
+        Files.write(tempPath, content);
+        Files.move(tempPath, variantPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return originalUrl.substring(0, originalUrl.lastIndexOf('/') + 1) + variantName;
+    }
+
+    @Override
+    public String contentHash(String fileUrl) {
+        if (fileUrl == null) return null;
+
+        String urlPath;
+        try {
+            urlPath = URI.create(fileUrl).getPath();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (urlPath == null || !urlPath.contains(this.cleanFileBaseUrlPath + "/" + BLOB_DIR + "/")) {
+            return null;
+        }
+        Matcher matcher = BLOB_NAME.matcher(urlPath.substring(urlPath.lastIndexOf('/') + 1));
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Un blob (y sus variantes) se comparte entre todas las imágenes con el mismo contenido:
+     * solo se borra cuando ninguna fila de post_images lo referencia. Además el original no se
+     * borra si se escribió o reutilizó hace menos de blobGraceMs, porque puede pertenecer a una
+     * subida en curso cuya fila todavía no se confirmó.
+     */
+    private boolean canDeleteBlob(String hash, Path filePath) throws IOException {
+        if (postImageRepository.countByContentHash(hash) > 0) {
+            return false;
+        }
+        String fileName = filePath.getFileName().toString();
+        boolean isVariant = fileName.length() > hash.length() && fileName.charAt(hash.length()) == '_';
+        if (isVariant || !Files.exists(filePath)) {
+            return true;
+        }
+        return Files.getLastModifiedTime(filePath).toMillis() < System.currentTimeMillis() - blobGraceMs;
+    }
+
+    /**
+     * Ruta en disco de una URL generada por storeFile (absoluta o relativa al servidor).
+     * Se toma lo que sigue a la ruta base y se rechaza cualquier cosa fuera del directorio.
+     */
+    private Path resolveStoredPath(String fileUrl) throws IOException {
+        String urlPath;
+        try {
+            urlPath = URI.create(fileUrl).getPath();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("URL de archivo inválida: " + fileUrl, e);
+        }
+
+        String prefix = this.cleanFileBaseUrlPath + "/";
+        int start = urlPath != null ? urlPath.indexOf(prefix) : -1;
+        if (start < 0) {
+            throw new IOException("La URL no pertenece al almacenamiento local: " + fileUrl);
+        }
+
+        Path filePath = this.fileStorageLocation.resolve(urlPath.substring(start + prefix.length())).normalize();
+        if (!filePath.startsWith(this.fileStorageLocation)) {
+            throw new IOException("La URL apunta fuera del directorio de archivos: " + fileUrl);
         }
+        return filePath;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,360 @@
+package com.dog.service.impl;
+
+import com.dog.repository.PostImageRepository;
+import com.dog.service.OrphanFileCollector;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Recorre, en orden, los directorios hoja del almacenamiento local: blobs/ab/cd (se comparan
+ * los hashes con post_images.content_hash) y luego posts/<postId> (los archivos anteriores a
+ * los blobs, que se comparan con las URLs de las imágenes de ese post). La posición es la ruta
+ * del último directorio revisado; el orden alfabético ("blobs" < "posts") permite retomarla.
+ *
+ * Para no competir con las peticiones cada paso revisa como mucho app.file-gc.files-per-step
+ * archivos y luego espera app.file-gc.step-ms. Nunca borra archivos más nuevos que
+ * app.file-gc.min-age-ms: una subida cuya fila aún no se confirmó todavía no es huérfana.
+ */
+@Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "local", matchIfMissing = true)
+public class OrphanFileCollectorImpl implements OrphanFileCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanFileCollectorImpl.class);
+
+    private static final String LEGACY_DIR = "posts";
+    // Oculto: UploadServingService no sirve rutas que empiezan con punto
+    private static final String STATE_FILE = ".gc-state";
+    private static final Pattern SHARD_DIR = Pattern.compile("[0-9a-f]{2}");
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(?:[._].*)?");
+    // Directorios que se listan de una vez en cada paso
+    private static final int DIRECTORIES_PER_LISTING = 64;
+    private static final long START_DELAY_MS = 60_000;
+
+    private final PostImageRepository postImageRepository;
+    private final Path uploadRoot;
+    private final int filesPerStep;
+    private final long stepMs;
+    private final long intervalMs;
+    private final long minAgeMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "orphan-file-collector");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Solo los toca el hilo del recolector (sweep no se llama en paralelo)
+    private String cursor;
+    private long passFinishedAt;
+    private long passDeletedFiles;
+    private long passDeletedBytes;
+
+    public OrphanFileCollectorImpl(PostImageRepository postImageRepository,
+                                   @Value("${file.upload-dir:./uploads_unistay}") String uploadDir,
+                                   @Value("${app.file-gc.files-per-step:200}") int filesPerStep,
+                                   @Value("${app.file-gc.step-ms:1000}") long stepMs,
+                                   @Value("${app.file-gc.interval-ms:21600000}") long intervalMs,
+                                   @Value("${app.file-gc.min-age-ms:3600000}") long minAgeMs) {
+        this.postImageRepository = postImageRepository;
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.filesPerStep = Math.max(1, filesPerStep);
+        this.stepMs = stepMs;
+        this.intervalMs = intervalMs;
+        this.minAgeMs = minAgeMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        loadState();
+        scheduler.scheduleWithFixedDelay(this::scheduledStep, START_DELAY_MS, stepMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduledStep() {
+        try {
+            // Entre pasadas solo se espera; una pasada empezada se continúa aunque haya habido un reinicio
+            if (cursor == null && System.currentTimeMillis() - passFinishedAt < intervalMs) return;
+            sweep(filesPerStep);
+        } catch (Exception e) {
+            // El hilo programado se detiene si una ejecución lanza; el paso se repite desde el cursor
+            logger.warn("No se pudo completar un paso del recolector de archivos", e);
+        }
+    }
+
+    @Override
+    public synchronized boolean sweep(int maxFiles) {
+        String startCursor = cursor;
+        int budget = maxFiles;
+        boolean finished = false;
+        try {
+            while (budget > 0 && !finished) {
+                List<String> directories = directoriesAfter(cursor);
+                if (directories.isEmpty()) {
+                    finished = true;
+                    break;
+                }
+                for (String directory : directories) {
+                    // Un directorio vacío también cuenta: listarlo tampoco es gratis
+                    budget -= Math.max(1, sweepDirectory(directory));
+                    cursor = directory;
+                    if (budget <= 0) break;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Error recorriendo el directorio de subidas; se retoma desde {}", cursor, e);
+        }
+
+        if (finished) {
+            logger.info("Recolector de archivos: pasada completa, {} archivos huérfanos borrados ({} KB)",
+                    passDeletedFiles, passDeletedBytes / 1024);
+            cursor = null;
+            passFinishedAt = System.currentTimeMillis();
+            passDeletedFiles = 0;
+            passDeletedBytes = 0;
+        }
+        if (finished || !Objects.equals(startCursor, cursor)) {
+            saveState();
+        }
+        return finished;
+    }
+
+    // ---------- Barrido de un directorio ----------
+
+    /**
+     * Devuelve cuántos archivos había en el directorio (lo que consume del presupuesto del paso).
+     */
+    private int sweepDirectory(String relativeDirectory) throws IOException {
+        Path directory = uploadRoot.resolve(relativeDirectory);
+        List<Path> files = listFiles(directory);
+        long cutoff = System.currentTimeMillis() - minAgeMs;
+
+        if (relativeDirectory.startsWith(LocalFileStorageServiceImpl.BLOB_DIR + "/")) {
+            sweepBlobs(files, cutoff);
+        } else {
+            sweepLegacyPost(relativeDirectory.substring(LEGACY_DIR.length() + 1), directory, files, cutoff);
+        }
+        return files.size();
+    }
+
+    private void sweepBlobs(List<Path> files, long cutoff) throws IOException {
+        // hash -> el original y sus variantes
+        Map<String, List<Path>> byHash = new LinkedHashMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".tmp")) {
+                deleteIfStale(file, cutoff);
+                continue;
+            }
+            Matcher matcher = BLOB_NAME.matcher(name);
+            if (matcher.matches() && isStale(file, cutoff)) {
+                byHash.computeIfAbsent(matcher.group(1), hash -> new ArrayList<>()).add(file);
+            }
+        }
+        if (byHash.isEmpty()) return;
+
+        Set<String> referenced = new HashSet<>(postImageRepository.findReferencedContentHashes(byHash.keySet()));
+        for (Map.Entry<String, List<Path>> entry : byHash.entrySet()) {
+            if (referenced.contains(entry.getKey())) continue;
+            for (Path file : entry.getValue()) {
+                // Se vuelve a mirar la fecha: una subida idéntica la renueva al reutilizar el archivo
+                deleteIfStale(file, cutoff);
+            }
+        }
+    }
+
+    private void sweepLegacyPost(String postDirectory, Path directory, List<Path> files, long cutoff) throws IOException {
+        UUID postId;
+        try {
+            postId = UUID.fromString(postDirectory);
+        } catch (IllegalArgumentException e) {
+            // No lo creó la aplicación: no se toca
+            return;
+        }
+
+        List<Path> stale = new ArrayList<>();
+        for (Path file : files) {
+            if (isStale(file, cutoff)) {
+                stale.add(file);
+            }
+        }
+        if (!stale.isEmpty()) {
+            Set<String> referenced = new HashSet<>();
+            for (Object[] row : postImageRepository.findFileUrlsByPostId(postId)) {
+                for (Object url : row) {
+                    if (url != null) {
+                        String value = (String) url;
+                        referenced.add(value.substring(value.lastIndexOf('/') + 1));
+                    }
+                }
+            }
+            for (Path file : stale) {
+                if (!referenced.contains(file.getFileName().toString())) {
+                    deleteIfStale(file, cutoff);
+                }
+            }
+        }
+
+        try {
+            // Directorio de un post sin imágenes (o borrado): ya no sirve
+            Files.delete(directory);
+        } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+            // Sigue en uso
+        }
+    }
+
+    private boolean isStale(Path file, long cutoff) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toMillis() < cutoff;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void deleteIfStale(Path file, long cutoff) throws IOException {
+        try {
+            if (!isStale(file, cutoff)) return;
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                passDeletedFiles++;
+                passDeletedBytes += size;
+                logger.debug("Archivo huérfano borrado: {}", file);
+            }
+        } catch (NoSuchFileException e) {
+            // Lo borró otro (outbox o una petición) mientras tanto
+        }
+    }
+
+    // ---------- Recorrido ordenado ----------
+
+    /**
+     * Los siguientes directorios hoja después de `after` (null = desde el principio).
+     */
+    private List<String> directoriesAfter(String after) throws IOException {
+        List<String> result = new ArrayList<>();
+
+        for (String first : sortedSubdirectories(uploadRoot.resolve(LocalFileStorageServiceImpl.BLOB_DIR))) {
+            // blobs/tmp es una hoja más: ahí quedan las partes multipart de procesos que se cayeron
+            if (LocalFileStorageServiceImpl.UPLOAD_TMP_DIR.equals(LocalFileStorageServiceImpl.BLOB_DIR + "/" + first)) {
+                String candidate = LocalFileStorageServiceImpl.UPLOAD_TMP_DIR;
+                if (after == null || candidate.compareTo(after) > 0) {
+                    result.add(candidate);
+                    if (result.size() == DIRECTORIES_PER_LISTING) return result;
+                }
+                continue;
+            }
+            if (!SHARD_DIR.matcher(first).matches()) continue;
+            String prefix = LocalFileStorageServiceImpl.BLOB_DIR + "/" + first + "/";
+            if (after != null && after.compareTo(prefix) > 0 && !after.startsWith(prefix)) continue;
+
+            for (String second : sortedSubdirectories(uploadRoot.resolve(prefix))) {
+                String candidate = prefix + second;
+                if (SHARD_DIR.matcher(second).matches() && (after == null || candidate.compareTo(after) > 0)) {
+                    result.add(candidate);
+                    if (result.size() == DIRECTORIES_PER_LISTING) return result;
+                }
+            }
+        }
+
+        for (String postDirectory : sortedSubdirectories(uploadRoot.resolve(LEGACY_DIR))) {
+            String candidate = LEGACY_DIR + "/" + postDirectory;
+            if (after == null || candidate.compareTo(after) > 0) {
+                result.add(candidate);
+                if (result.size() == DIRECTORIES_PER_LISTING) return result;
+            }
+        }
+        return result;
+    }
+
+    private static List<String> sortedSubdirectories(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.filter(Files::isRegularFile).toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    // ---------- Estado persistente ----------
+
+    private void loadState() {
+        Path stateFile = uploadRoot.resolve(STATE_FILE);
+        if (!Files.exists(stateFile)) return;
+
+        Properties state = new Properties();
+        try (InputStream input = Files.newInputStream(stateFile)) {
+            state.load(input);
+            String savedCursor = state.getProperty("cursor", "");
+            cursor = savedCursor.isEmpty() ? null : savedCursor;
+            passFinishedAt = Long.parseLong(state.getProperty("pass-finished-at", "0"));
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("No se pudo leer el estado del recolector de archivos; se empieza una pasada nueva", e);
+        }
+    }
+
+    private void saveState() {
+        Properties state = new Properties();
+        state.setProperty("cursor", cursor != null ? cursor : "");
+        state.setProperty("pass-finished-at", Long.toString(passFinishedAt));
+
+        Path stateFile = uploadRoot.resolve(STATE_FILE);
+        Path tempFile = uploadRoot.resolve(STATE_FILE + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                state.store(output, "Posicion del recolector de archivos huerfanos");
+            }
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar el estado del recolector de archivos", e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+                // Es un .tmp: si queda, no molesta
+            }
+        }
+    }
+}
@@ -14,7 +14,11 @@ import com.dog.repository.PaymentRepository;
 import com.dog.repository.PostRepository;
 import com.dog.repository.UserRepository;
 import com.dog.service.PaymentService;
+import com.dog.service.PostCacheService;
+import com.dog.utils.NdjsonUtil;
 import com.dog.utils.mappers.PaymentMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -24,7 +28,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +41,11 @@ public class PaymentServiceImpl implements PaymentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final PaymentMapper paymentMapper;
+    private final PostCacheService postCacheService;
+
+    // Solo para limpiar el contexto de persistencia entre bloques del streaming
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -99,6 +110,8 @@ public class PaymentServiceImpl implements PaymentService {
         Post post = payment.getInterestRequest().getPost();
         post.setStatus("ALQUILADO");
         postRepository.save(post);
+        // El post deja de estar disponible: caché, catálogo e índices derivados
+        postCacheService.evictPost(post.getId());
 
         Payment confirmedPayment = paymentRepository.save(payment);
 
@@ -176,4 +189,15 @@ public class PaymentServiceImpl implements PaymentService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllPayments(Consumer<PaymentResponse> sink) {
+        try (Stream<Payment> payments = paymentRepository.streamAll()) {
+            NdjsonUtil.forEachChunk(payments, chunk -> {
+                chunk.forEach(payment -> sink.accept(paymentMapper.toResponse(payment)));
+                entityManager.clear();
+            });
+        }
+    }
+
 }
\ No newline at end of file
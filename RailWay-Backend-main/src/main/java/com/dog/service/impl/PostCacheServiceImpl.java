@@ -0,0 +1,51 @@
+package com.dog.service.impl;
+
+import com.dog.configuration.CacheConfig;
+import com.dog.service.PostCacheService;
+import com.dog.service.PostCatalogChangedEvent;
+import com.dog.utils.TransactionUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+public class PostCacheServiceImpl implements PostCacheService {
+
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PostCacheServiceImpl(CacheManager cacheManager, ApplicationEventPublisher eventPublisher) {
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void evictPost(UUID postId) {
+        if (postId == null) return;
+
+        TransactionUtil.afterCommit(() -> {
+            Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+            if (posts != null) {
+                posts.evict(postId);
+            }
+            clearCatalog(postId);
+        });
+    }
+
+    @Override
+    public void evictCatalog() {
+        TransactionUtil.afterCommit(() -> clearCatalog(null));
+    }
+
+    private void clearCatalog(UUID postId) {
+        Cache catalog = cacheManager.getCache(CacheConfig.POST_CATALOG);
+        if (catalog != null) {
+            catalog.clear();
+        }
+        // Avisa a quien derive datos del catálogo (p. ej. el snapshot precomprimido)
+        eventPublisher.publishEvent(new PostCatalogChangedEvent(postId));
+    }
+}
@@ -1,18 +1,35 @@
 package com.dog.service.impl;
 
 import com.dog.dto.request.Post.PostFilterRequest;
+import com.dog.dto.request.Post.PostSortMode;
+import com.dog.dto.response.CursorPageResponse;
+import com.dog.dto.response.PostFacetsResponse;
 import com.dog.dto.response.PostResponse;
+import com.dog.dto.response.RangeBucket;
 import com.dog.entities.Post;
 import com.dog.entities.Room;
+import com.dog.exception.InvalidCursorException;
+import com.dog.exception.InvalidFilterException;
+import com.dog.repository.PostFilterQueryRepository;
 import com.dog.repository.PostRepository;
-import com.dog.repository.ReviewRepository;
+import com.dog.repository.PostSpecifications;
 import com.dog.service.PostFilterService;
+import com.dog.service.PostRatingService;
+import com.dog.service.RoomSpatialIndex;
+import com.dog.utils.CursorUtil;
 import com.dog.utils.GeoDistanceUtil;
 import com.dog.utils.mappers.PostMapper;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,107 +40,229 @@ public class PostFilterServiceImpl implements PostFilterService {
     private static final double UCA_LAT = 13.6824;
     private static final double UCA_LNG = -89.2360;
 
+    private static final String SORT_KEY_SEPARATOR = ":";
+
+    // Ancho de cada barra del histograma de precios ($)
+    private static final double PRICE_BUCKET_WIDTH = 50.0;
+
+    // Límites inferiores de los anillos de distancia (km), igual que en computeFilterFacets
+    private static final double[] DISTANCE_RING_EDGES = {0, 1, 2, 5, 10};
+
+    // Media circunferencia terrestre: un radio mayor ya cubre todo el planeta
+    private static final double MAX_DISTANCE_KM = 20_000.0;
+
     private final PostRepository postRepository;
-    private final ReviewRepository reviewRepository;
+    private final PostRatingService postRatingService;
+    private final RoomSpatialIndex roomSpatialIndex;
 
     public PostFilterServiceImpl(PostRepository postRepository,
-                                 ReviewRepository reviewRepository) {
+                                 PostRatingService postRatingService,
+                                 RoomSpatialIndex roomSpatialIndex) {
         this.postRepository = postRepository;
-        this.reviewRepository = reviewRepository;
+        this.postRatingService = postRatingService;
+        this.roomSpatialIndex = roomSpatialIndex;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<PostResponse> filterPosts(PostFilterRequest filterRequest) {
+    public CursorPageResponse<PostResponse> filterPosts(PostFilterRequest filterRequest) {
 
         Double minPrice = filterRequest.getMinPrice();
         Double maxPrice = filterRequest.getMaxPrice();
-        Double maxDistanceKm = filterRequest.getMaxDistanceKm();
+        Double maxDistanceKm = validDistance(filterRequest.getMaxDistanceKm());
+        int pageSize = CursorUtil.clampPageSize(filterRequest.getSize());
 
-        // 1) Traemos todos los posts (como ya tenés pocos, esto está bien para el proyecto)
-        List<Post> allPosts = postRepository.findAll();
+        // 1) Precio y bounding box se traducen a predicados SQL; la BD solo
+        //    devuelve candidatos que ya cumplen el rango de precio y caen en el rectángulo
+        Specification<Post> filters = buildFilterSpecification(minPrice, maxPrice, maxDistanceKm);
 
-        // 2) Filtramos en memoria según lo que venga en el request
-        List<Post> filtered = allPosts.stream()
-                .filter(post -> filterByPrice(post, minPrice, maxPrice))
-                .filter(post -> filterByDistance(post, maxDistanceKm))
-                .collect(Collectors.toList());
+        // Las distancias exactas salen del índice espacial, que solo visita las celdas
+        // cercanas a la UCA; así no se calcula Haversine por cada post leído
+        Map<UUID, Double> nearbyRooms = maxDistanceKm != null
+                ? roomSpatialIndex.findWithinRadius(UCA_LAT, UCA_LNG, maxDistanceKm)
+                : null;
 
-        // 3) Mapeamos a DTO
-        List<PostResponse> responses = filtered.stream()
-                .map(PostMapper::toDTO)
-                .collect(Collectors.toList());
+        // 2) El orden y el LIMIT los resuelve la BD (top-K), nunca se ordena el conjunto completo
+        PostSortMode sort = filterRequest.getSort() != null ? filterRequest.getSort() : PostSortMode.NEWEST;
+        CursorUtil.Cursor position = CursorUtil.decode(filterRequest.getCursor());
+        Object lastValue = position != null ? parseSortValue(position, sort) : null;
+        UUID lastId = position != null ? position.id() : null;
 
-        // 4) Enriquecer con rating (igual que en PostServiceImpl)
-        enrichPostsWithRating(responses);
+        int chunkSize = pageSize + 1;
+        List<PostFilterQueryRepository.SortedPost> matches = new ArrayList<>(pageSize + 1);
 
-        return responses;
-    }
+        // 3) Leemos por keyset hasta juntar una página (+1 para saber si hay más).
+        //    Solo se descartan las esquinas del rectángulo que quedan fuera del radio,
+        //    así que normalmente basta con una sola vuelta.
+        while (matches.size() <= pageSize) {
+            List<PostFilterQueryRepository.SortedPost> batch = postRepository.findFilteredPage(
+                    filters, sort, UCA_LAT, UCA_LNG, lastValue, lastId, chunkSize);
+            if (batch.isEmpty()) {
+                break;
+            }
 
-    // ---------- Helpers ----------
+            for (PostFilterQueryRepository.SortedPost candidate : batch) {
+                if (filterByDistance(candidate.post(), nearbyRooms)) {
+                    matches.add(candidate);
+                    if (matches.size() > pageSize) {
+                        break;
+                    }
+                }
+            }
 
-    private boolean filterByPrice(Post post, Double minPrice, Double maxPrice) {
-        double price = post.getPrice();
+            PostFilterQueryRepository.SortedPost lastScanned = batch.get(batch.size() - 1);
+            lastValue = lastScanned.sortValue();
+            lastId = lastScanned.post().getId();
 
-        if (minPrice != null && price < minPrice) {
-            return false;
+            if (batch.size() < chunkSize) {
+                break;
+            }
         }
-        if (maxPrice != null && price > maxPrice) {
-            return false;
+
+        boolean hasMore = matches.size() > pageSize;
+        List<PostFilterQueryRepository.SortedPost> page = hasMore ? matches.subList(0, pageSize) : matches;
+
+        // 4) Mapeamos a DTO
+        List<PostResponse> responses = page.stream()
+                .map(candidate -> PostMapper.toDTO(candidate.post()))
+                .collect(Collectors.toList());
+
+        // 5) Rating desde post_rating_stats: una sola consulta para toda la página
+        postRatingService.enrich(responses);
+
+        String nextCursor = null;
+        if (hasMore) {
+            PostFilterQueryRepository.SortedPost last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(sort.name() + SORT_KEY_SEPARATOR + last.sortValue(), last.post().getId());
         }
-        return true;
+
+        return CursorPageResponse.<PostResponse>builder()
+                .items(responses)
+                .size(responses.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
-    private boolean filterByDistance(Post post, Double maxDistanceKm) {
-        if (maxDistanceKm == null) {
-            // No se está filtrando por distancia
-            return true;
+    @Override
+    @Transactional(readOnly = true)
+    public PostFacetsResponse computeFacets(PostFilterRequest filterRequest) {
+        List<Object[]> rows = postRepository.computeFilterFacets(
+                filterRequest.getMinPrice(),
+                filterRequest.getMaxPrice(),
+                validDistance(filterRequest.getMaxDistanceKm()),
+                UCA_LAT,
+                UCA_LNG,
+                PRICE_BUCKET_WIDTH
+        );
+
+        long total = 0;
+        Map<Double, Long> priceCounts = new TreeMap<>();
+        Map<Double, Long> ringCounts = new TreeMap<>();
+        Map<String, Long> bathroomType = new LinkedHashMap<>();
+        Map<String, Long> kitchenType = new LinkedHashMap<>();
+        Map<String, Long> isFurnished = new LinkedHashMap<>();
+        Map<String, Long> amenities = new LinkedHashMap<>();
+
+        for (Object[] row : rows) {
+            String facet = (String) row[0];
+            String bucket = (String) row[1];
+            long count = ((Number) row[2]).longValue();
+
+            if ("total".equals(facet)) {
+                total = count;
+                continue;
+            }
+            if (bucket == null) {
+                // Posts sin ese dato (p. ej. habitación sin amenidades o sin coordenadas)
+                continue;
+            }
+            switch (facet) {
+                case "price" -> priceCounts.put(Double.parseDouble(bucket), count);
+                case "distance" -> ringCounts.put(Double.parseDouble(bucket), count);
+                case "bathroomType" -> bathroomType.put(bucket, count);
+                case "kitchenType" -> kitchenType.put(bucket, count);
+                case "isFurnished" -> isFurnished.put(bucket, count);
+                case "amenity" -> amenities.put(bucket, count);
+                default -> { }
+            }
         }
 
-        Room room = post.getRoom();
-        if (room == null || room.getLat() == null || room.getLng() == null) {
-            // Si no hay coordenadas, por seguridad lo excluimos del filtro por distancia
-            return false;
+        List<RangeBucket> priceHistogram = new ArrayList<>();
+        priceCounts.forEach((from, count) ->
+                priceHistogram.add(new RangeBucket(from, from + PRICE_BUCKET_WIDTH, count)));
+
+        List<RangeBucket> distanceRings = new ArrayList<>();
+        for (int i = 0; i < DISTANCE_RING_EDGES.length; i++) {
+            double from = DISTANCE_RING_EDGES[i];
+            Double to = i + 1 < DISTANCE_RING_EDGES.length ? DISTANCE_RING_EDGES[i + 1] : null;
+            distanceRings.add(new RangeBucket(from, to, ringCounts.getOrDefault(from, 0L)));
         }
 
+        return PostFacetsResponse.builder()
+                .total(total)
+                .priceHistogram(priceHistogram)
+                .distanceRings(distanceRings)
+                .bathroomType(bathroomType)
+                .kitchenType(kitchenType)
+                .isFurnished(isFurnished)
+                .amenities(amenities)
+                .build();
+    }
+
+    // ---------- Helpers ----------
+
+    /**
+     * La clave del cursor es "MODO:valor"; un cursor generado con otro orden no es válido.
+     */
+    private Object parseSortValue(CursorUtil.Cursor position, PostSortMode sort) {
+        String prefix = sort.name() + SORT_KEY_SEPARATOR;
+        if (!position.sortKey().startsWith(prefix)) {
+            throw new InvalidCursorException("El cursor no corresponde al orden solicitado.");
+        }
+        String value = position.sortKey().substring(prefix.length());
         try {
-            double distance = GeoDistanceUtil.distanceInKm(
-                    UCA_LAT,
-                    UCA_LNG,
-                    room.getLat(),
-                    room.getLng()
-            );
-
-            System.out.println("[DEBUG distance] postId=" + post.getId()
-                    + " roomLat=" + room.getLat()
-                    + " roomLng=" + room.getLng()
-                    + " maxDistanceKm=" + maxDistanceKm
-                    + " distance=" + distance);
-
-            return distance <= maxDistanceKm;
-        } catch (Exception e) {
-            // Si de verdad algo raro pasa, que no te tumbe el endpoint
-            e.printStackTrace();
-            // Por ahora lo excluimos del resultado para no romper nada
-            return false;
+            return sort == PostSortMode.NEWEST ? LocalDateTime.parse(value) : Double.valueOf(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido.", e);
         }
     }
 
-    private void enrichPostsWithRating(List<PostResponse> responses) {
-        if (responses == null) return;
-
-        responses.forEach(this::enrichPostWithRating);
+    private Double validDistance(Double maxDistanceKm) {
+        if (maxDistanceKm == null) {
+            return null;
+        }
+        if (!Double.isFinite(maxDistanceKm) || maxDistanceKm <= 0) {
+            throw new InvalidFilterException("maxDistanceKm debe ser un número positivo.");
+        }
+        return Math.min(maxDistanceKm, MAX_DISTANCE_KM);
     }
 
-    private void enrichPostWithRating(PostResponse response) {
-        if (response == null || response.getPostId() == null) return;
+    private Specification<Post> buildFilterSpecification(Double minPrice, Double maxPrice, Double maxDistanceKm) {
+        List<Specification<Post>> predicates = new ArrayList<>();
+
+        if (minPrice != null) {
+            predicates.add(PostSpecifications.priceAtLeast(minPrice));
+        }
+        if (maxPrice != null) {
+            predicates.add(PostSpecifications.priceAtMost(maxPrice));
+        }
+        if (maxDistanceKm != null) {
+            double[] box = GeoDistanceUtil.boundingBox(UCA_LAT, UCA_LNG, maxDistanceKm);
+            predicates.add(PostSpecifications.roomInsideBoundingBox(box[0], box[1], box[2], box[3]));
+        }
 
-        UUID postId = response.getPostId();
+        return Specification.allOf(predicates);
+    }
 
-        Double avg = reviewRepository.findAverageRatingByPostId(postId);
-        long count = reviewRepository.countByPost_Id(postId);
+    private boolean filterByDistance(Post post, Map<UUID, Double> nearbyRooms) {
+        if (nearbyRooms == null) {
+            // No se está filtrando por distancia
+            return true;
+        }
 
-        response.setAverageRating(avg != null ? avg : 0.0);
-        response.setTotalReviews(count);
+        // getRoom().getId() no inicializa el proxy LAZY de Room
+        Room room = post.getRoom();
+        return room != null && nearbyRooms.containsKey(room.getId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,331 @@
+package com.dog.service.impl;
+
+import com.dog.dto.response.MapCluster;
+import com.dog.dto.response.MapPin;
+import com.dog.dto.response.PostMapResponse;
+import com.dog.repository.PostRepository;
+import com.dog.service.PostCatalogChangedEvent;
+import com.dog.service.PostMapIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Las celdas son tiles de Web Mercator (las mismas que usa Google Maps), subdivididas
+ * en 4x4 para que cada cluster ocupe ~64px en pantalla. Para cada zoom por debajo de
+ * pinZoom se guarda un agregado por celda; insertar o quitar un post toca una celda
+ * por nivel. En zoom alto se usa una grilla de pins al nivel pinZoom.
+ */
+@Service
+public class PostMapIndexImpl implements PostMapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostMapIndexImpl.class);
+
+    // Cada tile se divide en 2^2 x 2^2 celdas
+    private static final int CELL_ZOOM_OFFSET = 2;
+    private static final int MAX_ZOOM = 22;
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    private final PostRepository postRepository;
+    private final int pinZoom;
+    private final int maxPins;
+
+    private final Map<UUID, MapPin> pins = new HashMap<>();
+    // clusterLevels.get(z): celda -> agregado, para z en [0, pinZoom)
+    private final List<Map<Long, Cell>> clusterLevels = new ArrayList<>();
+    private final Map<Long, Set<UUID>> pinCells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Agregado de una celda. Los precios se guardan como multiconjunto para poder
+     * recalcular mín/máx al quitar un post sin recorrer la celda.
+     */
+    private static final class Cell {
+        private long count;
+        private double sumLat;
+        private double sumLng;
+        private final TreeMap<Double, Integer> prices = new TreeMap<>();
+    }
+
+    public PostMapIndexImpl(PostRepository postRepository,
+                            @Value("${app.map-index.pin-zoom:15}") int pinZoom,
+                            @Value("${app.map-index.max-pins:2000}") int maxPins) {
+        this.postRepository = postRepository;
+        this.pinZoom = Math.max(1, Math.min(pinZoom, MAX_ZOOM));
+        this.maxPins = maxPins;
+        for (int zoom = 0; zoom < this.pinZoom; zoom++) {
+            clusterLevels.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Carga inicial con todos los posts cuya habitación tiene coordenadas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = postRepository.findAllMapPins();
+        lock.writeLock().lock();
+        try {
+            pins.clear();
+            pinCells.clear();
+            clusterLevels.forEach(Map::clear);
+            for (Object[] row : rows) {
+                insertUnlocked(toPin(row));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice del mapa cargado con {} posts", rows.size());
+    }
+
+    @EventListener
+    public void onCatalogChanged(PostCatalogChangedEvent event) {
+        if (event.postId() != null) {
+            refresh(event.postId());
+        } else {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void upsert(UUID postId, String title, double price, Double lat, Double lng) {
+        if (postId == null) return;
+        if (lat == null || lng == null) {
+            remove(postId);
+            return;
+        }
+
+        MapPin pin = MapPin.builder().postId(postId).title(title).price(price).lat(lat).lng(lng).build();
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(postId);
+            insertUnlocked(pin);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID postId) {
+        if (postId == null) return;
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void refresh(UUID postId) {
+        List<Object[]> rows = postRepository.findMapPinById(postId);
+        if (rows.isEmpty()) {
+            remove(postId);
+            return;
+        }
+        MapPin pin = toPin(rows.get(0));
+        upsert(pin.getPostId(), pin.getTitle(), pin.getPrice(), pin.getLat(), pin.getLng());
+    }
+
+    @Override
+    public PostMapResponse query(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        int clampedZoom = Math.max(0, Math.min(zoom, MAX_ZOOM));
+
+        lock.readLock().lock();
+        try {
+            if (clampedZoom < pinZoom) {
+                return PostMapResponse.builder()
+                        .zoom(clampedZoom)
+                        .clustered(true)
+                        .clusters(clustersInside(clampedZoom, minLat, minLng, maxLat, maxLng))
+                        .pins(List.of())
+                        .build();
+            }
+            return pinsInside(clampedZoom, minLat, minLng, maxLat, maxLng);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pins.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Consultas ----------
+
+    private List<MapCluster> clustersInside(int zoom, double minLat, double minLng, double maxLat, double maxLng) {
+        int gridZoom = zoom + CELL_ZOOM_OFFSET;
+        Map<Long, Cell> level = clusterLevels.get(zoom);
+        List<MapCluster> result = new ArrayList<>();
+
+        forEachCellInside(level, gridZoom, minLat, minLng, maxLat, maxLng, cell -> result.add(MapCluster.builder()
+                .lat(cell.sumLat / cell.count)
+                .lng(cell.sumLng / cell.count)
+                .count(cell.count)
+                .minPrice(cell.prices.firstKey())
+                .maxPrice(cell.prices.lastKey())
+                .build()));
+        return result;
+    }
+
+    private PostMapResponse pinsInside(int zoom, double minLat, double minLng, double maxLat, double maxLng) {
+        List<MapPin> result = new ArrayList<>();
+        boolean[] truncated = {false};
+
+        forEachCellInside(pinCells, pinZoom, minLat, minLng, maxLat, maxLng, postIds -> {
+            for (UUID postId : postIds) {
+                MapPin pin = pins.get(postId);
+                if (pin.getLat() < minLat || pin.getLat() > maxLat
+                        || pin.getLng() < minLng || pin.getLng() > maxLng) {
+                    continue;
+                }
+                if (result.size() >= maxPins) {
+                    truncated[0] = true;
+                    return;
+                }
+                result.add(pin);
+            }
+        });
+
+        return PostMapResponse.builder()
+                .zoom(zoom)
+                .clustered(false)
+                .clusters(List.of())
+                .pins(result)
+                .truncated(truncated[0])
+                .build();
+    }
+
+    /**
+     * Visita las celdas ocupadas que caen en el rectángulo. Si el rango de celdas es
+     * más grande que las celdas ocupadas (zoom muy alejado), recorre solo las ocupadas.
+     */
+    private <T> void forEachCellInside(Map<Long, T> grid, int gridZoom,
+                                       double minLat, double minLng, double maxLat, double maxLng,
+                                       Consumer<T> visitor) {
+        int minX = tileX(minLng, gridZoom);
+        int maxX = tileX(maxLng, gridZoom);
+        // En Mercator la y crece hacia el sur
+        int minY = tileY(maxLat, gridZoom);
+        int maxY = tileY(minLat, gridZoom);
+
+        long rangeSize = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (rangeSize <= grid.size()) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    T cell = grid.get(key(x, y));
+                    if (cell != null) {
+                        visitor.accept(cell);
+                    }
+                }
+            }
+            return;
+        }
+        for (Map.Entry<Long, T> entry : grid.entrySet()) {
+            int x = (int) (entry.getKey() >>> 32);
+            int y = (int) (entry.getKey() & 0xffffffffL);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                visitor.accept(entry.getValue());
+            }
+        }
+    }
+
+    // ---------- Mantenimiento incremental ----------
+
+    private void insertUnlocked(MapPin pin) {
+        pins.put(pin.getPostId(), pin);
+        for (int zoom = 0; zoom < pinZoom; zoom++) {
+            int gridZoom = zoom + CELL_ZOOM_OFFSET;
+            Cell cell = clusterLevels.get(zoom).computeIfAbsent(
+                    key(tileX(pin.getLng(), gridZoom), tileY(pin.getLat(), gridZoom)), k -> new Cell());
+            cell.count++;
+            cell.sumLat += pin.getLat();
+            cell.sumLng += pin.getLng();
+            cell.prices.merge(pin.getPrice(), 1, Integer::sum);
+        }
+        pinCells.computeIfAbsent(key(tileX(pin.getLng(), pinZoom), tileY(pin.getLat(), pinZoom)), k -> new HashSet<>())
+                .add(pin.getPostId());
+    }
+
+    private void removeUnlocked(UUID postId) {
+        MapPin pin = pins.remove(postId);
+        if (pin == null) return;
+
+        for (int zoom = 0; zoom < pinZoom; zoom++) {
+            int gridZoom = zoom + CELL_ZOOM_OFFSET;
+            long cellKey = key(tileX(pin.getLng(), gridZoom), tileY(pin.getLat(), gridZoom));
+            Map<Long, Cell> level = clusterLevels.get(zoom);
+            Cell cell = level.get(cellKey);
+            if (cell == null) continue;
+
+            cell.count--;
+            if (cell.count == 0) {
+                level.remove(cellKey);
+                continue;
+            }
+            cell.sumLat -= pin.getLat();
+            cell.sumLng -= pin.getLng();
+            cell.prices.computeIfPresent(pin.getPrice(), (price, n) -> n > 1 ? n - 1 : null);
+        }
+
+        long pinKey = key(tileX(pin.getLng(), pinZoom), tileY(pin.getLat(), pinZoom));
+        Set<UUID> bucket = pinCells.get(pinKey);
+        if (bucket != null) {
+            bucket.remove(postId);
+            if (bucket.isEmpty()) {
+                pinCells.remove(pinKey);
+            }
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    private static MapPin toPin(Object[] row) {
+        return MapPin.builder()
+                .postId((UUID) row[0])
+                .title((String) row[1])
+                .price(((Number) row[2]).doubleValue())
+                .lat(((Number) row[3]).doubleValue())
+                .lng(((Number) row[4]).doubleValue())
+                .build();
+    }
+
+    private static int tileX(double lng, int zoom) {
+        int n = 1 << zoom;
+        int x = (int) Math.floor((lng + 180.0) / 360.0 * n);
+        return Math.max(0, Math.min(x, n - 1));
+    }
+
+    private static int tileY(double lat, int zoom) {
+        int n = 1 << zoom;
+        double latRad = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(lat, MAX_MERCATOR_LAT)));
+        int y = (int) Math.floor((1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * n);
+        return Math.max(0, Math.min(y, n - 1));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+}
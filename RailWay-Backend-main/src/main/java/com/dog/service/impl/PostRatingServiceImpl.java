@@ -0,0 +1,94 @@
+package com.dog.service.impl;
+
+import com.dog.dto.response.PostResponse;
+import com.dog.entities.PostRatingStats;
+import com.dog.repository.PostRatingStatsRepository;
+import com.dog.service.PostCacheService;
+import com.dog.service.PostRatingService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class PostRatingServiceImpl implements PostRatingService {
+
+    private final PostRatingStatsRepository statsRepository;
+    private final PostCacheService postCacheService;
+
+    public PostRatingServiceImpl(PostRatingStatsRepository statsRepository,
+                                 PostCacheService postCacheService) {
+        this.statsRepository = statsRepository;
+        this.postCacheService = postCacheService;
+    }
+
+    @Override
+    @Transactional
+    public void applyReview(UUID postId, Integer previousRating, int newRating) {
+        if (previousRating != null && previousRating == newRating) {
+            return;
+        }
+
+        long[] stars = new long[6];
+        stars[newRating]++;
+        long sumDelta = newRating;
+        long countDelta = 1;
+
+        if (previousRating != null) {
+            // Actualización: sale la calificación anterior, la cantidad no cambia
+            stars[previousRating]--;
+            sumDelta -= previousRating;
+            countDelta = 0;
+        }
+
+        statsRepository.applyRatingChange(postId, sumDelta, countDelta,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+
+        // El PostResponse cacheado lleva averageRating/totalReviews
+        postCacheService.evictPost(postId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PostRatingStats getStats(UUID postId) {
+        return statsRepository.findById(postId)
+                .orElseGet(() -> PostRatingStats.builder().postId(postId).build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void enrich(List<PostResponse> responses) {
+        if (responses == null || responses.isEmpty()) return;
+
+        List<UUID> postIds = responses.stream()
+                .filter(Objects::nonNull)
+                .map(PostResponse::getPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        Map<UUID, PostRatingStats> statsByPost = statsRepository.findAllById(postIds).stream()
+                .collect(Collectors.toMap(PostRatingStats::getPostId, Function.identity()));
+
+        for (PostResponse response : responses) {
+            if (response == null || response.getPostId() == null) continue;
+            apply(response, statsByPost.get(response.getPostId()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void enrich(PostResponse response) {
+        if (response == null || response.getPostId() == null) return;
+        apply(response, statsRepository.findById(response.getPostId()).orElse(null));
+    }
+
+    private void apply(PostResponse response, PostRatingStats stats) {
+        response.setAverageRating(stats != null ? stats.getRatingAvg() : 0.0);
+        response.setTotalReviews(stats != null ? stats.getRatingCount() : 0L);
+    }
+}
@@ -0,0 +1,100 @@
+package com.dog.service.impl;
+
+import com.dog.dto.response.CursorPageResponse;
+import com.dog.dto.response.PostResponse;
+import com.dog.entities.Post;
+import com.dog.exception.InvalidCursorException;
+import com.dog.repository.PostRepository;
+import com.dog.service.PostRatingService;
+import com.dog.service.PostSearchService;
+import com.dog.utils.CursorUtil;
+import com.dog.utils.mappers.PostMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class PostSearchServiceImpl implements PostSearchService {
+
+    // Evita consultas enormes armadas desde la barra de búsqueda
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final PostRepository postRepository;
+    private final PostRatingService postRatingService;
+
+    public PostSearchServiceImpl(PostRepository postRepository,
+                                 PostRatingService postRatingService) {
+        this.postRepository = postRepository;
+        this.postRatingService = postRatingService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PostResponse> search(String query, String cursor, Integer size) {
+        int pageSize = CursorUtil.clampPageSize(size);
+
+        String q = query != null ? query.trim() : "";
+        if (q.isEmpty()) {
+            return CursorPageResponse.<PostResponse>builder()
+                    .items(List.of())
+                    .size(0)
+                    .hasMore(false)
+                    .build();
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            q = q.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        // 1) La BD resuelve el ranking con los índices GIN y devuelve solo (id, score)
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        List<Object[]> ranked = position == null
+                ? postRepository.searchFirstPage(q, pageSize + 1)
+                : postRepository.searchPageAfter(q, parseScore(position), position.id(), pageSize + 1);
+
+        boolean hasMore = ranked.size() > pageSize;
+        List<Object[]> page = hasMore ? ranked.subList(0, pageSize) : ranked;
+
+        // 2) Cargamos solo los posts de la página y respetamos el orden del ranking
+        List<UUID> ids = page.stream().map(row -> (UUID) row[0]).collect(Collectors.toList());
+        Map<UUID, Post> postsById = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<PostResponse> responses = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Post post = postsById.get(id);
+            if (post != null) {
+                responses.add(PostMapper.toDTO(post));
+            }
+        }
+        postRatingService.enrich(responses);
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(String.valueOf(((Number) last[1]).doubleValue()), (UUID) last[0]);
+        }
+
+        return CursorPageResponse.<PostResponse>builder()
+                .items(responses)
+                .size(responses.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // ---------- Helpers ----------
+
+    private double parseScore(CursorUtil.Cursor position) {
+        try {
+            return Double.parseDouble(position.sortKey());
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido.", e);
+        }
+    }
+}
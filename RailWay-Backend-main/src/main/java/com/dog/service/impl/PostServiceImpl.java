@@ -1,12 +1,16 @@
 package com.dog.service.impl;
 
+import com.dog.configuration.CacheConfig;
 import com.dog.dto.request.Post.PostCreateRequest;
 import com.dog.dto.request.Post.PostUpdateRequest;
+import com.dog.dto.response.CursorPageResponse;
 import com.dog.dto.response.PostResponse;
 import com.dog.entities.Post;
 import com.dog.entities.PostImage;
 import com.dog.entities.Room;
 import com.dog.entities.User;
+import com.dog.exception.DirectUploadUnavailableException;
+import com.dog.exception.InvalidCursorException;
 import com.dog.exception.PostNotFoundException;
 import com.dog.exception.ResourceNotFoundException;
 import com.dog.exception.RoomInUseException;
@@ -14,197 +18,314 @@ import com.dog.exception.UnauthorizedOperationException;
 import com.dog.repository.PostRepository;
 import com.dog.repository.RoomRepository;
 import com.dog.repository.UserRepository;
-import com.dog.repository.ReviewRepository;
+import com.dog.service.DirectUploadService;
+import com.dog.service.FileOutboxService;
 import com.dog.service.FileStorageService;
+import com.dog.service.FileStorageService.StoredFile;
+import com.dog.service.ImageVariantService;
+import com.dog.service.PostCacheService;
+import com.dog.service.PostRatingService;
 import com.dog.service.PostService;
+import com.dog.service.SavedSearchService;
+import com.dog.service.SimilarPostIndex;
+import com.dog.utils.CursorUtil;
+import com.dog.utils.NdjsonUtil;
+import com.dog.utils.TransactionUtil;
 import com.dog.utils.mappers.PostMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PostServiceImpl implements PostService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PostServiceImpl.class);
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final RoomRepository roomRepository;
     private final FileStorageService fileStorageService;
-    private final ReviewRepository reviewRepository;
+    private final FileOutboxService fileOutboxService;
+    // Solo con almacenamiento de objetos (file.storage=s3)
+    private final ObjectProvider<DirectUploadService> directUploadService;
+    private final PostRatingService postRatingService;
+    private final PostCacheService postCacheService;
+    private final SimilarPostIndex similarPostIndex;
+    private final SavedSearchService savedSearchService;
+    private final ImageVariantService imageVariantService;
+    // Alta y edición manejan su transacción a mano para no tenerla abierta mientras se escriben archivos
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Solo para limpiar el contexto de persistencia entre bloques del streaming
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     public PostServiceImpl(PostRepository postRepository,
                            UserRepository userRepository,
                            RoomRepository roomRepository,
                            FileStorageService fileStorageService,
-                           ReviewRepository reviewRepository) {
+                           FileOutboxService fileOutboxService,
+                           ObjectProvider<DirectUploadService> directUploadService,
+                           PostRatingService postRatingService,
+                           PostCacheService postCacheService,
+                           SimilarPostIndex similarPostIndex,
+                           SavedSearchService savedSearchService,
+                           ImageVariantService imageVariantService,
+                           PlatformTransactionManager transactionManager) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.roomRepository = roomRepository;
         this.fileStorageService = fileStorageService;
-        this.reviewRepository = reviewRepository;
-    }
-
-    // ==================== Helpers para rating ====================
-
-    private void enrichPostWithRating(PostResponse response) {
-        if (response == null || response.getPostId() == null) return;
-
-        Double avg = reviewRepository.findAverageRatingByPostId(response.getPostId());
-        long count = reviewRepository.countByPost_Id(response.getPostId());
-
-        response.setAverageRating(avg != null ? avg : 0.0);
-        response.setTotalReviews(count);
-    }
-
-    private void enrichPostsWithRating(List<PostResponse> responses) {
-        if (responses == null) return;
-        responses.forEach(this::enrichPostWithRating);
+        this.fileOutboxService = fileOutboxService;
+        this.directUploadService = directUploadService;
+        this.postRatingService = postRatingService;
+        this.postCacheService = postCacheService;
+        this.similarPostIndex = similarPostIndex;
+        this.savedSearchService = savedSearchService;
+        this.imageVariantService = imageVariantService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     // ==================== Implementación de PostService ====================
 
+    /**
+     * Los archivos se guardan en paralelo y fuera de la transacción: primero se valida (lectura
+     * corta), luego se escriben las imágenes y al final una transacción breve inserta el post.
+     * Si esa transacción no llega a confirmarse, se borran los archivos ya escritos.
+     */
     @Override
-    @Transactional
     public PostResponse createPostForAuthenticatedOwner(PostCreateRequest postRequest,
                                                         MultipartFile[] images,
                                                         String ownerEmail) {
-        User owner = userRepository.findByEmail(ownerEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User (Owner)", "email", ownerEmail));
-        Room room = roomRepository.findById(postRequest.getRoomId())
-                .orElseThrow(() -> new ResourceNotFoundException("Room", "ID", postRequest.getRoomId()));
+        // Una petición rechazada no debe llegar a escribir archivos
+        readOnlyTransaction.executeWithoutResult(status -> loadCreateTarget(postRequest, ownerEmail));
 
-        if (!room.getOwner().getId().equals(owner.getId())) {
-            throw new UnauthorizedOperationException("No tienes permiso para crear un post para una habitación que no te pertenece.");
-        }
+        List<StoredFile> storedImages = storeImages(images, postRequest.getUploadedImages());
 
-        if (postRepository.countByRoomId(postRequest.getRoomId()) > 0) {
-            throw new RoomInUseException("La habitación con ID " + postRequest.getRoomId() + " ya está asociada a otra publicación.");
-        }
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            return transaction.execute(status -> {
+                TransactionUtil.afterCommit(() -> committed.set(true));
 
-        Post newPost = PostMapper.toEntityCreate(postRequest, owner, room);
-        Post tempSavedPost = postRepository.save(newPost);
+                // Se repite la validación: otra petición pudo ocupar la habitación mientras tanto
+                CreateTarget target = loadCreateTarget(postRequest, ownerEmail);
+                Post newPost = PostMapper.toEntityCreate(postRequest, target.owner(), target.room());
+                attachImages(newPost, storedImages);
 
-        if (images != null && images.length > 0) {
-            List<PostImage> postImagesCollection = new ArrayList<>();
-            int displayOrder = 0;
-            for (MultipartFile imageFile : images) {
-                if (imageFile != null && !imageFile.isEmpty()) {
-                    try {
-                        String subfolder = "posts/" + tempSavedPost.getId().toString();
-                        String imageUrl = fileStorageService.storeFile(imageFile, subfolder);
-                        postImagesCollection.add(PostImage.builder()
-                                .imageUrl(imageUrl)
-                                .post(tempSavedPost)
-                                .displayOrder(displayOrder++)
-                                .build());
-                    } catch (IOException e) {
-                        throw new RuntimeException("Fallo al guardar la imagen: " + imageFile.getOriginalFilename(), e);
-                    }
-                }
+                Post finalSavedPost = postRepository.save(newPost);
+                postCacheService.evictPost(finalSavedPost.getId());
+                savedSearchService.postPublished(finalSavedPost.getId());
+                requestImageVariants(finalSavedPost);
+                PostResponse response = PostMapper.toDTO(finalSavedPost);
+                postRatingService.enrich(response);
+                return response;
+            });
+        } catch (RuntimeException e) {
+            if (!committed.get()) {
+                deleteStoredFiles(storedImages);
             }
-            tempSavedPost.setImages(postImagesCollection);
+            throw e;
         }
-
-        Post finalSavedPost = postRepository.save(tempSavedPost);
-        PostResponse response = PostMapper.toDTO(finalSavedPost);
-        enrichPostWithRating(response);
-        return response;
     }
 
+    /**
+     * Mismo esquema que la creación: las imágenes nuevas se escriben antes de abrir la
+     * transacción, y las que se quitan pasan al outbox de archivos dentro de ella.
+     */
     @Override
-    @Transactional
     public PostResponse update(PostUpdateRequest postUpdateRequest,
                                MultipartFile[] newImages,
                                UserDetails currentUser) {
-        Post existingPost = postRepository.findById(postUpdateRequest.getPostId())
-                .orElseThrow(() -> new PostNotFoundException("Post no encontrado para actualizar con ID: " + postUpdateRequest.getPostId()));
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        if (!existingPost.getOwner().getEmail().equals(currentUser.getUsername()) && !isAdmin) {
-            throw new UnauthorizedOperationException("No tienes permiso para editar este post.");
-        }
+        UUID postId = postUpdateRequest.getPostId();
+        readOnlyTransaction.executeWithoutResult(status -> loadEditablePost(postId, currentUser));
 
-        existingPost.setTitle(postUpdateRequest.getTitle());
-        existingPost.setPrice(postUpdateRequest.getPrice());
-        existingPost.setStatus(postUpdateRequest.getStatus());
-        existingPost.setMinimumLeaseTerm(postUpdateRequest.getMinimumLeaseTerm());
-        existingPost.setMaximumLeaseTerm(postUpdateRequest.getMaximumLeaseTerm());
-        existingPost.setSecurityDeposit(postUpdateRequest.getSecurityDeposit());
-
-        if (postUpdateRequest.getImagesToDelete() != null && !postUpdateRequest.getImagesToDelete().isEmpty()) {
-            List<PostImage> imagesToRemove = new ArrayList<>();
-            for (String urlToDelete : postUpdateRequest.getImagesToDelete()) {
-                existingPost.getImages().stream()
-                        .filter(img -> img.getImageUrl().equals(urlToDelete))
-                        .findFirst()
-                        .ifPresent(imagesToRemove::add);
-            }
-            imagesToRemove.forEach(image -> {
-                try {
-                    existingPost.getImages().remove(image);
-                    fileStorageService.deleteFile(image.getImageUrl());
-                } catch (IOException e) {
-                    System.err.println("Error al eliminar el archivo físico de la imagen: " + image.getImageUrl());
+        List<StoredFile> storedNewImages = storeImages(newImages, postUpdateRequest.getUploadedImages());
+
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            return transaction.execute(status -> {
+                TransactionUtil.afterCommit(() -> committed.set(true));
+
+                Post existingPost = loadEditablePost(postId, currentUser);
+                existingPost.setTitle(postUpdateRequest.getTitle());
+                existingPost.setPrice(postUpdateRequest.getPrice());
+                existingPost.setStatus(postUpdateRequest.getStatus());
+                existingPost.setMinimumLeaseTerm(postUpdateRequest.getMinimumLeaseTerm());
+                existingPost.setMaximumLeaseTerm(postUpdateRequest.getMaximumLeaseTerm());
+                existingPost.setSecurityDeposit(postUpdateRequest.getSecurityDeposit());
+
+                if (existingPost.getImages() == null) {
+                    existingPost.setImages(new ArrayList<>());
                 }
-            });
-        }
 
-        if (newImages != null && newImages.length > 0) {
-            if (existingPost.getImages() == null) {
-                existingPost.setImages(new ArrayList<>());
-            }
-            int displayOrder = existingPost.getImages().size();
-            for (MultipartFile imageFile : newImages) {
-                if (imageFile != null && !imageFile.isEmpty()) {
-                    try {
-                        String subfolder = "posts/" + existingPost.getId().toString();
-                        String imageUrl = fileStorageService.storeFile(imageFile, subfolder);
-                        existingPost.getImages().add(PostImage.builder()
-                                .imageUrl(imageUrl)
-                                .post(existingPost)
-                                .displayOrder(displayOrder++)
-                                .build());
-                    } catch (IOException e) {
-                        throw new RuntimeException("Fallo al guardar la nueva imagen: " + imageFile.getOriginalFilename(), e);
+                if (postUpdateRequest.getImagesToDelete() != null && !postUpdateRequest.getImagesToDelete().isEmpty()) {
+                    List<PostImage> imagesToRemove = new ArrayList<>();
+                    for (String urlToDelete : postUpdateRequest.getImagesToDelete()) {
+                        existingPost.getImages().stream()
+                                .filter(img -> img.getImageUrl().equals(urlToDelete))
+                                .findFirst()
+                                .ifPresent(imagesToRemove::add);
                     }
+                    existingPost.getImages().removeAll(imagesToRemove);
+                    // Si la transacción se revierte las imágenes siguen en la BD: sus archivos también
+                    fileOutboxService.enqueueDeletion(imageFileUrls(imagesToRemove));
                 }
+
+                attachImages(existingPost, storedNewImages);
+
+                Post updatedPost = postRepository.save(existingPost);
+                // Agregar o quitar imágenes no ensucia la fila del post; forzamos la nueva versión (ETag)
+                postRepository.touchUpdatedAt(updatedPost.getId());
+                postCacheService.evictPost(updatedPost.getId());
+                savedSearchService.postPublished(updatedPost.getId());
+                requestImageVariants(updatedPost);
+                PostResponse response = PostMapper.toDTO(updatedPost);
+                postRatingService.enrich(response);
+                return response;
+            });
+        } catch (RuntimeException e) {
+            if (!committed.get()) {
+                deleteStoredFiles(storedNewImages);
             }
+            throw e;
         }
-
-        Post updatedPost = postRepository.save(existingPost);
-        PostResponse response = PostMapper.toDTO(updatedPost);
-        enrichPostWithRating(response);
-        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POST_CATALOG, key = "'all'", sync = true)
     public List<PostResponse> findAll() {
         List<PostResponse> responses = postRepository.findAll().stream()
                 .map(PostMapper::toDTO)
                 .collect(Collectors.toList());
-        enrichPostsWithRating(responses);
+        postRatingService.enrich(responses);
         return responses;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POST_CATALOG, key = "'page:' + #cursor + ':' + #size", sync = true)
+    public CursorPageResponse<PostResponse> findPage(String cursor, Integer size) {
+        int pageSize = CursorUtil.clampPageSize(size);
+        // Pedimos un elemento de más solo para saber si hay página siguiente
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        List<Post> posts = position == null
+                ? postRepository.findCatalogFirstPage(limit)
+                : postRepository.findCatalogPageAfter(parseCreatedAt(position), position.id(), limit);
+
+        boolean hasMore = posts.size() > pageSize;
+        List<Post> page = hasMore ? posts.subList(0, pageSize) : posts;
+
+        List<PostResponse> responses = page.stream()
+                .map(PostMapper::toDTO)
+                .collect(Collectors.toList());
+        postRatingService.enrich(responses);
+
+        String nextCursor = null;
+        if (hasMore) {
+            Post last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt().toString(), last.getId());
+        }
+
+        return CursorPageResponse.<PostResponse>builder()
+                .items(responses)
+                .size(responses.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamCatalog(Consumer<PostResponse> sink) {
+        try (Stream<Post> posts = postRepository.streamCatalog()) {
+            NdjsonUtil.forEachChunk(posts, chunk -> {
+                List<PostResponse> responses = chunk.stream()
+                        .map(PostMapper::toDTO)
+                        .collect(Collectors.toList());
+                // Una consulta de rating por bloque, no por post
+                postRatingService.enrich(responses);
+                responses.forEach(sink);
+                entityManager.clear();
+            });
+        }
+    }
+
+    private LocalDateTime parseCreatedAt(CursorUtil.Cursor position) {
+        try {
+            return LocalDateTime.parse(position.sortKey());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido.", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "#id", sync = true)
     public PostResponse findById(UUID id) {
         PostResponse response = postRepository.findById(id)
                 .map(PostMapper::toDTO)
                 .orElseThrow(() -> new PostNotFoundException("Post no encontrado con ID: " + id));
-        enrichPostWithRating(response);
+        postRatingService.enrich(response);
         return response;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostResponse> findSimilar(UUID id, int limit) {
+        List<UUID> ids = similarPostIndex.findSimilar(id, limit);
+        if (ids.isEmpty() && !postRepository.existsById(id)) {
+            throw new PostNotFoundException("Post no encontrado con ID: " + id);
+        }
+
+        // Una sola consulta para todos y respetando el orden de similitud
+        Map<UUID, Post> postsById = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostResponse> responses = new ArrayList<>(ids.size());
+        for (UUID similarId : ids) {
+            Post post = postsById.get(similarId);
+            if (post != null) {
+                responses.add(PostMapper.toDTO(post));
+            }
+        }
+        postRatingService.enrich(responses);
+        return responses;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PostResponse> findPostsByCurrentUser(String email) {
@@ -215,7 +336,7 @@ public class PostServiceImpl implements PostService {
         List<PostResponse> responses = userPosts.stream()
                 .map(PostMapper::toDTO)
                 .collect(Collectors.toList());
-        enrichPostsWithRating(responses);
+        postRatingService.enrich(responses);
         return responses;
     }
 
@@ -228,7 +349,7 @@ public class PostServiceImpl implements PostService {
         List<PostResponse> responses = postRepository.findByOwnerId(ownerId).stream()
                 .map(PostMapper::toDTO)
                 .collect(Collectors.toList());
-        enrichPostsWithRating(responses);
+        postRatingService.enrich(responses);
         return responses;
     }
 
@@ -242,15 +363,130 @@ public class PostServiceImpl implements PostService {
         if (!post.getOwner().getEmail().equals(currentUser.getUsername()) && !isAdmin) {
             throw new UnauthorizedOperationException("No tienes permiso para eliminar este post.");
         }
+        // Los archivos se borran desde el outbox, después del commit: antes, las filas del post aún
+        // cuentan como referencias del contenido compartido y un rollback dejaría imágenes sin archivo
         if (post.getImages() != null) {
-            for (PostImage image : new ArrayList<>(post.getImages())) {
-                try {
-                    fileStorageService.deleteFile(image.getImageUrl());
-                } catch (IOException e) {
-                    System.err.println("Error al eliminar archivo físico " + image.getImageUrl() + ": " + e.getMessage());
+            fileOutboxService.enqueueDeletion(imageFileUrls(post.getImages()));
+        }
+        postRepository.delete(post);
+        postCacheService.evictPost(id);
+    }
+
+    /**
+     * Tras el commit (las imágenes ya tienen id) manda a generar las variantes que falten.
+     * El redimensionado corre en el executor de ImageVariantService, fuera del hilo de la petición.
+     */
+    private void requestImageVariants(Post post) {
+        TransactionUtil.afterCommit(() -> {
+            if (post.getImages() == null) return;
+
+            Map<UUID, String> pending = new LinkedHashMap<>();
+            for (PostImage image : post.getImages()) {
+                if (image.getId() != null && image.getVariantsStatus() == null) {
+                    pending.put(image.getId(), image.getImageUrl());
                 }
             }
+            imageVariantService.submit(post.getId(), pending);
+        });
+    }
+
+    // ---------- Alta y edición: validación e imágenes ----------
+
+    private record CreateTarget(User owner, Room room) {
+    }
+
+    private CreateTarget loadCreateTarget(PostCreateRequest postRequest, String ownerEmail) {
+        User owner = userRepository.findByEmail(ownerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User (Owner)", "email", ownerEmail));
+        Room room = roomRepository.findById(postRequest.getRoomId())
+                .orElseThrow(() -> new ResourceNotFoundException("Room", "ID", postRequest.getRoomId()));
+
+        if (!room.getOwner().getId().equals(owner.getId())) {
+            throw new UnauthorizedOperationException("No tienes permiso para crear un post para una habitación que no te pertenece.");
+        }
+
+        if (postRepository.countByRoomId(postRequest.getRoomId()) > 0) {
+            throw new RoomInUseException("La habitación con ID " + postRequest.getRoomId() + " ya está asociada a otra publicación.");
+        }
+        return new CreateTarget(owner, room);
+    }
+
+    private Post loadEditablePost(UUID postId, UserDetails currentUser) {
+        Post existingPost = postRepository.findById(postId)
+                .orElseThrow(() -> new PostNotFoundException("Post no encontrado para actualizar con ID: " + postId));
+        boolean isAdmin = currentUser.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+        if (!existingPost.getOwner().getEmail().equals(currentUser.getUsername()) && !isAdmin) {
+            throw new UnauthorizedOperationException("No tienes permiso para editar este post.");
+        }
+        return existingPost;
+    }
+
+    /**
+     * Imágenes recibidas como multipart más las ya subidas directo al almacenamiento (solo se
+     * verifican y se mueven a su clave definitiva). Si alguna falla se borran las demás.
+     */
+    private List<StoredFile> storeImages(MultipartFile[] images, List<String> uploadKeys) {
+        List<StoredFile> stored = new ArrayList<>();
+        if (images != null && images.length > 0) {
+            try {
+                stored.addAll(fileStorageService.storeFiles(images));
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
         }
-        postRepository.delete(post);
+        if (uploadKeys == null || uploadKeys.isEmpty()) {
+            return stored;
+        }
+
+        DirectUploadService directUploads = directUploadService.getIfAvailable();
+        try {
+            if (directUploads == null) {
+                throw new DirectUploadUnavailableException("El almacenamiento actual no admite subidas directas; envía las imágenes con el post.");
+            }
+            for (String uploadKey : new LinkedHashSet<>(uploadKeys)) {
+                stored.add(directUploads.attach(uploadKey));
+            }
+        } catch (IOException e) {
+            deleteStoredFiles(stored);
+            throw new RuntimeException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteStoredFiles(stored);
+            throw e;
+        }
+        return stored;
+    }
+
+    private void attachImages(Post post, List<StoredFile> storedImages) {
+        int displayOrder = post.getImages().size();
+        for (StoredFile storedImage : storedImages) {
+            String imageUrl = storedImage.url();
+            post.getImages().add(PostImage.builder()
+                    .imageUrl(imageUrl)
+                    .contentHash(fileStorageService.contentHash(imageUrl))
+                    .post(post)
+                    .displayOrder(displayOrder++)
+                    .build());
+        }
+    }
+
+    // El original y sus variantes (la tarjeta y el detalle pueden ser el mismo archivo)
+    private static Set<String> imageFileUrls(List<PostImage> images) {
+        Set<String> urls = new LinkedHashSet<>();
+        for (PostImage image : images) {
+            Stream.of(image.getImageUrl(), image.getThumbUrl(), image.getCardUrl(), image.getDetailUrl())
+                    .filter(Objects::nonNull)
+                    .forEach(urls::add);
+        }
+        return urls;
+    }
+
+    /**
+     * Deshace storeImages cuando el post no se guardó: no hay transacción a la que atar el
+     * outbox, así que se descartan en el momento. Solo se borran los archivos que esta petición
+     * creó y que nada más usa; los reutilizados de otra subida quedan (ver FileStorageService.discardFiles).
+     */
+    private void deleteStoredFiles(List<StoredFile> storedFiles) {
+        fileStorageService.discardFiles(storedFiles);
     }
 }
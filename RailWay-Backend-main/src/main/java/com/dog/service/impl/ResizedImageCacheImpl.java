@@ -0,0 +1,404 @@
+package com.dog.service.impl;
+
+import com.dog.service.ResizedImageCache;
+import com.dog.utils.ImageResizeUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Caché en disco de las versiones redimensionadas. Cada versión se nombra por el hash de
+ * (archivo original, tamaño, fecha de modificación, ancho, formato): si el original se
+ * reemplaza, la versión vieja deja de pedirse y sale por LRU.
+ *
+ * El índice (orden de acceso, bytes y aciertos por entrada) vive en memoria y al arrancar se
+ * reconstruye desde el directorio, con la fecha de modificación como orden aproximado. Los
+ * aciertos, fallos y conversiones rechazadas por saturación se publican en
+ * /actuator/metrics/image.resize.cache.
+ */
+@Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "local", matchIfMissing = true)
+public class ResizedImageCacheImpl implements ResizedImageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResizedImageCacheImpl.class);
+
+    private static final float QUALITY = 0.8f;
+    private static final String JPEG = "image/jpeg";
+    // Preferencia del servidor cuando el cliente acepta varios: el más liviano primero
+    private static final List<String> NEGOTIABLE = List.of("image/avif", "image/webp", JPEG);
+    private static final Map<String, String> EXTENSIONS = Map.of("image/avif", ".avif", "image/webp", ".webp", JPEG, ".jpg");
+    // Anchos de originales recordados (leer la cabecera es abrir el archivo en cada petición)
+    private static final int SOURCE_WIDTHS = 4096;
+
+    private static final class Entry {
+        private final Path file;
+        private final long size;
+        private long hits;
+
+        private Entry(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final int maxWidth;
+    private final int widthStep;
+    // Formatos que se pueden generar (JPEG siempre; WebP/AVIF si hay plugin de ImageIO)
+    private final List<String> encodable;
+    // Conversiones simultáneas: decodificar y reducir es CPU y memoria
+    private final Semaphore transcodes;
+    // Cuánto espera una petición por un lugar para convertir antes de servir el original
+    private final long waitMs;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter busyCounter;
+
+    // Orden de acceso: el primero es el menos usado recientemente
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    // Una sola conversión por versión: las peticiones simultáneas esperan el mismo resultado
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    // (original, tamaño, fecha de modificación) -> ancho en píxeles, -1 si no se puede decodificar
+    private final Map<String, Integer> sourceWidths = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > SOURCE_WIDTHS;
+        }
+    };
+
+    public ResizedImageCacheImpl(@Value("${app.image-resize.cache-dir:./resize_cache}") String cacheDir,
+                                 @Value("${app.image-resize.cache-max-bytes:536870912}") long maxBytes,
+                                 @Value("${app.image-resize.max-width:2400}") int maxWidth,
+                                 @Value("${app.image-resize.width-step:16}") int widthStep,
+                                 @Value("${app.image-resize.max-concurrent:2}") int maxConcurrent,
+                                 @Value("${app.image-resize.wait-ms:2000}") long waitMs,
+                                 MeterRegistry meterRegistry) {
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.widthStep = Math.max(1, widthStep);
+        this.maxWidth = Math.max(this.widthStep, maxWidth);
+        this.transcodes = new Semaphore(Math.max(1, maxConcurrent));
+        this.waitMs = Math.max(0, waitMs);
+
+        this.encodable = NEGOTIABLE.stream()
+                .filter(type -> type.equals(JPEG) || ImageResizeUtil.canEncode(type))
+                .toList();
+        logger.info("Redimensionado a pedido en: {}", encodable);
+
+        try {
+            Files.createDirectories(this.cacheDir);
+            loadIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar la caché de imágenes redimensionadas", e);
+        }
+
+        this.hitCounter = Counter.builder("image.resize.cache").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("image.resize.cache").tag("result", "miss").register(meterRegistry);
+        this.busyCounter = Counter.builder("image.resize.cache").tag("result", "busy").register(meterRegistry);
+        Gauge.builder("image.resize.cache.bytes", this, ResizedImageCacheImpl::cachedBytes).register(meterRegistry);
+    }
+
+    @Override
+    public Format negotiate(String format, String accept) {
+        String requested = requestedType(format);
+        return requested != null
+                ? new Format(requested, false)
+                : new Format(acceptedType(accept), encodable.size() > 1);
+    }
+
+    @Override
+    public Variant resolve(Path source, BasicFileAttributes attributes, int width, String format, String accept)
+            throws IOException {
+        String sourceKey = source + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis();
+        int sourceWidth = sourceWidth(source, sourceKey);
+        if (sourceWidth <= 0) {
+            // Formato que ImageIO no decodifica (p. ej. WebP): se sirve el original
+            return null;
+        }
+        // Nunca se amplía: todo ancho mayor que el original es la misma versión
+        int targetWidth = Math.min(sourceWidth,
+                Math.min(maxWidth, (Math.max(1, width) + widthStep - 1) / widthStep * widthStep));
+        Format negotiated = negotiate(format, accept);
+        String contentType = negotiated.contentType();
+        boolean variesByAccept = negotiated.variesByAccept();
+
+        String key = cacheKey(sourceKey + "|" + targetWidth + "|" + contentType);
+
+        Path cached = lookup(key);
+        if (cached != null) {
+            hitCounter.increment();
+            return new Variant(cached, contentType, variesByAccept);
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Otra petición ya la está generando
+            hitCounter.increment();
+            cached = await(running);
+            return cached != null ? new Variant(cached, contentType, variesByAccept) : null;
+        }
+
+        try {
+            // Pudo terminar otra conversión entre la búsqueda y el putIfAbsent
+            cached = lookup(key);
+            if (cached != null) {
+                hitCounter.increment();
+            } else {
+                missCounter.increment();
+                cached = transcode(source, key, targetWidth, contentType);
+            }
+            mine.complete(cached);
+            return cached != null ? new Variant(cached, contentType, variesByAccept) : null;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private double cachedBytes() {
+        synchronized (index) {
+            return totalBytes;
+        }
+    }
+
+    // ---------- Conversión ----------
+
+    private int sourceWidth(Path source, String sourceKey) throws IOException {
+        synchronized (sourceWidths) {
+            Integer known = sourceWidths.get(sourceKey);
+            if (known != null) return known;
+        }
+        int width;
+        try (InputStream input = Files.newInputStream(source)) {
+            width = ImageResizeUtil.readWidth(input);
+        }
+        synchronized (sourceWidths) {
+            sourceWidths.put(sourceKey, width);
+        }
+        return width;
+    }
+
+    /**
+     * null si el original no se decodifica o si no hubo lugar para convertir en waitMs: no se
+     * bloquea un hilo de Tomcat sin límite, se sirve el original y la próxima petición reintenta.
+     */
+    private Path transcode(Path source, String key, int width, String contentType) throws IOException {
+        try {
+            if (!transcodes.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                busyCounter.increment();
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando una conversión");
+        }
+
+        byte[] content;
+        try {
+            BufferedImage image;
+            try (InputStream input = Files.newInputStream(source)) {
+                image = ImageResizeUtil.readDownsampled(input, width);
+            }
+            if (image == null) {
+                // Formato que ImageIO no decodifica (p. ej. WebP): se sirve el original
+                return null;
+            }
+            content = ImageResizeUtil.encode(ImageResizeUtil.resizeToWidth(image, width), contentType, QUALITY);
+        } finally {
+            transcodes.release();
+        }
+
+        // Temporal y renombrado atómico: nunca se sirve un archivo a medio escribir
+        Path target = cacheDir.resolve(key.substring(0, 2)).resolve(key + EXTENSIONS.get(contentType));
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(key + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        register(key, target, content.length);
+        return target;
+    }
+
+    // ---------- Índice LRU ----------
+
+    private Path lookup(String key) {
+        synchronized (index) {
+            Entry entry = index.get(key);
+            if (entry == null) return null;
+            if (!Files.exists(entry.file)) {
+                // Lo borró alguien más: se regenera
+                index.remove(key);
+                totalBytes -= entry.size;
+                return null;
+            }
+            entry.hits++;
+            return entry.file;
+        }
+    }
+
+    private void register(String key, Path file, long size) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (index) {
+            Entry previous = index.put(key, new Entry(file, size));
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += size;
+
+            var eldest = index.entrySet().iterator();
+            while (totalBytes > maxBytes && index.size() > 1 && eldest.hasNext()) {
+                Entry entry = eldest.next().getValue();
+                eldest.remove();
+                totalBytes -= entry.size;
+                evicted.add(entry);
+            }
+        }
+
+        // Los borrados fuera del lock; una respuesta en curso conserva su archivo abierto
+        for (Entry entry : evicted) {
+            try {
+                Files.deleteIfExists(entry.file);
+                logger.debug("Desalojada {} ({} bytes, {} aciertos)", entry.file.getFileName(), entry.size, entry.hits);
+            } catch (IOException e) {
+                logger.warn("No se pudo borrar {} de la caché de imágenes", entry.file, e);
+            }
+        }
+    }
+
+    /**
+     * Reconstruye el índice desde el disco (los más viejos quedan primeros para el LRU) y
+     * borra los temporales de una escritura interrumpida.
+     */
+    private void loadIndex() throws IOException {
+        record Cached(String key, Path file, long size, long lastModified) {
+        }
+        List<Cached> found = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(cacheDir, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) continue;
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                int dot = name.indexOf('.');
+                found.add(new Cached(dot > 0 ? name.substring(0, dot) : name, file,
+                        attributes.size(), attributes.lastModifiedTime().toMillis()));
+            }
+        }
+        found.sort(Comparator.comparingLong(Cached::lastModified));
+        for (Cached cached : found) {
+            register(cached.key(), cached.file(), cached.size());
+        }
+        logger.info("Caché de imágenes redimensionadas: {} archivos, {} bytes", index.size(), totalBytes);
+    }
+
+    // ---------- Negociación ----------
+
+    private String requestedType(String format) {
+        if (format == null) return null;
+        String type = switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "jpg", "jpeg" -> JPEG;
+            case "webp" -> "image/webp";
+            case "avif" -> "image/avif";
+            default -> null;
+        };
+        // Un formato que no se puede generar cae en la negociación por Accept
+        return type != null && encodable.contains(type) ? type : null;
+    }
+
+    /**
+     * El primero de los generables (en orden de preferencia) que el cliente nombra en Accept
+     * con q mayor que 0; JPEG si no nombra ninguno (lo entiende cualquier navegador).
+     */
+    private String acceptedType(String accept) {
+        if (accept == null) return JPEG;
+        List<String> accepted = new ArrayList<>();
+        for (String range : accept.split(",")) {
+            String[] parts = range.trim().split(";");
+            boolean excluded = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        excluded = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        excluded = true;
+                    }
+                }
+            }
+            if (!excluded) {
+                accepted.add(parts[0].trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        for (String type : encodable) {
+            if (accepted.contains(type)) return type;
+        }
+        return JPEG;
+    }
+
+    private static String cacheKey(String description) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(description.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando una conversión");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(e.getCause());
+        }
+    }
+}
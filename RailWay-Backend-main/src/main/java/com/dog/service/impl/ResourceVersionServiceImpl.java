@@ -0,0 +1,80 @@
+package com.dog.service.impl;
+
+import com.dog.repository.PostRepository;
+import com.dog.repository.ReviewRepository;
+import com.dog.repository.RoomRepository;
+import com.dog.service.ResourceVersionService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Service
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+    private final PostRepository postRepository;
+    private final RoomRepository roomRepository;
+    private final ReviewRepository reviewRepository;
+
+    public ResourceVersionServiceImpl(PostRepository postRepository,
+                                      RoomRepository roomRepository,
+                                      ReviewRepository reviewRepository) {
+        this.postRepository = postRepository;
+        this.roomRepository = roomRepository;
+        this.reviewRepository = reviewRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String postTag(UUID postId) {
+        return postRepository.findVersionById(postId)
+                .map(version -> tag("post", postId, version))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String catalogTag(String cursor, Integer size) {
+        // La misma versión da distinto ETag por página
+        return tag("catalog", postRepository.findCatalogVersion(), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String roomTag(UUID roomId) {
+        return roomRepository.findVersionById(roomId)
+                .map(version -> tag("room", roomId, version))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String roomsTag() {
+        return tag("rooms", roomRepository.findAllVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String reviewsTag(UUID postId) {
+        return tag("reviews", postId, reviewRepository.findVersionByPostId(postId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String reviewSummaryTag(UUID postId) {
+        return tag("review-summary", postId, reviewRepository.findVersionByPostId(postId));
+    }
+
+    // ---------- Helpers ----------
+
+    private String tag(String kind, Object... parts) {
+        StringBuilder key = new StringBuilder(kind);
+        for (Object part : parts) {
+            key.append('|').append(part);
+        }
+        // Entre comillas: formato de ETag fuerte
+        return "\"" + kind + "-" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
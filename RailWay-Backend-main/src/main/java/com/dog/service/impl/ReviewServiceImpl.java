@@ -4,6 +4,7 @@ import com.dog.dto.request.Review.ReviewCreateRequest;
 import com.dog.dto.response.Review.ReviewResponse;
 import com.dog.dto.response.Review.ReviewSummaryResponse;
 import com.dog.entities.InterestRequest;
+import com.dog.entities.PostRatingStats;
 import com.dog.entities.Post;
 import com.dog.entities.Review;
 import com.dog.entities.User;
@@ -13,6 +14,7 @@ import com.dog.repository.InterestRequestRepository;
 import com.dog.repository.PostRepository;
 import com.dog.repository.ReviewRepository;
 import com.dog.repository.UserRepository;
+import com.dog.service.PostRatingService;
 import com.dog.service.ReviewService;
 import com.dog.utils.mappers.ReviewMapper;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +34,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final InterestRequestRepository interestRequestRepository;
+    private final PostRatingService postRatingService;
 
     @Override
     @Transactional
@@ -60,11 +63,17 @@ public class ReviewServiceImpl implements ReviewService {
                         .createdAt(LocalDateTime.now())
                         .build());
 
+        // null si la reseña es nueva; se necesita para descontar el valor anterior en los agregados
+        Integer previousRating = review.getId() != null ? review.getRating() : null;
+
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setUpdatedAt(LocalDateTime.now());
 
         Review saved = reviewRepository.save(review);
+
+        // Misma transacción: si falla el upsert de los agregados, tampoco se guarda la reseña
+        postRatingService.applyReview(post.getId(), previousRating, saved.getRating());
         return ReviewMapper.toDTO(saved);
     }
 
@@ -79,12 +88,13 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     @Transactional(readOnly = true)
     public ReviewSummaryResponse getSummaryForPost(UUID postId) {
-        long total = reviewRepository.countByPost_Id(postId);
-        Double avg = reviewRepository.findAverageRatingByPostId(postId);
+        PostRatingStats stats = postRatingService.getStats(postId);
 
         return ReviewSummaryResponse.builder()
-                .totalReviews(total)
-                .averageRating(avg != null ? avg : 0.0)
+                .totalReviews(stats.getRatingCount())
+                .averageRating(stats.getRatingAvg())
+                .starCounts(List.of(stats.getStar1(), stats.getStar2(), stats.getStar3(),
+                        stats.getStar4(), stats.getStar5()))
                 .build();
     }
 }
@@ -9,8 +9,15 @@ import com.dog.exception.*;
 import com.dog.repository.PostRepository;
 import com.dog.repository.RoomRepository;
 import com.dog.repository.UserRepository;
+import com.dog.service.AddressSuggestIndex;
+import com.dog.service.PostCacheService;
 import com.dog.service.RoomService;
+import com.dog.service.RoomSpatialIndex;
+import com.dog.utils.NdjsonUtil;
+import com.dog.utils.TransactionUtil;
 import com.dog.utils.mappers.RoomMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,8 +25,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RoomServiceImpl implements RoomService {
@@ -27,15 +39,27 @@ public class RoomServiceImpl implements RoomService {
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final RoomSpatialIndex roomSpatialIndex;
+    private final PostCacheService postCacheService;
+    private final AddressSuggestIndex addressSuggestIndex;
+
+    // Solo para limpiar el contexto de persistencia entre bloques del streaming
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Value("${google.api.key}")
     private String googleApiKey;
 
     @Autowired
-    public RoomServiceImpl(RoomRepository roomRepository, UserRepository userRepository, PostRepository postRepository) {
+    public RoomServiceImpl(RoomRepository roomRepository, UserRepository userRepository, PostRepository postRepository,
+                           RoomSpatialIndex roomSpatialIndex, PostCacheService postCacheService,
+                           AddressSuggestIndex addressSuggestIndex) {
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.roomSpatialIndex = roomSpatialIndex;
+        this.postCacheService = postCacheService;
+        this.addressSuggestIndex = addressSuggestIndex;
     }
 
     @Override
@@ -52,6 +76,25 @@ public class RoomServiceImpl implements RoomService {
                 .orElseThrow(() -> new RoomNotFoundException("Habitación no encontrada con ID: " + roomId));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomResponse> findNearest(double lat, double lng, int k) {
+        if (!(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) {
+            throw new InvalidFilterException("lat debe estar entre -90 y 90 y lng entre -180 y 180.");
+        }
+        List<UUID> ids = roomSpatialIndex.findNearest(lat, lng, k);
+        if (ids.isEmpty()) return List.of();
+
+        // Se conserva el orden por distancia del índice
+        Map<UUID, Room> rooms = roomRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        return ids.stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .map(RoomMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public RoomResponse save(RoomRequest roomRequest, String ownerEmail) {
@@ -64,7 +107,12 @@ public class RoomServiceImpl implements RoomService {
         }
 
         Room newRoom = RoomMapper.toEntityCreate(roomRequest, owner);
-        return RoomMapper.toDTO(roomRepository.save(newRoom));
+        Room savedRoom = roomRepository.save(newRoom);
+        TransactionUtil.afterCommit(() -> {
+            roomSpatialIndex.upsert(savedRoom.getId(), savedRoom.getLat(), savedRoom.getLng());
+            addressSuggestIndex.upsert(savedRoom.getId(), savedRoom.getAddress());
+        });
+        return RoomMapper.toDTO(savedRoom);
     }
 
     @Override
@@ -84,7 +132,14 @@ public class RoomServiceImpl implements RoomService {
         }
 
         Room roomWithUpdates = RoomMapper.toEntityUpdate(roomUpdateRequest, existingRoom.getOwner());
-        return RoomMapper.toDTO(roomRepository.save(roomWithUpdates));
+        Room savedRoom = roomRepository.save(roomWithUpdates);
+        TransactionUtil.afterCommit(() -> {
+            roomSpatialIndex.upsert(savedRoom.getId(), savedRoom.getLat(), savedRoom.getLng());
+            addressSuggestIndex.upsert(savedRoom.getId(), savedRoom.getAddress());
+        });
+        // Los datos de la habitación viajan dentro del PostResponse cacheado
+        postRepository.findIdByRoomId(savedRoom.getId()).ifPresent(postCacheService::evictPost);
+        return RoomMapper.toDTO(savedRoom);
     }
 
     @Override
@@ -104,6 +159,10 @@ public class RoomServiceImpl implements RoomService {
         }
 
         roomRepository.deleteById(roomId);
+        TransactionUtil.afterCommit(() -> {
+            roomSpatialIndex.remove(roomId);
+            addressSuggestIndex.remove(roomId);
+        });
     }
 
     @Override
@@ -121,6 +180,17 @@ public class RoomServiceImpl implements RoomService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<RoomResponse> sink) {
+        try (Stream<Room> rooms = roomRepository.streamAll()) {
+            NdjsonUtil.forEachChunk(rooms, chunk -> {
+                chunk.forEach(room -> sink.accept(RoomMapper.toDTO(room)));
+                entityManager.clear();
+            });
+        }
+    }
+
     private boolean isCoordinatesInSanSalvador(double lat, double lng) {
         double minLat = 13.64;
         double maxLat = 13.73;
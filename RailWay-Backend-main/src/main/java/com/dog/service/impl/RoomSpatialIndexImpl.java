@@ -0,0 +1,276 @@
+package com.dog.service.impl;
+
+import com.dog.repository.RoomRepository;
+import com.dog.service.RoomSpatialIndex;
+import com.dog.utils.GeoDistanceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grilla uniforme en grados: cada celda agrupa las habitaciones cuyo (lat, lng)
+ * cae dentro. Las consultas solo visitan las celdas que tocan el área buscada,
+ * así que el costo depende de la densidad local y no del total de habitaciones.
+ */
+@Service
+public class RoomSpatialIndexImpl implements RoomSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomSpatialIndexImpl.class);
+
+    private final RoomRepository roomRepository;
+    private final double cellSizeDeg;
+
+    private final Map<Long, Set<UUID>> cells = new HashMap<>();
+    private final Map<UUID, double[]> positions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RoomSpatialIndexImpl(RoomRepository roomRepository,
+                                @Value("${app.spatial-index.cell-size-deg:0.01}") double cellSizeDeg) {
+        this.roomRepository = roomRepository;
+        this.cellSizeDeg = cellSizeDeg;
+    }
+
+    /**
+     * Carga inicial del índice con todas las habitaciones que tienen coordenadas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = roomRepository.findAllCoordinates();
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            positions.clear();
+            for (Object[] row : rows) {
+                insertUnlocked((UUID) row[0], (Double) row[1], (Double) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice espacial de habitaciones cargado: {} habitaciones", rows.size());
+    }
+
+    @Override
+    public void upsert(UUID roomId, Double lat, Double lng) {
+        if (roomId == null) return;
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(roomId);
+            if (lat != null && lng != null) {
+                insertUnlocked(roomId, lat, lng);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID roomId) {
+        if (roomId == null) return;
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<UUID, Double> findWithinRadius(double lat, double lng, double radiusKm) {
+        if (!(radiusKm > 0)) return new HashMap<>();
+        double[] box = GeoDistanceUtil.boundingBox(lat, lng, radiusKm);
+        long minRow = row(Math.max(box[0], -90.0));
+        long maxRow = row(Math.min(box[1], 90.0));
+        long minCol = col(Math.max(box[2], -180.0));
+        long maxCol = col(Math.min(box[3], 180.0));
+
+        // Juntamos los candidatos de las celdas en arreglos primitivos y calculamos
+        // todas las distancias en un solo lote (la trigonometría del centro se hace una vez)
+        List<UUID> candidates = new ArrayList<>();
+        double[] lats;
+        double[] lngs;
+        lock.readLock().lock();
+        try {
+            long rangeSize = (maxRow - minRow + 1) * (maxCol - minCol + 1);
+            if (rangeSize <= cells.size()) {
+                for (long r = minRow; r <= maxRow; r++) {
+                    for (long c = minCol; c <= maxCol; c++) {
+                        Set<UUID> cell = cells.get(key(r, c));
+                        if (cell != null) {
+                            candidates.addAll(cell);
+                        }
+                    }
+                }
+            } else {
+                // Radio grande: hay más celdas en el rectángulo que celdas ocupadas
+                for (Map.Entry<Long, Set<UUID>> cell : cells.entrySet()) {
+                    long r = cell.getKey() >> 32;
+                    long c = (int) cell.getKey().longValue();
+                    if (r >= minRow && r <= maxRow && c >= minCol && c <= maxCol) {
+                        candidates.addAll(cell.getValue());
+                    }
+                }
+            }
+            lats = new double[candidates.size()];
+            lngs = new double[candidates.size()];
+            for (int i = 0; i < candidates.size(); i++) {
+                double[] pos = positions.get(candidates.get(i));
+                lats[i] = pos[0];
+                lngs[i] = pos[1];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        double[] distances = new double[candidates.size()];
+        GeoDistanceUtil.distancesInKm(lat, lng, lats, lngs, distances);
+
+        Map<UUID, Double> result = new HashMap<>();
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] <= radiusKm) {
+                result.put(candidates.get(i), distances[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<UUID> findNearest(double lat, double lng, int k) {
+        if (k <= 0) return List.of();
+
+        long centerRow = row(lat);
+        long centerCol = col(lng);
+        // Todo lo que está fuera del anillo n queda al menos a n * ringKm del punto
+        double ringKm = Math.min(
+                GeoDistanceUtil.distanceInKm(lat, lng, lat + cellSizeDeg, lng),
+                GeoDistanceUtil.distanceInKm(lat, lng, lat, lng + cellSizeDeg)
+        );
+
+        // Max-heap con los k mejores candidatos vistos hasta ahora
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            int visited = 0;
+            for (long ring = 0; visited < positions.size(); ring++) {
+                if (8 * ring > cells.size()) {
+                    // El anillo tiene más celdas que celdas ocupadas (habitaciones lejanas o muy
+                    // dispersas): se recorren las ocupadas que quedan fuera de lo ya visitado
+                    for (Map.Entry<Long, Set<UUID>> cell : cells.entrySet()) {
+                        long r = cell.getKey() >> 32;
+                        long c = (int) cell.getKey().longValue();
+                        if (Math.max(Math.abs(r - centerRow), Math.abs(c - centerCol)) >= ring) {
+                            offerAll(best, k, cell.getValue(), lat, lng);
+                        }
+                    }
+                    break;
+                }
+
+                // Solo el borde del anillo, el interior ya se visitó
+                long top = centerRow - ring;
+                long bottom = centerRow + ring;
+                for (long c = centerCol - ring; c <= centerCol + ring; c++) {
+                    visited += offerAll(best, k, cells.get(key(top, c)), lat, lng);
+                    if (ring > 0) {
+                        visited += offerAll(best, k, cells.get(key(bottom, c)), lat, lng);
+                    }
+                }
+                for (long r = top + 1; r < bottom; r++) {
+                    visited += offerAll(best, k, cells.get(key(r, centerCol - ring)), lat, lng);
+                    visited += offerAll(best, k, cells.get(key(r, centerCol + ring)), lat, lng);
+                }
+
+                // Ninguna celda fuera de este anillo puede mejorar al peor de los k actuales
+                if (best.size() == k && best.peek().distanceKm() <= ring * ringKm) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        List<UUID> result = new ArrayList<>(ordered.size());
+        for (Candidate candidate : ordered) {
+            result.add(candidate.roomId());
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Helpers (llamar con el lock tomado) ----------
+
+    private record Candidate(UUID roomId, double distanceKm) {
+    }
+
+    // Agrega las habitaciones de la celda al heap de los k mejores; devuelve cuántas miró
+    private int offerAll(PriorityQueue<Candidate> best, int k, Set<UUID> cell, double lat, double lng) {
+        if (cell == null) return 0;
+        for (UUID roomId : cell) {
+            double[] pos = positions.get(roomId);
+            double distance = GeoDistanceUtil.distanceInKm(lat, lng, pos[0], pos[1]);
+            if (best.size() < k) {
+                best.add(new Candidate(roomId, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Candidate(roomId, distance));
+            }
+        }
+        return cell.size();
+    }
+
+    private void insertUnlocked(UUID roomId, double lat, double lng) {
+        positions.put(roomId, new double[]{lat, lng});
+        cells.computeIfAbsent(key(row(lat), col(lng)), k -> new HashSet<>()).add(roomId);
+    }
+
+    private void removeUnlocked(UUID roomId) {
+        double[] old = positions.remove(roomId);
+        if (old == null) return;
+        long cellKey = key(row(old[0]), col(old[1]));
+        Set<UUID> cell = cells.get(cellKey);
+        if (cell != null) {
+            cell.remove(roomId);
+            if (cell.isEmpty()) {
+                cells.remove(cellKey);
+            }
+        }
+    }
+
+    private long row(double lat) {
+        return (long) Math.floor(lat / cellSizeDeg);
+    }
+
+    private long col(double lng) {
+        return (long) Math.floor(lng / cellSizeDeg);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) ^ (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,626 @@
+package com.dog.service.impl;
+
+import com.dog.dto.request.Upload.CompleteUploadRequest;
+import com.dog.dto.request.Upload.DirectUploadRequest;
+import com.dog.dto.request.Upload.UploadedPart;
+import com.dog.dto.response.DirectUploadResponse;
+import com.dog.exception.InvalidImageException;
+import com.dog.exception.InvalidUploadException;
+import com.dog.repository.PostImageRepository;
+import com.dog.service.DirectUploadService;
+import com.dog.service.FileStorageService;
+import com.dog.utils.ImageFormatUtil;
+import com.dog.utils.ParallelStoreUtil;
+import com.dog.utils.S3RequestSigner;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Almacenamiento en S3 o compatible (MinIO en desarrollo) con las mismas claves que el disco
+ * local: blobs/ab/cd/<sha256>.<ext> y las variantes al lado. Las imágenes las lee el navegador
+ * desde el bucket o la CDN (public-base-url), así que varias instancias de la API comparten
+ * los archivos.
+ *
+ * Subidas directas: el navegador hace PUT a una URL prefirmada bajo incoming/ (que no es
+ * pública y que una regla de ciclo de vida del bucket expira) y al crear o editar el post
+ * attach la verifica y la copia dentro del bucket a su clave definitiva. En las de una sola
+ * parte se firma x-amz-checksum-sha256: S3 rechaza el PUT si el contenido no tiene el hash
+ * declarado, así que la clave por contenido es confiable. En las multipart S3 no verifica el
+ * hash del objeto completo; se guardan en uploads/<id>.<ext>, sin deduplicar.
+ */
+@Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "s3")
+public class S3FileStorageServiceImpl implements FileStorageService, DirectUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3FileStorageServiceImpl.class);
+
+    private static final String BLOB_DIR = LocalFileStorageServiceImpl.BLOB_DIR;
+    // Subidas directas sin confirmar
+    private static final String INCOMING_DIR = "incoming";
+    // Subidas multipart ya verificadas (no direccionadas por contenido)
+    private static final String UPLOADS_DIR = "uploads";
+
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(?:[._].*)?");
+    private static final Pattern BLOB_KEY = Pattern.compile(BLOB_DIR + "/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.[a-z]+");
+    // incoming/<id>/<sha256>.<ext> (una parte) e incoming/<id>.<ext> (multipart)
+    private static final Pattern INCOMING_SINGLE = Pattern.compile(INCOMING_DIR + "/([0-9a-f-]{36})/([0-9a-f]{64})\\.[a-z]+");
+    private static final Pattern INCOMING_MULTIPART = Pattern.compile(INCOMING_DIR + "/([0-9a-f-]{36})\\.[a-z]+");
+    private static final Pattern ERROR_CODE = Pattern.compile("<Code>([^<]*)</Code>");
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]*)</UploadId>");
+
+    // Todas las claves son inmutables: por hash o por un id que no se reutiliza
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    // Límites de S3: cada parte salvo la última mide al menos 5 MiB, y hay como mucho 10000
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_PARTS = 10000;
+
+    private record ObjectInfo(long size, long lastModified) {
+    }
+
+    private final PostImageRepository postImageRepository;
+    private final S3RequestSigner signer;
+    private final HttpClient httpClient;
+    private final String bucketUrl;
+    private final String bucket;
+    private final String publicBaseUrl;
+    private final Duration presignTtl;
+    private final long maxUploadBytes;
+    private final long multipartThreshold;
+    private final long partSize;
+    private final long blobGraceMs;
+    private final ExecutorService storeExecutor;
+
+    public S3FileStorageServiceImpl(
+            @Value("${file.s3.endpoint}") String endpoint,
+            @Value("${file.s3.bucket}") String bucket,
+            @Value("${file.s3.region:us-east-1}") String region,
+            @Value("${file.s3.access-key}") String accessKey,
+            @Value("${file.s3.secret-key}") String secretKey,
+            @Value("${file.s3.public-base-url:}") String publicBaseUrl,
+            @Value("${file.s3.presign-ttl-seconds:900}") long presignTtlSeconds,
+            @Value("${file.s3.max-upload-bytes:26214400}") long maxUploadBytes,
+            @Value("${file.s3.multipart-threshold-bytes:8388608}") long multipartThreshold,
+            @Value("${file.s3.part-size-bytes:5242880}") long partSize,
+            @Value("${file.store-threads:8}") int storeThreads,
+            @Value("${file.blob-grace-ms:600000}") long blobGraceMs,
+            PostImageRepository postImageRepository
+    ) {
+        this.postImageRepository = postImageRepository;
+        this.signer = new S3RequestSigner(accessKey, secretKey, region);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        this.bucket = bucket;
+        // Estilo ruta (endpoint/bucket/clave): lo soportan S3, MinIO y los demás compatibles
+        this.bucketUrl = stripTrailingSlash(endpoint) + "/" + S3RequestSigner.uriEncode(bucket, true);
+        this.publicBaseUrl = publicBaseUrl.isBlank() ? this.bucketUrl : stripTrailingSlash(publicBaseUrl);
+        this.presignTtl = Duration.ofSeconds(presignTtlSeconds);
+        this.maxUploadBytes = maxUploadBytes;
+        this.multipartThreshold = Math.max(MIN_PART_SIZE, multipartThreshold);
+        this.partSize = Math.max(MIN_PART_SIZE, partSize);
+        this.blobGraceMs = blobGraceMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.storeExecutor = Executors.newFixedThreadPool(Math.max(1, storeThreads), runnable -> {
+            Thread thread = new Thread(runnable, "file-store-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        storeExecutor.shutdownNow();
+    }
+
+    // ==================== Subidas directas ====================
+
+    @Override
+    public DirectUploadResponse prepare(DirectUploadRequest request) throws IOException {
+        String extension = ImageFormatUtil.extensionForContentType(request.getContentType());
+        if (extension == null) {
+            throw new InvalidImageException("Solo se aceptan imágenes JPEG, PNG, GIF o WebP.");
+        }
+        if (request.getSize() > maxUploadBytes) {
+            throw new InvalidUploadException("La imagen supera el máximo de " + (maxUploadBytes / (1024 * 1024)) + " MB.");
+        }
+        String contentType = ImageFormatUtil.contentType(extension);
+        Instant now = Instant.now();
+
+        if (request.getSize() < multipartThreshold) {
+            if (request.getSha256() == null) {
+                throw new InvalidUploadException("El SHA-256 del archivo es requerido.");
+            }
+            String hash = request.getSha256().toLowerCase();
+            String blobKey = blobKey(hash, extension);
+            if (head(blobKey) != null) {
+                return DirectUploadResponse.builder().uploadKey(blobKey).alreadyStored(true).build();
+            }
+
+            String key = INCOMING_DIR + "/" + UUID.randomUUID() + "/" + hash + extension;
+            // Headers que el navegador tiene que mandar tal cual; Content-Length también va firmado
+            // (lo pone el navegador) para que no se pueda subir un archivo más grande que el declarado
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", contentType);
+            headers.put("x-amz-checksum-sha256", Base64.getEncoder().encodeToString(HexFormat.of().parseHex(hash)));
+            Map<String, String> signedHeaders = new LinkedHashMap<>(headers);
+            signedHeaders.put("Content-Length", String.valueOf(request.getSize()));
+
+            URI uploadUrl = signer.presign("PUT", objectUri(key, null), signedHeaders, presignTtl, now);
+            return DirectUploadResponse.builder()
+                    .uploadKey(key)
+                    .uploadUrl(uploadUrl.toString())
+                    .headers(headers)
+                    .build();
+        }
+
+        String key = INCOMING_DIR + "/" + UUID.randomUUID() + extension;
+        String uploadId = initiateMultipart(key, contentType);
+        long size = request.getSize();
+        long effectivePartSize = Math.max(partSize, (size + MAX_PARTS - 1) / MAX_PARTS);
+        long partCount = (size + effectivePartSize - 1) / effectivePartSize;
+
+        List<String> partUrls = new ArrayList<>((int) partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            String query = "partNumber=" + partNumber + "&uploadId=" + S3RequestSigner.uriEncode(uploadId, true);
+            partUrls.add(signer.presign("PUT", objectUri(key, query), Map.of(), presignTtl, now).toString());
+        }
+        return DirectUploadResponse.builder()
+                .uploadKey(key)
+                .uploadId(uploadId)
+                .partSize(effectivePartSize)
+                .partUrls(partUrls)
+                .build();
+    }
+
+    @Override
+    public void complete(CompleteUploadRequest request) throws IOException {
+        String key = request.getUploadKey();
+        if (!INCOMING_MULTIPART.matcher(key).matches()) {
+            throw new InvalidUploadException("Clave de subida inválida: " + key);
+        }
+
+        StringBuilder body = new StringBuilder("<CompleteMultipartUpload>");
+        request.getParts().stream()
+                .sorted(Comparator.comparingInt(UploadedPart::getPartNumber))
+                .forEach(part -> body.append("<Part><PartNumber>").append(part.getPartNumber())
+                        .append("</PartNumber><ETag>").append(escapeXml(part.getEtag()))
+                        .append("</ETag></Part>"));
+        body.append("</CompleteMultipartUpload>");
+
+        byte[] content = body.toString().getBytes(StandardCharsets.UTF_8);
+        HttpResponse<String> response = send("POST", key, "uploadId=" + S3RequestSigner.uriEncode(request.getUploadId(), true),
+                Map.of("Content-Type", "application/xml"), HttpRequest.BodyPublishers.ofByteArray(content),
+                S3RequestSigner.sha256Hex(content), HttpResponse.BodyHandlers.ofString());
+        // Con 200 S3 todavía puede informar un error en el cuerpo (la respuesta empieza antes de unir las partes)
+        if (response.statusCode() == 400 || response.statusCode() == 404) {
+            throw new InvalidUploadException("No se pudo completar la subida: " + errorCode(response.body()));
+        }
+        expectSuccess(response, "completar la subida " + key);
+    }
+
+    @Override
+    public void abort(String uploadKey, String uploadId) throws IOException {
+        if (uploadKey == null || !INCOMING_MULTIPART.matcher(uploadKey).matches()) {
+            throw new InvalidUploadException("Clave de subida inválida: " + uploadKey);
+        }
+        HttpResponse<String> response = send("DELETE", uploadKey, "uploadId=" + S3RequestSigner.uriEncode(uploadId, true),
+                Map.of(), HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 404) {
+            expectSuccess(response, "cancelar la subida " + uploadKey);
+        }
+    }
+
+    @Override
+    public StoredFile attach(String uploadKey) throws IOException {
+        if (uploadKey == null) {
+            throw new InvalidUploadException("Clave de subida inválida.");
+        }
+        // Contenido que ya estaba guardado (alreadyStored): se marca como reciente, como al deduplicar
+        if (BLOB_KEY.matcher(uploadKey).matches()) {
+            if (!copy(uploadKey, uploadKey)) {
+                throw new InvalidUploadException("La imagen ya no está disponible; vuelve a subirla.");
+            }
+            return new StoredFile(publicUrl(uploadKey), 0);
+        }
+
+        Matcher single = INCOMING_SINGLE.matcher(uploadKey);
+        Matcher multipart = INCOMING_MULTIPART.matcher(uploadKey);
+        boolean isSingle = single.matches();
+        if (!isSingle && !multipart.matches()) {
+            throw new InvalidUploadException("Clave de subida inválida: " + uploadKey);
+        }
+
+        ObjectInfo info = head(uploadKey);
+        if (info == null) {
+            throw new InvalidUploadException("La subida no existe o ya expiró; vuelve a subir la imagen.");
+        }
+        if (info.size() > maxUploadBytes) {
+            deleteQuietly(uploadKey);
+            throw new InvalidUploadException("La imagen supera el máximo de " + (maxUploadBytes / (1024 * 1024)) + " MB.");
+        }
+        // El Content-Type lo declaró el navegador: la extensión sale de los primeros bytes
+        byte[] header = readHeader(uploadKey);
+        String extension = ImageFormatUtil.extension(header, header.length);
+        if (extension == null) {
+            deleteQuietly(uploadKey);
+            throw new InvalidImageException("El archivo subido no es una imagen JPEG, PNG, GIF o WebP.");
+        }
+
+        String targetKey = isSingle
+                ? blobKey(single.group(2), extension)
+                : UPLOADS_DIR + "/" + multipart.group(1) + extension;
+        // Mismo contenido subido entretanto por otro: se reutiliza; si no, copia dentro del bucket
+        if (isSingle && copy(targetKey, targetKey)) {
+            deleteQuietly(uploadKey);
+            return new StoredFile(publicUrl(targetKey), 0);
+        }
+        if (!copy(uploadKey, targetKey)) {
+            throw new InvalidUploadException("La subida no existe o ya expiró; vuelve a subir la imagen.");
+        }
+        deleteQuietly(uploadKey);
+        return created(targetKey);
+    }
+
+    // ==================== FileStorageService ====================
+
+    @Override
+    public String storeFile(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IOException("Fallo al guardar archivo vacío.");
+        }
+        return storeBlob(file).url();
+    }
+
+    private StoredFile storeBlob(MultipartFile file) throws IOException {
+
+        MessageDigest digest = newSha256();
+        String extension;
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            byte[] header = inputStream.readNBytes(ImageFormatUtil.HEADER_BYTES);
+            extension = ImageFormatUtil.extension(header, header.length);
+            if (extension == null) {
+                throw new InvalidImageException("El archivo " + file.getOriginalFilename()
+                        + " no es una imagen JPEG, PNG, GIF o WebP.");
+            }
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        byte[] hash = digest.digest();
+        String key = blobKey(HexFormat.of().formatHex(hash), extension);
+
+        // Reutilizado: se marca como reciente para que deleteFile no lo borre mientras se confirma la fila
+        if (copy(key, key)) {
+            return new StoredFile(publicUrl(key), 0);
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", ImageFormatUtil.contentType(extension));
+        headers.put("Cache-Control", IMMUTABLE);
+        headers.put("x-amz-checksum-sha256", Base64.getEncoder().encodeToString(hash));
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> {
+                    try {
+                        return file.getInputStream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }), file.getSize());
+        expectSuccess(send("PUT", key, null, headers, body, S3RequestSigner.UNSIGNED_PAYLOAD,
+                HttpResponse.BodyHandlers.ofString()), "guardar " + key);
+        return created(key);
+    }
+
+    // Last-Modified del objeto recién creado: si otra subida lo reutiliza (copia sobre sí mismo) cambia
+    private StoredFile created(String key) throws IOException {
+        ObjectInfo info = head(key);
+        return new StoredFile(publicUrl(key), info != null ? info.lastModified() : 0);
+    }
+
+    @Override
+    public List<StoredFile> storeFiles(MultipartFile[] files) throws IOException {
+        return ParallelStoreUtil.storeAll(files, storeExecutor, this::storeBlob, this::discardFiles);
+    }
+
+    /**
+     * Mismas reglas que en el disco local: un blob sin referencias en post_images se borra,
+     * salvo el original escrito o reutilizado hace menos de blobGraceMs (Last-Modified, que
+     * la copia sobre sí mismo renueva).
+     */
+    @Override
+    public void deleteFile(String fileUrl) throws IOException {
+        String key = keyOf(fileUrl);
+        if (key == null) {
+            // No es un archivo de este almacenamiento (p. ej. una URL externa o del disco local)
+            logger.warn("La URL no pertenece al almacenamiento S3, no se elimina: {}", fileUrl);
+            return;
+        }
+
+        String hash = contentHash(fileUrl);
+        if (hash != null) {
+            if (postImageRepository.countByContentHash(hash) > 0) {
+                return;
+            }
+            String fileName = key.substring(key.lastIndexOf('/') + 1);
+            boolean isVariant = fileName.length() > hash.length() && fileName.charAt(hash.length()) == '_';
+            ObjectInfo info = isVariant ? null : head(key);
+            if (info != null && info.lastModified() >= System.currentTimeMillis() - blobGraceMs) {
+                return;
+            }
+        }
+        delete(key);
+    }
+
+    /**
+     * S3 no tiene renombrado atómico: se borra si Last-Modified sigue siendo el de la creación.
+     * Last-Modified tiene resolución de segundos, así que una reutilización en ese mismo segundo
+     * no se distingue.
+     */
+    @Override
+    public void discardFiles(List<StoredFile> files) {
+        for (StoredFile file : files) {
+            if (!file.created()) {
+                continue;
+            }
+            try {
+                String key = keyOf(file.url());
+                String hash = contentHash(file.url());
+                if (key == null || (hash != null && postImageRepository.countByContentHash(hash) > 0)) {
+                    continue;
+                }
+                ObjectInfo info = head(key);
+                if (info != null && info.lastModified() == file.createdAt()) {
+                    delete(key);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("No se pudo descartar {}", file.url(), e);
+            }
+        }
+    }
+
+    @Override
+    public String contentHash(String fileUrl) {
+        String key = keyOf(fileUrl);
+        if (key == null || !key.startsWith(BLOB_DIR + "/")) {
+            return null;
+        }
+        Matcher matcher = BLOB_NAME.matcher(key.substring(key.lastIndexOf('/') + 1));
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    @Override
+    public InputStream openFile(String fileUrl) throws IOException {
+        String key = keyOf(fileUrl);
+        if (key == null) {
+            throw new IOException("La URL no pertenece al almacenamiento S3: " + fileUrl);
+        }
+        HttpResponse<InputStream> response = send("GET", key, null, Map.of(), HttpRequest.BodyPublishers.noBody(),
+                S3RequestSigner.EMPTY_PAYLOAD_SHA256, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 200) {
+            return response.body();
+        }
+        response.body().close();
+        if (response.statusCode() == 404) {
+            throw new FileNotFoundException("No existe el archivo: " + fileUrl);
+        }
+        throw new IOException("S3 respondió " + response.statusCode() + " al leer " + key);
+    }
+
+    @Override
+    public String storeVariant(String originalUrl, String suffix, byte[] content) throws IOException {
+        String originalKey = keyOf(originalUrl);
+        if (originalKey == null) {
+            throw new IOException("La URL no pertenece al almacenamiento S3: " + originalUrl);
+        }
+        int slash = originalKey.lastIndexOf('/');
+        int dot = originalKey.lastIndexOf('.');
+        String variantKey = (dot > slash ? originalKey.substring(0, dot) : originalKey) + suffix;
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", ImageFormatUtil.contentType(suffix.substring(suffix.lastIndexOf('.'))));
+        headers.put("Cache-Control", IMMUTABLE);
+        expectSuccess(send("PUT", variantKey, null, headers, HttpRequest.BodyPublishers.ofByteArray(content),
+                S3RequestSigner.sha256Hex(content), HttpResponse.BodyHandlers.ofString()), "guardar " + variantKey);
+        return publicUrl(variantKey);
+    }
+
+    // ==================== Operaciones S3 ====================
+
+    private String initiateMultipart(String key, String contentType) throws IOException {
+        HttpResponse<String> response = send("POST", key, "uploads", Map.of("Content-Type", contentType),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                HttpResponse.BodyHandlers.ofString());
+        expectSuccess(response, "iniciar la subida " + key);
+        Matcher uploadId = UPLOAD_ID.matcher(response.body());
+        if (!uploadId.find()) {
+            throw new IOException("S3 no devolvió el id de la subida multipart de " + key);
+        }
+        return uploadId.group(1);
+    }
+
+    private ObjectInfo head(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", key, null, Map.of(), HttpRequest.BodyPublishers.noBody(),
+                S3RequestSigner.EMPTY_PAYLOAD_SHA256, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("S3 respondió " + response.statusCode() + " al consultar " + key);
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        long lastModified = response.headers().firstValue("Last-Modified").map(value -> {
+            try {
+                return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return 0L;
+            }
+        }).orElse(0L);
+        return new ObjectInfo(size, lastModified);
+    }
+
+    private byte[] readHeader(String key) throws IOException {
+        HttpResponse<byte[]> response = send("GET", key, null,
+                Map.of("Range", "bytes=0-" + (ImageFormatUtil.HEADER_BYTES - 1)), HttpRequest.BodyPublishers.noBody(),
+                S3RequestSigner.EMPTY_PAYLOAD_SHA256, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 && response.statusCode() != 206) {
+            throw new IOException("S3 respondió " + response.statusCode() + " al leer " + key);
+        }
+        return response.body();
+    }
+
+    /**
+     * Copia dentro del bucket, sin pasar los bytes por aquí; fija Content-Type y Cache-Control
+     * según la clave. Sobre el mismo objeto sirve para renovar su Last-Modified ("touch").
+     * false si el origen no existe.
+     */
+    private boolean copy(String sourceKey, String targetKey) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("x-amz-copy-source", "/" + S3RequestSigner.uriEncode(bucket + "/" + sourceKey, false));
+        headers.put("x-amz-metadata-directive", "REPLACE");
+        headers.put("Content-Type", ImageFormatUtil.contentType(targetKey.substring(targetKey.lastIndexOf('.'))));
+        headers.put("Cache-Control", IMMUTABLE);
+        HttpResponse<String> response = send("PUT", targetKey, null, headers, HttpRequest.BodyPublishers.noBody(),
+                S3RequestSigner.EMPTY_PAYLOAD_SHA256, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        expectSuccess(response, "copiar " + sourceKey);
+        return true;
+    }
+
+    private void delete(String key) throws IOException {
+        HttpResponse<String> response = send("DELETE", key, null, Map.of(), HttpRequest.BodyPublishers.noBody(),
+                S3RequestSigner.EMPTY_PAYLOAD_SHA256, HttpResponse.BodyHandlers.ofString());
+        // 204 también si no existía
+        if (response.statusCode() != 404) {
+            expectSuccess(response, "eliminar " + key);
+        }
+    }
+
+    // Las subidas de incoming/ que queden las expira la regla de ciclo de vida del bucket
+    private void deleteQuietly(String key) {
+        try {
+            delete(key);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar la subida {}", key, e);
+        }
+    }
+
+    private <T> HttpResponse<T> send(String method, String key, String query, Map<String, String> headers,
+                                     HttpRequest.BodyPublisher body, String payloadSha256,
+                                     HttpResponse.BodyHandler<T> handler) throws IOException {
+        URI uri = objectUri(key, query);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMinutes(2))
+                .method(method, body);
+        signer.signHeaders(method, uri, headers, payloadSha256, Instant.now()).forEach(request::header);
+        try {
+            return httpClient.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando a S3");
+        }
+    }
+
+    // El cuerpo puede traer un <Error> aun con 200 (CompleteMultipartUpload, CopyObject)
+    private static void expectSuccess(HttpResponse<String> response, String action) throws IOException {
+        int status = response.statusCode();
+        String body = response.body();
+        if (status / 100 != 2 || (body != null && body.contains("<Error>"))) {
+            throw new IOException("S3 respondió " + status + " (" + errorCode(body) + ") al " + action);
+        }
+    }
+
+    private static String errorCode(String body) {
+        Matcher code = body != null ? ERROR_CODE.matcher(body) : null;
+        return code != null && code.find() ? code.group(1) : "sin detalle";
+    }
+
+    // ---------- Claves y URLs ----------
+
+    private URI objectUri(String key, String query) {
+        return URI.create(bucketUrl + "/" + S3RequestSigner.uriEncode(key, false) + (query != null ? "?" + query : ""));
+    }
+
+    private String publicUrl(String key) {
+        return publicBaseUrl + "/" + key;
+    }
+
+    /**
+     * Clave de una URL generada por este almacenamiento; null si es de otro origen.
+     */
+    private String keyOf(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(publicBaseUrl + "/")) {
+            return null;
+        }
+        String key = fileUrl.substring(publicBaseUrl.length() + 1);
+        int query = key.indexOf('?');
+        if (query >= 0) {
+            key = key.substring(0, query);
+        }
+        for (String segment : key.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return null;
+            }
+        }
+        return key;
+    }
+
+    private static String blobKey(String hash, String extension) {
+        return BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static String escapeXml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
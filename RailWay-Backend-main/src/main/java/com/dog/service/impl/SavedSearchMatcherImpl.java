@@ -0,0 +1,251 @@
+package com.dog.service.impl;
+
+import com.dog.repository.SavedSearchRepository;
+import com.dog.service.SavedSearchMatcher;
+import com.dog.utils.TextNormalizeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dos índices invertidos sobre las búsquedas:
+ *  - por precio: franjas de PRICE_BUCKET_WIDTH; cada búsqueda se anota en las franjas que
+ *    cruza su rango [minPrice, maxPrice].
+ *  - por distancia: anillos de DISTANCE_RING_KM alrededor de la UCA (todas las búsquedas miden
+ *    la distancia desde ahí, así que la celda geográfica se reduce a un anillo); cada búsqueda
+ *    se anota en los anillos hasta su maxDistanceKm.
+ * Un post consulta una sola franja y un solo anillo, recorre la lista más corta de las dos
+ * y solo a esas candidatas les aplica la comprobación completa.
+ */
+@Service
+public class SavedSearchMatcherImpl implements SavedSearchMatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchMatcherImpl.class);
+
+    private static final double PRICE_BUCKET_WIDTH = 25.0;
+    // Franjas hasta $2000; la última recoge todo lo que queda por encima
+    private static final int PRICE_BUCKETS = 80;
+
+    private static final double DISTANCE_RING_KM = 0.5;
+    // Anillos hasta 20 km; el último recoge todo lo que queda más lejos
+    private static final int DISTANCE_RINGS = 40;
+
+    private record Criteria(Double minPrice, Double maxPrice, Double maxDistanceKm, Set<String> amenities) {
+
+        boolean matches(double price, Double distanceKm, Set<String> postAmenities) {
+            if (minPrice != null && price < minPrice) return false;
+            if (maxPrice != null && price > maxPrice) return false;
+            if (maxDistanceKm != null && (distanceKm == null || distanceKm > maxDistanceKm)) return false;
+            return postAmenities.containsAll(amenities);
+        }
+    }
+
+    private final SavedSearchRepository savedSearchRepository;
+
+    private final Map<UUID, Criteria> criteria = new HashMap<>();
+    private final List<Set<UUID>> priceBuckets = newBuckets(PRICE_BUCKETS + 1);
+    private final Set<UUID> anyPrice = new HashSet<>();
+    private final List<Set<UUID>> distanceRings = newBuckets(DISTANCE_RINGS + 1);
+    private final Set<UUID> anyDistance = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SavedSearchMatcherImpl(SavedSearchRepository savedSearchRepository) {
+        this.savedSearchRepository = savedSearchRepository;
+    }
+
+    /**
+     * Carga inicial con todas las búsquedas guardadas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = savedSearchRepository.findAllCriteria();
+        Map<UUID, List<String>> amenitiesBySearch = new HashMap<>();
+        for (Object[] row : savedSearchRepository.findAllAmenities()) {
+            amenitiesBySearch.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            criteria.clear();
+            anyPrice.clear();
+            anyDistance.clear();
+            priceBuckets.forEach(Set::clear);
+            distanceRings.forEach(Set::clear);
+            for (Object[] row : rows) {
+                UUID searchId = (UUID) row[0];
+                insertUnlocked(searchId, new Criteria((Double) row[1], (Double) row[2], (Double) row[3],
+                        normalize(amenitiesBySearch.getOrDefault(searchId, List.of()))));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de búsquedas guardadas cargado: {} búsquedas", rows.size());
+    }
+
+    @Override
+    public void upsert(UUID searchId, Double minPrice, Double maxPrice, Double maxDistanceKm, Collection<String> amenities) {
+        if (searchId == null) return;
+
+        Criteria newCriteria = new Criteria(minPrice, maxPrice, maxDistanceKm, normalize(amenities));
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(searchId);
+            insertUnlocked(searchId, newCriteria);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID searchId) {
+        if (searchId == null) return;
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(searchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> match(double price, Double distanceKm, Collection<String> amenities) {
+        Set<String> postAmenities = normalize(amenities);
+
+        lock.readLock().lock();
+        try {
+            Set<UUID> byPrice = priceBuckets.get(priceBucket(price));
+            // Sin coordenadas solo pueden cumplir las búsquedas sin límite de distancia
+            Set<UUID> byDistance = distanceKm != null ? distanceRings.get(distanceRing(distanceKm)) : Set.of();
+
+            List<UUID> result = new ArrayList<>();
+            if (byPrice.size() + anyPrice.size() <= byDistance.size() + anyDistance.size()) {
+                collect(byPrice, price, distanceKm, postAmenities, result);
+                collect(anyPrice, price, distanceKm, postAmenities, result);
+            } else {
+                collect(byDistance, price, distanceKm, postAmenities, result);
+                collect(anyDistance, price, distanceKm, postAmenities, result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return criteria.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Mantenimiento incremental ----------
+
+    private void insertUnlocked(UUID searchId, Criteria search) {
+        criteria.put(searchId, search);
+
+        if (search.minPrice() == null && search.maxPrice() == null) {
+            anyPrice.add(searchId);
+        } else {
+            for (int bucket : priceBucketRange(search)) {
+                priceBuckets.get(bucket).add(searchId);
+            }
+        }
+
+        if (search.maxDistanceKm() == null) {
+            anyDistance.add(searchId);
+        } else {
+            int lastRing = distanceRing(search.maxDistanceKm());
+            for (int ring = 0; ring <= lastRing; ring++) {
+                distanceRings.get(ring).add(searchId);
+            }
+        }
+    }
+
+    private void removeUnlocked(UUID searchId) {
+        Criteria search = criteria.remove(searchId);
+        if (search == null) return;
+
+        if (search.minPrice() == null && search.maxPrice() == null) {
+            anyPrice.remove(searchId);
+        } else {
+            for (int bucket : priceBucketRange(search)) {
+                priceBuckets.get(bucket).remove(searchId);
+            }
+        }
+
+        if (search.maxDistanceKm() == null) {
+            anyDistance.remove(searchId);
+        } else {
+            int lastRing = distanceRing(search.maxDistanceKm());
+            for (int ring = 0; ring <= lastRing; ring++) {
+                distanceRings.get(ring).remove(searchId);
+            }
+        }
+    }
+
+    private void collect(Set<UUID> candidates, double price, Double distanceKm, Set<String> postAmenities,
+                         List<UUID> result) {
+        for (UUID searchId : candidates) {
+            if (criteria.get(searchId).matches(price, distanceKm, postAmenities)) {
+                result.add(searchId);
+            }
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    private static int[] priceBucketRange(Criteria search) {
+        int first = search.minPrice() != null ? priceBucket(search.minPrice()) : 0;
+        int last = search.maxPrice() != null ? priceBucket(search.maxPrice()) : PRICE_BUCKETS;
+        int[] range = new int[Math.max(0, last - first + 1)];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = first + i;
+        }
+        return range;
+    }
+
+    private static int priceBucket(double price) {
+        return (int) Math.min(PRICE_BUCKETS, Math.max(0, Math.floor(price / PRICE_BUCKET_WIDTH)));
+    }
+
+    private static int distanceRing(double distanceKm) {
+        return (int) Math.min(DISTANCE_RINGS, Math.max(0, Math.floor(distanceKm / DISTANCE_RING_KM)));
+    }
+
+    private static Set<String> normalize(Collection<String> amenities) {
+        Set<String> normalized = new HashSet<>();
+        if (amenities == null) return normalized;
+        for (String amenity : amenities) {
+            String key = TextNormalizeUtil.normalize(amenity);
+            if (!key.isEmpty()) {
+                normalized.add(key);
+            }
+        }
+        return normalized;
+    }
+
+    private static List<Set<UUID>> newBuckets(int count) {
+        List<Set<UUID>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(new HashSet<>());
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,257 @@
+package com.dog.service.impl;
+
+import com.dog.dto.request.SavedSearch.SavedSearchRequest;
+import com.dog.dto.response.SavedSearchResponse;
+import com.dog.entities.SavedSearch;
+import com.dog.entities.User;
+import com.dog.exception.InvalidSavedSearchException;
+import com.dog.exception.ResourceNotFoundException;
+import com.dog.exception.UnauthorizedOperationException;
+import com.dog.repository.PostRepository;
+import com.dog.repository.SavedSearchRepository;
+import com.dog.repository.UserRepository;
+import com.dog.service.EmailService;
+import com.dog.service.SavedSearchMatcher;
+import com.dog.service.SavedSearchService;
+import com.dog.utils.GeoDistanceUtil;
+import com.dog.utils.TransactionUtil;
+import com.dog.utils.mappers.SavedSearchMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Los posts nuevos o editados se encolan en saved_search_queue dentro de su misma transacción
+ * y se procesan en lotes en un hilo propio: cada post se compara solo con las búsquedas candidatas (ver SavedSearchMatcher),
+ * las coincidencias se guardan en saved_search_matches y cada usuario recibe un único correo
+ * con todas sus coincidencias del lote.
+ */
+@Service
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchServiceImpl.class);
+
+    private static final int MAX_SEARCHES_PER_USER = 20;
+
+    // Coordenadas fijas de la UCA (aprox.), mismo origen que PostFilterServiceImpl
+    private static final double UCA_LAT = 13.6824;
+    private static final double UCA_LNG = -89.2360;
+
+    private static final String RENTED_STATUS = "ALQUILADO";
+
+    // Posts que se comparan por lote; los demás esperan al siguiente
+    private static final int MAX_POSTS_PER_BATCH = 500;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final SavedSearchMatcher savedSearchMatcher;
+    private final EmailService emailService;
+    private final String frontendBaseUrl;
+    private final long batchMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saved-search-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SavedSearchServiceImpl(SavedSearchRepository savedSearchRepository,
+                                  UserRepository userRepository,
+                                  PostRepository postRepository,
+                                  SavedSearchMatcher savedSearchMatcher,
+                                  EmailService emailService,
+                                  @Value("${unistay.frontend.base-url:https://uni-stay-software.vercel.app}") String frontendBaseUrl,
+                                  @Value("${app.saved-search.batch-ms:60000}") long batchMs) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.savedSearchMatcher = savedSearchMatcher;
+        this.emailService = emailService;
+        this.frontendBaseUrl = frontendBaseUrl;
+        this.batchMs = batchMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduler.scheduleWithFixedDelay(this::processBatch, batchMs, batchMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public SavedSearchResponse create(SavedSearchRequest request, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "email", userEmail));
+
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice() > request.getMaxPrice()) {
+            throw new InvalidSavedSearchException("El precio mínimo no puede ser mayor que el máximo.");
+        }
+        if (savedSearchRepository.countByUser_Id(user.getId()) >= MAX_SEARCHES_PER_USER) {
+            throw new InvalidSavedSearchException("No puedes tener más de " + MAX_SEARCHES_PER_USER + " búsquedas guardadas.");
+        }
+
+        SavedSearch saved = savedSearchRepository.save(SavedSearchMapper.toEntityCreate(request, user));
+        TransactionUtil.afterCommit(() -> savedSearchMatcher.upsert(saved.getId(), saved.getMinPrice(),
+                saved.getMaxPrice(), saved.getMaxDistanceKm(), saved.getAmenities()));
+        return SavedSearchMapper.toDTO(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SavedSearchResponse> getMySearches(String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "email", userEmail));
+
+        return savedSearchRepository.findByUser_IdOrderByCreatedAtDesc(user.getId()).stream()
+                .map(SavedSearchMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void delete(UUID searchId, String userEmail) {
+        SavedSearch search = savedSearchRepository.findById(searchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Búsqueda guardada", "id", searchId));
+
+        if (!search.getUser().getEmail().equals(userEmail)) {
+            throw new UnauthorizedOperationException("No tienes permiso para eliminar esta búsqueda.");
+        }
+
+        savedSearchRepository.delete(search);
+        TransactionUtil.afterCommit(() -> savedSearchMatcher.remove(searchId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void postPublished(UUID postId) {
+        if (postId != null) {
+            savedSearchRepository.enqueuePost(postId);
+        }
+    }
+
+    // ---------- Lote: comparar posts pendientes y avisar ----------
+
+    private void processBatch() {
+        try {
+            List<Object[]> queued = savedSearchRepository.findQueuedPosts(MAX_POSTS_PER_BATCH);
+
+            // Un único instante para registrar las coincidencias y cortar el lote de correos
+            LocalDateTime cutoff = LocalDateTime.now();
+            int matches = 0;
+            for (Object[] row : queued) {
+                UUID postId = (UUID) row[0];
+                try {
+                    matches += percolate(postId, cutoff);
+                    // Repetir la comparación no duplica nada (insertMatches ignora las existentes),
+                    // así que la fila se saca recién cuando sus coincidencias ya están guardadas
+                    savedSearchRepository.dequeuePost(postId, toLocalDateTime(row[1]));
+                } catch (Exception e) {
+                    logger.warn("No se pudo comparar el post {} con las búsquedas guardadas; queda en la cola", postId, e);
+                }
+            }
+            if (matches > 0) {
+                logger.info("Búsquedas guardadas: {} coincidencias nuevas para {} posts", matches, queued.size());
+            }
+
+            sendPendingNotifications(cutoff);
+        } catch (Exception e) {
+            // El hilo programado se detiene si una ejecución lanza; los posts que no se
+            // alcanzaron a comparar siguen en saved_search_queue para el siguiente lote
+            logger.warn("No se pudo procesar el lote de búsquedas guardadas", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private int percolate(UUID postId, LocalDateTime matchedAt) {
+        // (id, price, securityDeposit, status, available, squareFootage, lat, lng, ...)
+        List<Object[]> rows = postRepository.findSimilarityFeaturesById(postId);
+        if (rows.isEmpty()) return 0;
+
+        Object[] row = rows.get(0);
+        if (!Boolean.TRUE.equals(row[4]) || RENTED_STATUS.equalsIgnoreCase((String) row[3])) {
+            return 0;
+        }
+
+        double price = ((Number) row[1]).doubleValue();
+        Double distanceKm = row[6] != null && row[7] != null
+                ? GeoDistanceUtil.distanceInKm(UCA_LAT, UCA_LNG, ((Number) row[6]).doubleValue(), ((Number) row[7]).doubleValue())
+                : null;
+
+        List<UUID> searchIds = savedSearchMatcher.match(price, distanceKm, postRepository.findAmenitiesById(postId));
+        if (searchIds.isEmpty()) return 0;
+
+        return savedSearchRepository.insertMatches(postId, searchIds, matchedAt);
+    }
+
+    private void sendPendingNotifications(LocalDateTime cutoff) {
+        List<Object[]> rows = savedSearchRepository.findPendingNotifications(cutoff);
+        if (rows.isEmpty()) return;
+
+        // email -> (nombre, líneas del correo); las filas vienen ordenadas por usuario
+        Map<String, String> names = new LinkedHashMap<>();
+        Map<String, List<String>> lines = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String email = (String) row[0];
+            names.putIfAbsent(email, (String) row[1]);
+            lines.computeIfAbsent(email, key -> new ArrayList<>()).add(String.format(Locale.ROOT,
+                    "- %s ($%.2f/mes), búsqueda \"%s\": %s/posts/%s",
+                    row[4], ((Number) row[5]).doubleValue(), row[2], frontendBaseUrl, row[3]));
+        }
+
+        // Se marcan antes de enviar: un fallo de correo no debe repetir el aviso en cada lote
+        savedSearchRepository.markNotified(cutoff);
+
+        lines.forEach((email, userLines) -> {
+            try {
+                sendMatchesEmail(email, names.get(email), userLines);
+            } catch (Exception e) {
+                logger.warn("No se pudo enviar el aviso de búsquedas guardadas a {}", email, e);
+            }
+        });
+    }
+
+    // ---- Email helpers ----
+
+    private void sendMatchesEmail(String toEmail, String name, List<String> matchLines) {
+        String subject = matchLines.size() == 1
+                ? "Hay una habitación nueva para tu búsqueda - UniStay"
+                : "Hay " + matchLines.size() + " habitaciones nuevas para tus búsquedas - UniStay";
+
+        String body =
+                "Hola" + (name != null ? " " + name : "") + ",\n\n" +
+                        "Estas publicaciones cumplen tus búsquedas guardadas:\n\n" +
+                        String.join("\n", matchLines) + "\n\n" +
+                        "Puedes administrar tus búsquedas guardadas desde la página de publicaciones.\n\n" +
+                        "Este mensaje es automático. No respondas a este correo.";
+
+        emailService.sendEmail(toEmail, subject, body);
+    }
+}
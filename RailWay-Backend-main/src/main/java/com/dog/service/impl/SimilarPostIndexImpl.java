@@ -0,0 +1,279 @@
+package com.dog.service.impl;
+
+import com.dog.repository.PostRepository;
+import com.dog.service.PostCatalogChangedEvent;
+import com.dog.service.SimilarPostIndex;
+import com.dog.utils.FeatureDistanceUtil;
+import com.dog.utils.TextNormalizeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Búsqueda exhaustiva sobre un arreglo plano de floats (un vector de DIMS por post).
+ * Con unos miles de posts recorrer todo cuesta microsegundos, sobre todo con el núcleo
+ * vectorial de FeatureDistanceUtil, y a diferencia de un grafo aproximado (HNSW) el
+ * resultado es exacto y las altas/bajas son triviales.
+ *
+ * Cada dimensión se escala para que "una unidad" signifique una diferencia comparable:
+ * $50 de precio, $100 de depósito, 5 m², 2 km de distancia o un atributo distinto.
+ */
+@Service
+public class SimilarPostIndexImpl implements SimilarPostIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarPostIndexImpl.class);
+
+    private static final double PRICE_SCALE = 50.0;
+    private static final double DEPOSIT_SCALE = 100.0;
+    private static final double SQUARE_FOOTAGE_SCALE = 5.0;
+    private static final double COORDINATE_SCALE_KM = 2.0;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    // Valores neutros cuando falta el dato: tamaño típico y la UCA como ubicación
+    private static final double DEFAULT_SQUARE_FOOTAGE = 15.0;
+    private static final double UCA_LAT = 13.6824;
+    private static final double UCA_LNG = -89.2360;
+    private static final double COS_UCA_LAT = Math.cos(Math.toRadians(UCA_LAT));
+
+    // Mismas opciones que RoomForm.jsx
+    private static final List<String> BATHROOM_TYPES = List.of("compartido", "privado");
+    private static final List<String> KITCHEN_TYPES = List.of("compartida", "privada", "en la habitacion", "sin acceso");
+
+    // Las amenidades son texto libre: se reparten por hash en un número fijo de dimensiones
+    private static final int AMENITY_BUCKETS = 20;
+    private static final float AMENITY_WEIGHT = 0.5f;
+
+    private static final int PRICE = 0;
+    private static final int DEPOSIT = 1;
+    private static final int SQUARE_FOOTAGE = 2;
+    private static final int LAT = 3;
+    private static final int LNG = 4;
+    private static final int BATHROOM = 5;
+    private static final int KITCHEN = BATHROOM + BATHROOM_TYPES.size();
+    private static final int FURNISHED = KITCHEN + KITCHEN_TYPES.size();
+    private static final int AMENITIES = FURNISHED + 1;
+    // 32 floats: múltiplo del ancho de los registros SIMD (4, 8 o 16 floats)
+    private static final int DIMS = AMENITIES + AMENITY_BUCKETS;
+
+    private static final String RENTED_STATUS = "ALQUILADO";
+
+    private final PostRepository postRepository;
+
+    // Fila i: vectors[i*DIMS .. (i+1)*DIMS), ids[i], available[i]. Las bajas mueven la última fila al hueco.
+    private float[] vectors = new float[0];
+    private UUID[] ids = new UUID[0];
+    private boolean[] available = new boolean[0];
+    private int count;
+    private final Map<UUID, Integer> rowById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SimilarPostIndexImpl(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Carga inicial con todos los posts y las amenidades de su habitación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = postRepository.findAllSimilarityFeatures();
+        Map<UUID, List<String>> amenitiesByPost = new HashMap<>();
+        for (Object[] row : postRepository.findAllAmenities()) {
+            amenitiesByPost.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            count = 0;
+            rowById.clear();
+            ensureCapacity(rows.size());
+            for (Object[] row : rows) {
+                UUID postId = (UUID) row[0];
+                putUnlocked(postId, isAvailable(row), toVector(row, amenitiesByPost.getOrDefault(postId, List.of())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de posts similares cargado con {} posts", rows.size());
+    }
+
+    @EventListener
+    public void onCatalogChanged(PostCatalogChangedEvent event) {
+        if (event.postId() != null) {
+            refresh(event.postId());
+        } else {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void refresh(UUID postId) {
+        if (postId == null) return;
+
+        List<Object[]> rows = postRepository.findSimilarityFeaturesById(postId);
+        if (rows.isEmpty()) {
+            remove(postId);
+            return;
+        }
+        Object[] row = rows.get(0);
+        float[] vector = toVector(row, postRepository.findAmenitiesById(postId));
+
+        lock.writeLock().lock();
+        try {
+            putUnlocked(postId, isAvailable(row), vector);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID postId) {
+        if (postId == null) return;
+
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(postId);
+            if (row == null) return;
+
+            int last = --count;
+            if (row != last) {
+                System.arraycopy(vectors, last * DIMS, vectors, row * DIMS, DIMS);
+                ids[row] = ids[last];
+                available[row] = available[last];
+                rowById.put(ids[row], row);
+            }
+            ids[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> findSimilar(UUID postId, int k) {
+        if (postId == null || k <= 0) return Collections.emptyList();
+
+        lock.readLock().lock();
+        try {
+            Integer self = rowById.get(postId);
+            if (self == null) return Collections.emptyList();
+
+            float[] query = Arrays.copyOfRange(vectors, self * DIMS, (self + 1) * DIMS);
+            float[] distances = new float[count];
+            FeatureDistanceUtil.squaredDistances(query, vectors, DIMS, distances, count);
+
+            // Top-k con un heap de máximos: la raíz es el peor de los k mejores hasta ahora
+            PriorityQueue<Integer> best = new PriorityQueue<>(k + 1,
+                    (a, b) -> Float.compare(distances[b], distances[a]));
+            for (int i = 0; i < count; i++) {
+                if (i == self || !available[i]) continue;
+                if (best.size() < k) {
+                    best.add(i);
+                } else if (distances[i] < distances[best.peek()]) {
+                    best.poll();
+                    best.add(i);
+                }
+            }
+
+            List<Integer> rows = new ArrayList<>(best);
+            rows.sort((a, b) -> Float.compare(distances[a], distances[b]));
+            List<UUID> result = new ArrayList<>(rows.size());
+            for (int row : rows) {
+                result.add(ids[row]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    private void putUnlocked(UUID postId, boolean isAvailable, float[] vector) {
+        Integer row = rowById.get(postId);
+        if (row == null) {
+            ensureCapacity(count + 1);
+            row = count++;
+            rowById.put(postId, row);
+            ids[row] = postId;
+        }
+        System.arraycopy(vector, 0, vectors, row * DIMS, DIMS);
+        available[row] = isAvailable;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= ids.length) return;
+
+        int capacity = Math.max(rows, Math.max(16, ids.length * 2));
+        vectors = Arrays.copyOf(vectors, capacity * DIMS);
+        ids = Arrays.copyOf(ids, capacity);
+        available = Arrays.copyOf(available, capacity);
+    }
+
+    private static boolean isAvailable(Object[] row) {
+        return Boolean.TRUE.equals(row[4]) && !RENTED_STATUS.equalsIgnoreCase((String) row[3]);
+    }
+
+    /**
+     * row = (id, price, securityDeposit, status, available, squareFootage, lat, lng,
+     * bathroomType, kitchenType, isFurnished), como en PostRepository.findAllSimilarityFeatures.
+     */
+    private static float[] toVector(Object[] row, Collection<String> amenities) {
+        float[] vector = new float[DIMS];
+
+        double price = ((Number) row[1]).doubleValue();
+        double deposit = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
+        double squareFootage = row[5] != null ? ((Number) row[5]).doubleValue() : DEFAULT_SQUARE_FOOTAGE;
+        double lat = row[6] != null ? ((Number) row[6]).doubleValue() : UCA_LAT;
+        double lng = row[7] != null ? ((Number) row[7]).doubleValue() : UCA_LNG;
+
+        vector[PRICE] = (float) (price / PRICE_SCALE);
+        vector[DEPOSIT] = (float) (deposit / DEPOSIT_SCALE);
+        vector[SQUARE_FOOTAGE] = (float) (squareFootage / SQUARE_FOOTAGE_SCALE);
+        // Relativo a la UCA para no perder precisión en float; en km, así lat y lng pesan igual
+        vector[LAT] = (float) ((lat - UCA_LAT) * KM_PER_DEGREE / COORDINATE_SCALE_KM);
+        vector[LNG] = (float) ((lng - UCA_LNG) * KM_PER_DEGREE * COS_UCA_LAT / COORDINATE_SCALE_KM);
+
+        oneHot(vector, BATHROOM, BATHROOM_TYPES, (String) row[8]);
+        oneHot(vector, KITCHEN, KITCHEN_TYPES, (String) row[9]);
+        vector[FURNISHED] = Boolean.TRUE.equals(row[10]) ? 1f : 0f;
+
+        for (String amenity : amenities) {
+            String key = TextNormalizeUtil.normalize(amenity);
+            if (!key.isEmpty()) {
+                vector[AMENITIES + Math.floorMod(key.hashCode(), AMENITY_BUCKETS)] = AMENITY_WEIGHT;
+            }
+        }
+        return vector;
+    }
+
+    private static void oneHot(float[] vector, int offset, List<String> options, String value) {
+        int option = options.indexOf(TextNormalizeUtil.normalize(value));
+        if (option >= 0) {
+            vector[offset + option] = 1f;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.dog.service.impl;
+
+import com.dog.service.ResizedImageCache;
+import com.dog.service.UploadServingService;
+import com.dog.utils.FileResponseUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Los bytes nunca pasan por el heap: los archivos grandes se entregan con el sendfile de Tomcat
+ * (el kernel copia al socket cuando termina la petición) y los chicos (miniaturas, tarjetas)
+ * con FileChannel.transferTo sobre un canal que queda abierto en un LRU, para no pagar un
+ * open/close por cada imagen de la grilla.
+ *
+ * Cada petición hace un stat del archivo: da el Last-Modified y el tamaño, y detecta si el
+ * archivo se borró o se reemplazó, en cuyo caso el canal cacheado se descarta.
+ */
+@Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "local", matchIfMissing = true)
+public class UploadServingServiceImpl implements UploadServingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadServingServiceImpl.class);
+
+    // Los blobs se nombran por su SHA-256: una URL nunca cambia de contenido
+    private static final String BLOB_PREFIX = LocalFileStorageServiceImpl.BLOB_DIR + "/";
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    // Archivos anteriores a los blobs: el nombre no garantiza el contenido, se revalidan (304)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    /**
+     * Canal abierto compartido entre peticiones (transferTo usa lecturas posicionales). Se cierra
+     * cuando sale del LRU y ya no lo usa ninguna petición.
+     */
+    private static final class OpenFile {
+        private final FileChannel channel;
+        private final Object fileKey;
+        private final long size;
+        private final long lastModified;
+        private int users;
+        private boolean evicted;
+
+        private OpenFile(FileChannel channel, BasicFileAttributes attributes) {
+            this.channel = channel;
+            this.fileKey = attributes.fileKey();
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+        }
+
+        // Mismo archivo que el del stat de esta petición (no se borró ni se reemplazó)
+        private boolean isSameFile(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                    && size == attributes.size()
+                    && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+
+        private synchronized boolean retain() {
+            if (evicted) return false;
+            users++;
+            return true;
+        }
+
+        private synchronized void release() {
+            users--;
+            if (evicted && users == 0) {
+                close();
+            }
+        }
+
+        private synchronized void evict() {
+            evicted = true;
+            if (users == 0) {
+                close();
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("No se pudo cerrar un archivo cacheado", e);
+            }
+        }
+    }
+
+    private final Path uploadRoot;
+    private final long sendfileMinBytes;
+    private final Map<Path, OpenFile> openFiles;
+    private final ResizedImageCache resizedImageCache;
+
+    public UploadServingServiceImpl(@Value("${file.upload-dir:./uploads_unistay}") String uploadDir,
+                                    @Value("${file.open-handles:256}") int openHandles,
+                                    @Value("${file.sendfile-min-bytes:49152}") long sendfileMinBytes,
+                                    ResizedImageCache resizedImageCache) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.sendfileMinBytes = sendfileMinBytes;
+        this.resizedImageCache = resizedImageCache;
+
+        int capacity = Math.max(1, openHandles);
+        // Orden de acceso: el primero es el menos usado recientemente
+        this.openFiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, OpenFile> eldest) {
+                if (size() <= capacity) return false;
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (openFiles) {
+            openFiles.values().forEach(OpenFile::evict);
+            openFiles.clear();
+        }
+    }
+
+    @Override
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(relativePath);
+        BasicFileAttributes attributes = file != null ? readAttributes(file) : null;
+        if (attributes == null || !attributes.isRegularFile()) {
+            if (file != null) {
+                invalidate(file);
+            }
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Fuerte: los archivos se reemplazan por renombrado atómico, nunca se modifican en el lugar
+        String originalEtag = Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified);
+        String etag = originalEtag;
+
+        // ?w=400&fmt=webp: versión redimensionada desde la caché; si no se puede, va el original.
+        // Los validadores salen del original, el ancho y el formato, así un 304 no genera la versión
+        int width = 0;
+        ResizedImageCache.Format format = null;
+        String widthParam = request.getParameter("w");
+        if (widthParam != null) {
+            width = parseWidth(widthParam);
+            if (width <= 0) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            format = resizedImageCache.negotiate(request.getParameter("fmt"), request.getHeader(HttpHeaders.ACCEPT));
+            if (format.variesByAccept()) {
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            etag += "-w" + width + "-" + MediaType.parseMediaType(format.contentType()).getSubtype();
+        }
+        etag = "\"" + etag + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                (relativePath.startsWith(BLOB_PREFIX) ? IMMUTABLE : REVALIDATE).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // 304 (If-None-Match / If-Modified-Since) o 412 (If-Match / If-Unmodified-Since)
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        String contentType = null;
+        if (format != null) {
+            ResizedImageCache.Variant variant = null;
+            BasicFileAttributes variantAttributes = null;
+            // Dos intentos: la caché pudo desalojar la versión entre que la devolvió y el stat
+            for (int attempt = 0; attempt < 2 && variantAttributes == null; attempt++) {
+                variant = resizedImageCache.resolve(file, attributes, width,
+                        request.getParameter("fmt"), request.getHeader(HttpHeaders.ACCEPT));
+                if (variant == null) break;
+                variantAttributes = readAttributes(variant.file());
+            }
+            if (variant != null && variantAttributes != null) {
+                file = variant.file();
+                attributes = variantAttributes;
+                contentType = variant.contentType();
+            } else {
+                // Va el original: con sus propios validadores y sin immutable, para que ni el
+                // navegador ni una CDN lo guarden como la versión (la conversión pudo estar saturada)
+                etag = "\"" + originalEtag + "\"";
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+            }
+        }
+        long size = attributes.size();
+
+        if (contentType == null) {
+            contentType = request.getServletContext().getMimeType(file.getFileName().toString());
+        }
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long end = size;
+        long[] range = FileResponseUtil.ifRangeMatches(request, etag, lastModified)
+                ? FileResponseUtil.parseRange(request.getHeader(HttpHeaders.RANGE), size) : null;
+        if (range == FileResponseUtil.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range != null) {
+            start = range[0];
+            end = range[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+        }
+
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            response.setContentLengthLong(end - start);
+            return;
+        }
+        if (end - start >= sendfileMinBytes) {
+            // Con sendfile Tomcat abre el archivo por su cuenta; sin soporte cae a transferTo
+            FileResponseUtil.send(request, response, file, start, end);
+            return;
+        }
+
+        OpenFile openFile = acquire(file, attributes);
+        try {
+            response.setContentLengthLong(end - start);
+            FileResponseUtil.transfer(openFile.channel, start, end, response);
+        } finally {
+            openFile.release();
+        }
+    }
+
+    // ---------- Archivos abiertos ----------
+
+    private OpenFile acquire(Path file, BasicFileAttributes attributes) throws IOException {
+        synchronized (openFiles) {
+            OpenFile cached = openFiles.get(file);
+            if (cached != null && cached.isSameFile(attributes) && cached.retain()) {
+                return cached;
+            }
+            if (cached != null) {
+                openFiles.remove(file);
+                cached.evict();
+            }
+        }
+
+        // El open va fuera del lock; si dos peticiones abren a la vez, queda la última
+        OpenFile opened = new OpenFile(FileChannel.open(file, StandardOpenOption.READ), attributes);
+        opened.retain();
+        synchronized (openFiles) {
+            OpenFile previous = openFiles.put(file, opened);
+            if (previous != null) {
+                previous.evict();
+            }
+        }
+        return opened;
+    }
+
+    private void invalidate(Path file) {
+        synchronized (openFiles) {
+            OpenFile cached = openFiles.remove(file);
+            if (cached != null) {
+                cached.evict();
+            }
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    /**
+     * null si la ruta sale del directorio de subidas o apunta a un temporal o archivo oculto.
+     */
+    private Path resolve(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty()) return null;
+
+        for (String segment : relativePath.split("/")) {
+            if (segment.startsWith(".") || segment.endsWith(".tmp")) {
+                return null;
+            }
+        }
+        try {
+            Path file = uploadRoot.resolve(relativePath).normalize();
+            return file.startsWith(uploadRoot) ? file : null;
+        } catch (RuntimeException e) {
+            // InvalidPathException: caracteres no válidos en el sistema de archivos
+            return null;
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // Ancho pedido en ?w=; 0 si no es un entero positivo
+    private static int parseWidth(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -12,7 +12,10 @@ import com.dog.exception.UserNotFoundException;
 import com.dog.repository.RoleRepository;
 import com.dog.repository.UserRepository;
 import com.dog.service.UserService;
+import com.dog.utils.NdjsonUtil;
 import com.dog.utils.mappers.UserMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -30,6 +35,10 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
 
+    // Solo para limpiar el contexto de persistencia entre bloques del streaming
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
@@ -132,4 +141,15 @@ public class UserServiceImpl implements UserService {
         User savedUser = userRepository.save(newUser);
         return UserMapper.toDTO(savedUser);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserResponse> sink) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            NdjsonUtil.forEachChunk(users, chunk -> {
+                chunk.forEach(user -> sink.accept(UserMapper.toDTO(user)));
+                entityManager.clear();
+            });
+        }
+    }
 }
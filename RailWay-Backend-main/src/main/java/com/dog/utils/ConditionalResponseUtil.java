@@ -0,0 +1,31 @@
+// src/main/java/com/dog/utils/ConditionalResponseUtil.java
+package com.dog.utils;
+
+import com.dog.dto.response.GeneralResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Respuestas 200 con ETag para los GET que ya pasaron por checkNotModified (ver ResourceVersionService).
+ */
+public class ConditionalResponseUtil {
+
+    /**
+     * GeneralResponse con el ETag dado; no-cache hace que el navegador la guarde pero revalide
+     * siempre (If-None-Match), así un 304 evita volver a bajar el cuerpo.
+     */
+    public static ResponseEntity<GeneralResponse> ok(String message, String etag, Object data) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(GeneralResponse.builder()
+                        .message(message)
+                        .status(HttpStatus.OK.value())
+                        .data(data)
+                        .uri(uri)
+                        .build());
+    }
+}
@@ -0,0 +1,62 @@
+// src/main/java/com/dog/utils/CursorUtil.java
+package com.dog.utils;
+
+import com.dog.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Codifica y decodifica los cursores opacos usados en la paginación por keyset.
+ * Un cursor guarda la posición del último elemento entregado: (clave de orden, UUID).
+ */
+public class CursorUtil {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Posición decodificada de un cursor.
+     */
+    public record Cursor(String sortKey, UUID id) {
+    }
+
+    public static String encode(String sortKey, UUID id) {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve null si no viene cursor (primera página).
+     * Lanza InvalidCursorException si el cursor fue manipulado o está mal formado.
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            if (idx <= 0) {
+                throw new InvalidCursorException("Cursor de paginación inválido.");
+            }
+            return new Cursor(raw.substring(0, idx), UUID.fromString(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido.", e);
+        }
+    }
+
+    /**
+     * Acota el tamaño de página pedido por el cliente a [1, MAX_PAGE_SIZE].
+     */
+    public static int clampPageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
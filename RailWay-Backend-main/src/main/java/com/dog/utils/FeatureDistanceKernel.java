@@ -0,0 +1,14 @@
+// src/main/java/com/dog/utils/FeatureDistanceKernel.java
+package com.dog.utils;
+
+/**
+ * Núcleo que calcula en lote la distancia euclidiana al cuadrado entre un vector
+ * de consulta y muchos vectores guardados uno tras otro en un arreglo plano.
+ */
+public interface FeatureDistanceKernel {
+
+    /**
+     * Llena out[0..count) con |query - rows[i*dims .. (i+1)*dims)|².
+     */
+    void squaredDistances(float[] query, float[] rows, int dims, float[] out, int count);
+}
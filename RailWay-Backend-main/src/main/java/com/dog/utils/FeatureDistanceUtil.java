@@ -0,0 +1,53 @@
+// src/main/java/com/dog/utils/FeatureDistanceUtil.java
+package com.dog.utils;
+
+public class FeatureDistanceUtil {
+
+    private static final String VECTOR_KERNEL_CLASS = "com.dog.utils.vector.VectorFeatureDistanceKernel";
+
+    private static final FeatureDistanceKernel BATCH_KERNEL = loadBatchKernel();
+
+    /**
+     * Distancia al cuadrado desde query a cada una de las count filas de rows (dims floats por fila).
+     * Usa la implementación con jdk.incubator.vector si está disponible (ver loadBatchKernel).
+     */
+    public static void squaredDistances(float[] query, float[] rows, int dims, float[] out, int count) {
+        if (query.length < dims || rows.length < dims * count || out.length < count) {
+            throw new IllegalArgumentException("Los arreglos de entrada/salida son más cortos que dims * count.");
+        }
+        BATCH_KERNEL.squaredDistances(query, rows, dims, out, count);
+    }
+
+    /**
+     * Núcleo escalar en lote. Público para poder compararlo en benchmarks con el vectorial.
+     */
+    public static void scalarSquaredDistances(float[] query, float[] rows, int dims, float[] out, int count) {
+        for (int i = 0, offset = 0; i < count; i++, offset += dims) {
+            float sum = 0f;
+            for (int d = 0; d < dims; d++) {
+                float diff = rows[offset + d] - query[d];
+                sum += diff * diff;
+            }
+            out[i] = sum;
+        }
+    }
+
+    /**
+     * Igual que GeoDistanceUtil: la versión vectorial solo existe si se compiló con el perfil
+     * Maven "vector" y solo se usa si la JVM arrancó con --add-modules jdk.incubator.vector
+     * y -Dunistay.similarity.vector=true.
+     */
+    private static FeatureDistanceKernel loadBatchKernel() {
+        if (Boolean.getBoolean("unistay.similarity.vector")
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (FeatureDistanceKernel) Class.forName(VECTOR_KERNEL_CLASS)
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Sin la clase vectorial caemos al núcleo escalar
+            }
+        }
+        return FeatureDistanceUtil::scalarSquaredDistances;
+    }
+}
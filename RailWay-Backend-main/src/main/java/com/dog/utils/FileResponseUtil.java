@@ -0,0 +1,156 @@
+// src/main/java/com/dog/utils/FileResponseUtil.java
+package com.dog.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Envío de archivos del disco sin pasar los bytes por el heap.
+ * Con Tomcat (conector NIO) se usa sendfile: el kernel copia del archivo al socket.
+ * En otros contenedores se cae a FileChannel.transferTo sobre la salida del servlet.
+ */
+public class FileResponseUtil {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Marca de parseRange para un "bytes=..." válido pero fuera del archivo (416)
+    public static final long[] UNSATISFIABLE = new long[0];
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file) throws IOException {
+        send(request, response, file, 0, Files.size(file));
+    }
+
+    /**
+     * Envía los bytes [start, end) del archivo. Los headers (Content-Type, Content-Encoding...)
+     * deben estar puestos antes de llamar.
+     */
+    public static void send(HttpServletRequest request, HttpServletResponse response,
+                            Path file, long start, long end) throws IOException {
+        response.setContentLengthLong(end - start);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envía el archivo al terminar la petición
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, end, response);
+        }
+    }
+
+    /**
+     * Copia [start, end) de un canal ya abierto a la salida del servlet. Usa lecturas posicionales,
+     * así un mismo canal puede atender varias peticiones a la vez. Content-Length y demás headers
+     * deben estar puestos antes de llamar.
+     */
+    public static void transfer(FileChannel channel, long start, long end, HttpServletResponse response)
+            throws IOException {
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = start;
+        while (position < end) {
+            long sent = channel.transferTo(position, end - position, out);
+            if (sent <= 0 && position >= channel.size()) {
+                // El archivo se truncó: cortar en vez de quedarse en un bucle sin avanzar
+                throw new EOFException("El archivo terminó antes de lo esperado");
+            }
+            position += sent;
+        }
+    }
+
+    /**
+     * true si Accept-Encoding acepta la codificación (o "*") con q mayor a 0.
+     */
+    public static boolean acceptsEncoding(HttpServletRequest request, String encoding) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String part : header.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim();
+            if (!name.equalsIgnoreCase(encoding) && !name.equals("*")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            return quality > 0;
+        }
+        return false;
+    }
+
+    /**
+     * Un único rango "bytes=a-b", "bytes=a-" o "bytes=-n" como [start, end). null si no hay Range,
+     * si tiene varios rangos o si no se entiende: se responde el archivo completo, como permite la RFC 9110.
+     */
+    public static long[] parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) return null;
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) return null;
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            // Solo dígitos: parseLong aceptaría también "+5" y "-5"
+            if (!first.chars().allMatch(Character::isDigit) || !last.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            if (first.isEmpty()) {
+                // Sufijo: los últimos n bytes
+                long length = Long.parseLong(last);
+                if (length <= 0 || size == 0) return UNSATISFIABLE;
+                return new long[]{Math.max(0, size - length), size};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) return null;
+            if (start >= size) return UNSATISFIABLE;
+            return new long[]{start, Math.min(end, size - 1) + 1};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * If-Range: el rango solo vale si el cliente tiene esta misma versión; si no, va el archivo completo.
+     */
+    public static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -5,6 +5,14 @@ public class GeoDistanceUtil {
 
     private static final double EARTH_RADIUS_KM = 6371.0;
 
+    // Por debajo de este delta (en radianes, ~55 km) la aproximación equirectangular
+    // tiene un error relativo menor a 1e-4, así que nos ahorramos la trigonometría inversa
+    private static final double SHORT_DISTANCE_RAD = Math.toRadians(0.5);
+
+    private static final String VECTOR_KERNEL_CLASS = "com.dog.utils.vector.VectorHaversineKernel";
+
+    private static final HaversineBatchKernel BATCH_KERNEL = loadBatchKernel();
+
     /**
      * Calcula la distancia entre dos puntos en la Tierra usando la fórmula de Haversine.
      * No lanza excepciones (si entran valores raros solo devolverá un doble).
@@ -22,4 +30,84 @@ public class GeoDistanceUtil {
 
         return EARTH_RADIUS_KM * c;
     }
-}
\ No newline at end of file
+
+    /**
+     * Calcula el rectángulo (minLat, maxLat, minLng, maxLng) que contiene el círculo
+     * de radio radiusKm alrededor del punto. Sirve como prefiltro barato en la BD:
+     * todo lo que esté a menos de radiusKm cae dentro, pero no al revés.
+     */
+    public static double[] boundingBox(double lat, double lng, double radiusKm) {
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double cosLat = Math.cos(Math.toRadians(lat));
+        double lngDelta = cosLat > 1e-12
+                ? Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * cosLat))
+                : 180.0;
+
+        return new double[]{
+                lat - latDelta,
+                lat + latDelta,
+                lng - lngDelta,
+                lng + lngDelta
+        };
+    }
+
+    /**
+     * Versión en lote: distancia desde un punto de referencia fijo (por ejemplo la UCA)
+     * a cada (lats[i], lngs[i]). La trigonometría del punto de referencia se calcula una sola vez.
+     * Usa la implementación con jdk.incubator.vector si está disponible (ver loadBatchKernel).
+     */
+    public static void distancesInKm(double refLat, double refLng, double[] lats, double[] lngs, double[] out) {
+        distancesInKm(refLat, refLng, lats, lngs, out, lats.length);
+    }
+
+    public static void distancesInKm(double refLat, double refLng, double[] lats, double[] lngs, double[] out, int length) {
+        if (lngs.length < length || out.length < length) {
+            throw new IllegalArgumentException("Los arreglos de entrada/salida son más cortos que length.");
+        }
+        BATCH_KERNEL.distancesInKm(refLat, refLng, lats, lngs, out, length);
+    }
+
+    /**
+     * Núcleo escalar en lote. Público para poder compararlo en benchmarks con el vectorial.
+     */
+    public static void scalarDistancesInKm(double refLat, double refLng, double[] lats, double[] lngs, double[] out, int length) {
+        double refLatRad = Math.toRadians(refLat);
+        double cosRefLat = Math.cos(refLatRad);
+
+        for (int i = 0; i < length; i++) {
+            double latRad = Math.toRadians(lats[i]);
+            double dLat = latRad - refLatRad;
+            double dLng = Math.toRadians(lngs[i] - refLng);
+
+            if (Math.abs(dLat) < SHORT_DISTANCE_RAD && Math.abs(dLng) < SHORT_DISTANCE_RAD) {
+                // Camino rápido equirectangular para distancias cortas
+                double x = dLng * Math.cos((latRad + refLatRad) / 2);
+                out[i] = EARTH_RADIUS_KM * Math.sqrt(x * x + dLat * dLat);
+            } else {
+                double sinLat = Math.sin(dLat / 2);
+                double sinLng = Math.sin(dLng / 2);
+                double a = sinLat * sinLat + cosRefLat * Math.cos(latRad) * sinLng * sinLng;
+                out[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+            }
+        }
+    }
+
+    /**
+     * Elige el núcleo en lote. La versión vectorial solo existe si se compiló con el perfil
+     * Maven "vector" y solo se usa si la JVM arrancó con --add-modules jdk.incubator.vector
+     * y -Dunistay.geo.vector=true. En cualquier otro caso se usa el núcleo escalar.
+     */
+    private static HaversineBatchKernel loadBatchKernel() {
+        if (Boolean.getBoolean("unistay.geo.vector")
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (HaversineBatchKernel) Class.forName(VECTOR_KERNEL_CLASS)
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Sin la clase vectorial caemos al núcleo escalar
+            }
+        }
+        return GeoDistanceUtil::scalarDistancesInKm;
+    }
+}
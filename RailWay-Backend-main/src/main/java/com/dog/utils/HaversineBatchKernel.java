@@ -0,0 +1,14 @@
+// src/main/java/com/dog/utils/HaversineBatchKernel.java
+package com.dog.utils;
+
+/**
+ * Núcleo que calcula en lote la distancia de un punto de referencia fijo
+ * a muchos puntos guardados en arreglos primitivos.
+ */
+public interface HaversineBatchKernel {
+
+    /**
+     * Llena out[0..length) con la distancia en km entre (refLat, refLng) y (lats[i], lngs[i]).
+     */
+    void distancesInKm(double refLat, double refLng, double[] lats, double[] lngs, double[] out, int length);
+}
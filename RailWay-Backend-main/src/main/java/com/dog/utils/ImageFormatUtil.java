@@ -0,0 +1,56 @@
+// src/main/java/com/dog/utils/ImageFormatUtil.java
+package com.dog.utils;
+
+/**
+ * Reconoce el formato de una imagen por sus bytes mágicos, no por el nombre ni el Content-Type
+ * que manda el cliente: la extensión resultante define el Content-Type con que se sirve.
+ */
+public class ImageFormatUtil {
+
+    // Bytes necesarios para reconocer el formato (WebP: "RIFF" + tamaño + "WEBP")
+    public static final int HEADER_BYTES = 12;
+
+    /**
+     * ".jpg", ".png", ".gif" o ".webp"; null si no es un formato de imagen aceptado.
+     */
+    public static String extension(byte[] header, int length) {
+        if (startsWith(header, length, 0, 0xFF, 0xD8, 0xFF)) return ".jpg";
+        if (startsWith(header, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return ".png";
+        if (startsWith(header, length, 0, 'G', 'I', 'F', '8')) return ".gif";
+        if (startsWith(header, length, 0, 'R', 'I', 'F', 'F') && startsWith(header, length, 8, 'W', 'E', 'B', 'P')) return ".webp";
+        return null;
+    }
+
+    /**
+     * Extensión para un Content-Type declarado (subidas directas, donde el servidor no ve los
+     * bytes hasta el final); null si no es un formato aceptado.
+     */
+    public static String extensionForContentType(String contentType) {
+        if (contentType == null) return null;
+        return switch (contentType.trim().toLowerCase()) {
+            case "image/jpeg", "image/jpg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/gif" -> ".gif";
+            case "image/webp" -> ".webp";
+            default -> null;
+        };
+    }
+
+    public static String contentType(String extension) {
+        return switch (extension) {
+            case ".jpg" -> "image/jpeg";
+            case ".png" -> "image/png";
+            case ".gif" -> "image/gif";
+            case ".webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, int... expected) {
+        if (length < offset + expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if ((header[offset + i] & 0xFF) != expected[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,171 @@
+// src/main/java/com/dog/utils/ImageResizeUtil.java
+package com.dog.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+public class ImageResizeUtil {
+
+    // Por encima de esto el archivo no es una foto razonable (o es una "bomba" de descompresión)
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    /**
+     * Decodifica la imagen saltando píxeles en la lectura, de modo que quede con al menos
+     * minWidth de ancho pero menos del doble: una foto de 4000px para variantes de 1200px se
+     * decodifica a 1334px, con un noveno de la memoria. Devuelve null si el formato no se reconoce.
+     */
+    public static BufferedImage readDownsampled(InputStream input, int minWidth) throws IOException {
+        try (ImageInputStream stream = new MemoryCacheImageInputStream(input)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Imagen demasiado grande: " + width + "x" + height);
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / Math.max(1, minWidth));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Ancho de la imagen leído de la cabecera, sin decodificar los píxeles. -1 si el formato
+     * no se reconoce.
+     */
+    public static int readWidth(InputStream input) throws IOException {
+        try (ImageInputStream stream = new MemoryCacheImageInputStream(input)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) return -1;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reduce al ancho indicado (nunca amplía) manteniendo la proporción, en RGB opaco
+     * sobre fondo blanco para poder guardarla como JPEG.
+     */
+    public static BufferedImage resizeToWidth(BufferedImage source, int targetWidth) {
+        int finalWidth = Math.max(1, Math.min(targetWidth, source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        do {
+            // Bajar a la mitad en cada paso evita el aliasing del bilineal en reducciones grandes
+            width = Math.max(finalWidth, width / 2);
+            int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+            current = draw(current, width, height);
+        } while (width > finalWidth);
+        return current;
+    }
+
+    /**
+     * JPEG progresivo: el navegador pinta una versión completa borrosa antes de terminar de bajarla.
+     */
+    public static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No hay un codificador JPEG disponible");
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * true si ImageIO tiene un codificador para el tipo MIME. JPEG y PNG vienen con el JDK;
+     * WebP y AVIF solo si hay un plugin de ImageIO en el classpath.
+     */
+    public static boolean canEncode(String mimeType) {
+        return ImageIO.getImageWritersByMIMEType(mimeType).hasNext();
+    }
+
+    /**
+     * Codifica en el tipo MIME indicado (JPEG progresivo igual que encodeJpeg); la calidad se
+     * aplica si el codificador admite compresión con pérdida.
+     */
+    public static byte[] encode(BufferedImage image, String mimeType, float quality) throws IOException {
+        if ("image/jpeg".equals(mimeType)) {
+            return encodeJpeg(image, quality);
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+        if (!writers.hasNext()) {
+            throw new IOException("No hay un codificador para " + mimeType);
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Las transparencias (PNG) quedan sobre blanco
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,70 @@
+// src/main/java/com/dog/utils/NdjsonUtil.java
+package com.dog.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Salida NDJSON (un objeto JSON por línea) para listados grandes. Las filas se leen con
+ * un Stream de JPA y se escriben a la respuesta en bloques, así el heap no crece con la tabla.
+ */
+public class NdjsonUtil {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    // Filas por viaje al servidor (fetch size JDBC) y tamaño de cada bloque antes de limpiar
+    // el contexto de persistencia. Las @QueryHints necesitan la constante como texto.
+    public static final int CHUNK_SIZE = 200;
+    public static final String FETCH_SIZE = "200";
+
+    /**
+     * Recorre el stream en bloques de CHUNK_SIZE. El handler debe escribir el bloque y
+     * limpiar el EntityManager para que las entidades ya enviadas se puedan recolectar.
+     */
+    public static <E> void forEachChunk(Stream<E> rows, Consumer<List<E>> chunkHandler) {
+        List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                chunkHandler.accept(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkHandler.accept(chunk);
+        }
+    }
+
+    /**
+     * Escribe en la respuesta cada elemento que el productor entregue, una línea por elemento.
+     * El productor corre dentro de su propia transacción (p. ej. RoomService.streamAll).
+     */
+    public static <T> void write(HttpServletResponse response, ObjectMapper objectMapper,
+                                 Consumer<Consumer<T>> producer) throws IOException {
+        response.setContentType(MEDIA_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+
+        producer.accept(item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                // Normalmente el cliente cerró la conexión; se corta el recorrido
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        out.flush();
+    }
+}
@@ -0,0 +1,93 @@
+package com.dog.utils;
+
+import com.dog.exception.InvalidImageException;
+import com.dog.service.FileStorageService.StoredFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * storeFiles de cada almacenamiento (disco local o S3): mismas reglas de paralelismo y de
+ * "o se guardan todos o ninguno", cambia solo cómo se escribe cada archivo.
+ */
+public final class ParallelStoreUtil {
+
+    @FunctionalInterface
+    public interface FileWriter {
+        StoredFile write(MultipartFile file) throws IOException;
+    }
+
+    private ParallelStoreUtil() {
+    }
+
+    /**
+     * Escribe los archivos no vacíos en executor (uno solo se escribe en el hilo actual) y los
+     * devuelve en el mismo orden. Se espera a todos, también si uno falla: así se sabe
+     * exactamente qué pasar a discard antes de lanzar la primera excepción.
+     */
+    public static List<StoredFile> storeAll(MultipartFile[] files, ExecutorService executor,
+                                            FileWriter writer, Consumer<List<StoredFile>> discard) throws IOException {
+        List<MultipartFile> toStore = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                if (file != null && !file.isEmpty()) {
+                    toStore.add(file);
+                }
+            }
+        }
+        if (toStore.isEmpty()) {
+            return List.of();
+        }
+        if (toStore.size() == 1) {
+            try {
+                return List.of(writer.write(toStore.get(0)));
+            } catch (IOException e) {
+                throw new IOException("Fallo al guardar la imagen: " + toStore.get(0).getOriginalFilename(), e);
+            }
+        }
+
+        List<Future<StoredFile>> pending = new ArrayList<>(toStore.size());
+        for (MultipartFile file : toStore) {
+            pending.add(executor.submit(() -> writer.write(file)));
+        }
+
+        List<StoredFile> stored = new ArrayList<>(toStore.size());
+        Exception failure = null;
+        boolean interrupted = false;
+        for (int i = 0; i < pending.size(); i++) {
+            while (true) {
+                try {
+                    stored.add(pending.get(i).get());
+                    break;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        // Una imagen rechazada llega tal cual al cliente (400), no como fallo de escritura
+                        failure = e.getCause() instanceof InvalidImageException invalid ? invalid
+                                : new IOException("Fallo al guardar la imagen: " + toStore.get(i).getOriginalFilename(), e.getCause());
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            discard.accept(stored);
+            if (failure instanceof InvalidImageException invalid) {
+                throw invalid;
+            }
+            throw (IOException) failure;
+        }
+        return stored;
+    }
+}
@@ -0,0 +1,187 @@
+// src/main/java/com/dog/utils/S3RequestSigner.java
+package com.dog.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Firma AWS Signature Version 4 para la API de S3 (y compatibles: MinIO, R2...), sin SDK.
+ * Dos variantes: headers (Authorization) para las llamadas del servidor y query string
+ * (URL prefirmada) para que el navegador suba directo al bucket.
+ *
+ * Las URIs se pasan ya codificadas (ver {@link #uriEncode}); la ruta se firma tal cual, como
+ * espera S3 (sin normalizar ni codificar dos veces).
+ */
+public class S3RequestSigner {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    public static final String EMPTY_PAYLOAD_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter SCOPE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    public S3RequestSigner(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * Headers a agregar a la petición: los recibidos más x-amz-date, x-amz-content-sha256 y
+     * Authorization. Host no se incluye (lo pone el cliente HTTP) pero sí se firma.
+     */
+    public Map<String, String> signHeaders(String method, URI uri, Map<String, String> headers,
+                                           String payloadSha256, Instant now) {
+        Map<String, String> signed = new LinkedHashMap<>(headers);
+        signed.put("x-amz-date", AMZ_DATE.format(now));
+        signed.put("x-amz-content-sha256", payloadSha256);
+
+        TreeMap<String, String> canonicalHeaders = canonicalHeaders(uri, signed);
+        String signedHeaders = String.join(";", canonicalHeaders.keySet());
+        String signature = signature(method, uri.getRawPath(), canonicalQuery(uri.getRawQuery()),
+                canonicalHeaders, payloadSha256, now);
+
+        signed.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+        return signed;
+    }
+
+    /**
+     * URL prefirmada válida durante expires. Quien la use tiene que mandar exactamente los
+     * headers firmados (por ejemplo Content-Type o x-amz-checksum-sha256), si no S3 la rechaza.
+     */
+    public URI presign(String method, URI uri, Map<String, String> headers, Duration expires, Instant now) {
+        TreeMap<String, String> canonicalHeaders = canonicalHeaders(uri, headers);
+        String signedHeaders = String.join(";", canonicalHeaders.keySet());
+
+        StringBuilder query = new StringBuilder(uri.getRawQuery() != null ? uri.getRawQuery() + "&" : "");
+        query.append("X-Amz-Algorithm=").append(ALGORITHM)
+                .append("&X-Amz-Credential=").append(uriEncode(accessKey + "/" + scope(now), true))
+                .append("&X-Amz-Date=").append(AMZ_DATE.format(now))
+                .append("&X-Amz-Expires=").append(expires.toSeconds())
+                .append("&X-Amz-SignedHeaders=").append(uriEncode(signedHeaders, true));
+
+        String signature = signature(method, uri.getRawPath(), canonicalQuery(query.toString()),
+                canonicalHeaders, UNSIGNED_PAYLOAD, now);
+        query.append("&X-Amz-Signature=").append(signature);
+
+        String base = uri.toString();
+        int queryStart = base.indexOf('?');
+        return URI.create((queryStart >= 0 ? base.substring(0, queryStart) : base) + "?" + query);
+    }
+
+    /**
+     * Codificación de SigV4: solo quedan sin escapar A-Z a-z 0-9 - _ . ~ (y "/" en las rutas).
+     */
+    public static String uriEncode(String value, boolean encodeSlash) {
+        StringBuilder encoded = new StringBuilder(value.length());
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return encoded.toString();
+    }
+
+    public static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    // ---------- Firma ----------
+
+    private String signature(String method, String canonicalUri, String canonicalQuery,
+                             TreeMap<String, String> canonicalHeaders, String payloadSha256, Instant now) {
+        StringBuilder headerBlock = new StringBuilder();
+        canonicalHeaders.forEach((name, value) -> headerBlock.append(name).append(':').append(value).append('\n'));
+
+        String canonicalRequest = method + "\n"
+                + (canonicalUri == null || canonicalUri.isEmpty() ? "/" : canonicalUri) + "\n"
+                + canonicalQuery + "\n"
+                + headerBlock + "\n"
+                + String.join(";", canonicalHeaders.keySet()) + "\n"
+                + payloadSha256;
+
+        String stringToSign = ALGORITHM + "\n"
+                + AMZ_DATE.format(now) + "\n"
+                + scope(now) + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), SCOPE_DATE.format(now));
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private String scope(Instant now) {
+        return SCOPE_DATE.format(now) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    // Nombres en minúscula y ordenados, valores sin espacios sobrantes; host siempre va firmado
+    private static TreeMap<String, String> canonicalHeaders(URI uri, Map<String, String> headers) {
+        TreeMap<String, String> canonical = new TreeMap<>();
+        canonical.put("host", uri.getPort() >= 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost());
+        headers.forEach((name, value) ->
+                canonical.put(name.toLowerCase(Locale.ROOT), value.trim().replaceAll("\\s+", " ")));
+        return canonical;
+    }
+
+    // Parámetros ordenados por nombre (y valor); los que no tienen "=" se firman con valor vacío
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+
+        List<String[]> params = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) continue;
+            int eq = param.indexOf('=');
+            params.add(eq < 0 ? new String[]{param, ""} : new String[]{param.substring(0, eq), param.substring(eq + 1)});
+        }
+        params.sort((a, b) -> a[0].equals(b[0]) ? a[1].compareTo(b[1]) : a[0].compareTo(b[0]));
+
+        StringBuilder canonical = new StringBuilder();
+        for (String[] param : params) {
+            if (canonical.length() > 0) canonical.append('&');
+            canonical.append(param[0]).append('=').append(param[1]);
+        }
+        return canonical.toString();
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+// src/main/java/com/dog/utils/TransactionUtil.java
+package com.dog.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtil {
+
+    /**
+     * Ejecuta la acción cuando la transacción actual hace commit.
+     * Si no hay transacción activa se ejecuta de inmediato.
+     * Útil para mantener estructuras en memoria sincronizadas solo con datos confirmados.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -4,6 +4,7 @@ package com.dog.utils.mappers;
 
 import com.dog.dto.request.Post.PostCreateRequest;
 import com.dog.dto.request.Post.PostUpdateRequest;
+import com.dog.dto.response.PostImageResponse;
 import com.dog.dto.response.PostResponse;
 import com.dog.entities.Post;
 import com.dog.entities.PostImage;
@@ -31,18 +32,28 @@ public class PostMapper {
             return null;
         }
 
-        List<String> imageUrls = (post.getImages() != null && !post.getImages().isEmpty()) ?
+        List<PostImage> sortedImages = (post.getImages() != null && !post.getImages().isEmpty()) ?
                 post.getImages().stream()
                         .sorted(Comparator.comparingInt(PostImage::getDisplayOrder))
-                        .map(PostImage::getImageUrl)
                         .collect(Collectors.toList()) :
                 Collections.emptyList();
+        List<String> imageUrls = sortedImages.stream()
+                .map(PostImage::getImageUrl)
+                .collect(Collectors.toList());
+        List<PostImageResponse> images = sortedImages.stream()
+                .map(PostMapper::toImageDTO)
+                .collect(Collectors.toList());
+        // El placeholder (~1 KB en base64) solo se usa en la portada: no se repite en el resto
+        for (int i = 1; i < images.size(); i++) {
+            images.get(i).setPlaceholder(null);
+        }
 
         return PostResponse.builder()
                 .postId(post.getId())
                 .title(post.getTitle())
                 .price(post.getPrice())
                 .imageUrls(imageUrls)
+                .images(images)
                 .status(post.getStatus())
                 .owner(post.getOwner() != null ? post.getOwner().getName() + " " + post.getOwner().getLastName() : "N/A")
                 .roomDetails(post.getRoom() != null ? RoomMapper.toDTO(post.getRoom()) : null)
@@ -52,6 +63,24 @@ public class PostMapper {
                 .build();
     }
 
+    /**
+     * Converts a PostImage entity to a PostImageResponse DTO, including its responsive variants.
+     * @param image The PostImage entity to convert.
+     * @return The corresponding PostImageResponse DTO.
+     */
+    public static PostImageResponse toImageDTO(PostImage image) {
+        return PostImageResponse.builder()
+                .id(image.getId())
+                .imageUrl(image.getImageUrl())
+                .displayOrder(image.getDisplayOrder())
+                .thumbUrl(image.getThumbUrl())
+                .cardUrl(image.getCardUrl())
+                .detailUrl(image.getDetailUrl())
+                .srcset(image.getSrcset())
+                .placeholder(image.getPlaceholder())
+                .build();
+    }
+
     /**
      * Converts a list of Post entities to a list of PostResponse DTOs.
      * @param posts The list of Post entities.
@@ -0,0 +1,50 @@
+package com.dog.utils.mappers;
+
+import com.dog.dto.request.SavedSearch.SavedSearchRequest;
+import com.dog.dto.response.SavedSearchResponse;
+import com.dog.entities.SavedSearch;
+import com.dog.entities.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class SavedSearchMapper {
+
+    public static SavedSearch toEntityCreate(SavedSearchRequest request, User user) {
+        if (request == null) return null;
+        return SavedSearch.builder()
+                .user(user)
+                .name(request.getName().trim())
+                .minPrice(request.getMinPrice())
+                .maxPrice(request.getMaxPrice())
+                .maxDistanceKm(request.getMaxDistanceKm())
+                .amenities(distinctAmenities(request.getAmenities()))
+                .build();
+    }
+
+    public static SavedSearchResponse toDTO(SavedSearch search) {
+        if (search == null) return null;
+        return SavedSearchResponse.builder()
+                .id(search.getId())
+                .name(search.getName())
+                .minPrice(search.getMinPrice())
+                .maxPrice(search.getMaxPrice())
+                .maxDistanceKm(search.getMaxDistanceKm())
+                .amenities(new ArrayList<>(search.getAmenities()))
+                .createdAt(search.getCreatedAt())
+                .build();
+    }
+
+    // saved_search_amenities tiene PK (búsqueda, amenidad): sin repetidos ni vacíos
+    private static List<String> distinctAmenities(List<String> amenities) {
+        if (amenities == null) return new ArrayList<>();
+        return amenities.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(amenity -> !amenity.isEmpty())
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
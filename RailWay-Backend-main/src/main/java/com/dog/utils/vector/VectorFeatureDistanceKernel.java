@@ -0,0 +1,39 @@
+// src/main/java/com/dog/utils/vector/VectorFeatureDistanceKernel.java
+package com.dog.utils.vector;
+
+import com.dog.utils.FeatureDistanceKernel;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Distancias al cuadrado en lote con la Vector API (incubadora). Solo se compila con el
+ * perfil Maven "vector"; FeatureDistanceUtil la carga por reflexión cuando está disponible.
+ */
+public class VectorFeatureDistanceKernel implements FeatureDistanceKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void squaredDistances(float[] query, float[] rows, int dims, float[] out, int count) {
+        int upper = SPECIES.loopBound(dims);
+
+        for (int i = 0, offset = 0; i < count; i++, offset += dims) {
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int d = 0;
+            for (; d < upper; d += SPECIES.length()) {
+                FloatVector diff = FloatVector.fromArray(SPECIES, rows, offset + d)
+                        .sub(FloatVector.fromArray(SPECIES, query, d));
+                acc = diff.fma(diff, acc);
+            }
+            float sum = acc.reduceLanes(VectorOperators.ADD);
+
+            // Dimensiones que no llenan un vector completo
+            for (; d < dims; d++) {
+                float diff = rows[offset + d] - query[d];
+                sum += diff * diff;
+            }
+            out[i] = sum;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// src/main/java/com/dog/utils/vector/VectorHaversineKernel.java
+package com.dog.utils.vector;
+
+import com.dog.utils.GeoDistanceUtil;
+import com.dog.utils.HaversineBatchKernel;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Haversine en lote con la Vector API (incubadora). Solo se compila con el perfil
+ * Maven "vector" y requiere arrancar la JVM con --add-modules jdk.incubator.vector.
+ * GeoDistanceUtil la carga por reflexión cuando está disponible.
+ */
+public class VectorHaversineKernel implements HaversineBatchKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double DEG_TO_RAD = Math.PI / 180.0;
+
+    @Override
+    public void distancesInKm(double refLat, double refLng, double[] lats, double[] lngs, double[] out, int length) {
+        double refLatRad = refLat * DEG_TO_RAD;
+        double cosRefLat = Math.cos(refLatRad);
+
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector latRad = DoubleVector.fromArray(SPECIES, lats, i).mul(DEG_TO_RAD);
+            DoubleVector dLng = DoubleVector.fromArray(SPECIES, lngs, i).sub(refLng).mul(DEG_TO_RAD);
+            DoubleVector dLat = latRad.sub(refLatRad);
+
+            DoubleVector sinLat = dLat.mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinLng = dLng.mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector a = sinLat.mul(sinLat)
+                    .add(latRad.lanewise(VectorOperators.COS).mul(cosRefLat).mul(sinLng).mul(sinLng));
+
+            a.sqrt().min(1.0)
+                    .lanewise(VectorOperators.ASIN)
+                    .mul(2 * EARTH_RADIUS_KM)
+                    .intoArray(out, i);
+        }
+
+        // Cola que no llena un vector completo
+        if (i < length) {
+            int tail = length - i;
+            double[] tailLats = new double[tail];
+            double[] tailLngs = new double[tail];
+            double[] tailOut = new double[tail];
+            System.arraycopy(lats, i, tailLats, 0, tail);
+            System.arraycopy(lngs, i, tailLngs, 0, tail);
+            GeoDistanceUtil.scalarDistancesInKm(refLat, refLng, tailLats, tailLngs, tailOut, tail);
+            System.arraycopy(tailOut, 0, out, i, tail);
+        }
+    }
+}
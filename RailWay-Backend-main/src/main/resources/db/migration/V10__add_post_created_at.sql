@@ -0,0 +1,10 @@
+-- V10__add_post_created_at.sql
+-- Agrega la fecha de creación a posts para poder paginar el catálogo
+-- por cursor (created_at, id) sin usar OFFSET.
+
+ALTER TABLE public.posts
+    ADD COLUMN IF NOT EXISTS created_at timestamp(6) NOT NULL DEFAULT now();
+
+-- Índice compuesto en el mismo orden que usa el catálogo (más nuevos primero)
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id
+    ON public.posts (created_at DESC, id DESC);
@@ -0,0 +1,13 @@
+-- V11__add_post_filter_indexes.sql
+-- Índices para que /api/post-filters resuelva los filtros en la BD:
+--  - rango de precio sobre posts.price
+--  - prefiltro por bounding box sobre rooms.lat / rooms.lng
+
+CREATE INDEX IF NOT EXISTS idx_posts_price
+    ON public.posts (price);
+
+CREATE INDEX IF NOT EXISTS idx_posts_room_id
+    ON public.posts (room_id);
+
+CREATE INDEX IF NOT EXISTS idx_rooms_lat_lng
+    ON public.rooms (lat, lng);
@@ -0,0 +1,31 @@
+-- V12__add_full_text_search.sql
+-- Búsqueda por palabras clave sobre posts.title, rooms.description y rooms.address:
+--  - columnas tsvector generadas (diccionario 'spanish') con índices GIN
+--  - pg_trgm para tolerar errores de tipeo en título y dirección
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+ALTER TABLE public.posts
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('spanish', coalesce(title, '')), 'A')
+        ) STORED;
+
+ALTER TABLE public.rooms
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('spanish', coalesce(address, '')), 'B')
+                || setweight(to_tsvector('spanish', coalesce(description, '')), 'C')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector
+    ON public.posts USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_rooms_search_vector
+    ON public.rooms USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_posts_title_trgm
+    ON public.posts USING gin (title gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_rooms_address_trgm
+    ON public.rooms USING gin (address gin_trgm_ops);
@@ -0,0 +1,35 @@
+-- V13__create_post_rating_stats.sql
+-- Agregados de calificación por post (suma, cantidad, promedio e histograma por estrella).
+-- Se mantienen de forma incremental al crear/actualizar reseñas, así los listados
+-- no tienen que calcular AVG/COUNT sobre reviews por cada post.
+
+CREATE TABLE IF NOT EXISTS public.post_rating_stats (
+    post_id      uuid PRIMARY KEY,
+    rating_sum   bigint           NOT NULL DEFAULT 0,
+    rating_count bigint           NOT NULL DEFAULT 0,
+    rating_avg   double precision NOT NULL DEFAULT 0,
+    star_1       bigint           NOT NULL DEFAULT 0,
+    star_2       bigint           NOT NULL DEFAULT 0,
+    star_3       bigint           NOT NULL DEFAULT 0,
+    star_4       bigint           NOT NULL DEFAULT 0,
+    star_5       bigint           NOT NULL DEFAULT 0,
+
+    CONSTRAINT fk_post_rating_stats_post
+    FOREIGN KEY (post_id) REFERENCES public.posts(id) ON DELETE CASCADE
+    );
+
+-- Carga inicial a partir de las reseñas existentes
+INSERT INTO public.post_rating_stats
+    (post_id, rating_sum, rating_count, rating_avg, star_1, star_2, star_3, star_4, star_5)
+SELECT post_id,
+       SUM(rating),
+       COUNT(*),
+       AVG(rating)::double precision,
+       COUNT(*) FILTER (WHERE rating = 1),
+       COUNT(*) FILTER (WHERE rating = 2),
+       COUNT(*) FILTER (WHERE rating = 3),
+       COUNT(*) FILTER (WHERE rating = 4),
+       COUNT(*) FILTER (WHERE rating = 5)
+FROM public.reviews
+GROUP BY post_id
+ON CONFLICT (post_id) DO NOTHING;
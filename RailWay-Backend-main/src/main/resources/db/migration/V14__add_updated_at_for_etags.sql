@@ -0,0 +1,29 @@
+-- V14__add_updated_at_for_etags.sql
+-- Marcas de última modificación para calcular ETags sin cargar entidades:
+--  - posts / rooms: updated_at lo pone la base en cada INSERT/UPDATE (@CurrentTimestamp de
+--    Hibernate con source = DB; touchUpdatedAt usa now())
+--  - post_rating_stats: updated_at lo actualiza el upsert de applyRatingChange con now()
+-- Todas las marcas salen del reloj de la base, nunca del de la JVM: se comparan entre sí (greatest).
+-- Los índices permiten obtener max(updated_at) de una colección sin recorrer la tabla.
+
+ALTER TABLE public.posts
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+
+ALTER TABLE public.rooms
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+
+ALTER TABLE public.post_rating_stats
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_posts_updated_at
+    ON public.posts (updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_rooms_updated_at
+    ON public.rooms (updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_post_rating_stats_updated_at
+    ON public.post_rating_stats (updated_at);
+
+-- Reseñas de un post: (post_id, updated_at) resuelve count + max por post
+CREATE INDEX IF NOT EXISTS idx_reviews_post_id_updated_at
+    ON public.reviews (post_id, updated_at);
@@ -0,0 +1,45 @@
+-- V15__create_saved_searches.sql
+-- Búsquedas guardadas: los mismos filtros de /api/post-filters (precio y distancia a la UCA)
+-- más amenidades requeridas. saved_search_matches registra cada post que cumplió una búsqueda;
+-- notified_at queda en null hasta que el aviso sale en el siguiente lote de correos.
+
+CREATE TABLE IF NOT EXISTS public.saved_searches (
+    id              uuid PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id         uuid         NOT NULL,
+    name            varchar(100) NOT NULL,
+    min_price       double precision,
+    max_price       double precision,
+    max_distance_km double precision,
+    created_at      timestamp(6) NOT NULL DEFAULT now(),
+
+    CONSTRAINT fk_saved_searches_user
+        FOREIGN KEY (user_id) REFERENCES public.users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_searches_user ON public.saved_searches (user_id, created_at);
+
+CREATE TABLE IF NOT EXISTS public.saved_search_amenities (
+    saved_search_id uuid         NOT NULL,
+    amenity         varchar(255) NOT NULL,
+    PRIMARY KEY (saved_search_id, amenity),
+
+    CONSTRAINT fk_saved_search_amenities_search
+        FOREIGN KEY (saved_search_id) REFERENCES public.saved_searches(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS public.saved_search_matches (
+    saved_search_id uuid         NOT NULL,
+    post_id         uuid         NOT NULL,
+    matched_at      timestamp(6) NOT NULL DEFAULT now(),
+    notified_at     timestamp(6),
+    PRIMARY KEY (saved_search_id, post_id),
+
+    CONSTRAINT fk_saved_search_matches_search
+        FOREIGN KEY (saved_search_id) REFERENCES public.saved_searches(id) ON DELETE CASCADE,
+    CONSTRAINT fk_saved_search_matches_post
+        FOREIGN KEY (post_id) REFERENCES public.posts(id) ON DELETE CASCADE
+);
+
+-- Solo los avisos pendientes: el lote de correos lee este índice parcial
+CREATE INDEX IF NOT EXISTS idx_saved_search_matches_pending
+    ON public.saved_search_matches (matched_at) WHERE notified_at IS NULL;
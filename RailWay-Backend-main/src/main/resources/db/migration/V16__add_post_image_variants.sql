@@ -0,0 +1,18 @@
+-- V16__add_post_image_variants.sql
+-- Variantes de cada imagen generadas en segundo plano (ver ImageVariantService):
+-- miniatura, tarjeta y detalle en JPEG, el srcset ya armado con sus anchos reales y un
+-- placeholder diminuto (data URI) para mostrar borroso mientras carga la imagen.
+-- variants_status queda en null hasta que se procesan (READY o FAILED).
+
+ALTER TABLE public.post_images
+    ADD COLUMN IF NOT EXISTS thumb_url       varchar(1024),
+    ADD COLUMN IF NOT EXISTS card_url        varchar(1024),
+    ADD COLUMN IF NOT EXISTS detail_url      varchar(1024),
+    ADD COLUMN IF NOT EXISTS srcset          varchar(4096),
+    ADD COLUMN IF NOT EXISTS placeholder     text,
+    ADD COLUMN IF NOT EXISTS variants_status varchar(16);
+
+-- El barrido de pendientes solo recorre las imágenes sin procesar
+CREATE INDEX IF NOT EXISTS idx_post_images_variants_pending
+    ON public.post_images (post_id)
+    WHERE variants_status IS NULL;
@@ -0,0 +1,11 @@
+-- V17__add_post_image_content_hash.sql
+-- Las imágenes nuevas se guardan por contenido (blobs/ab/cd/<sha256>.<ext>): varias filas
+-- pueden apuntar al mismo archivo. content_hash es el conteo de referencias: el archivo solo
+-- se borra cuando ninguna fila lo usa. Queda en null para las imágenes anteriores.
+
+ALTER TABLE public.post_images
+    ADD COLUMN IF NOT EXISTS content_hash varchar(64);
+
+CREATE INDEX IF NOT EXISTS idx_post_images_content_hash
+    ON public.post_images (content_hash)
+    WHERE content_hash IS NOT NULL;
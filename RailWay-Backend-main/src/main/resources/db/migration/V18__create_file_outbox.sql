@@ -0,0 +1,16 @@
+-- V18__create_file_outbox.sql
+-- Outbox de borrado de archivos: la fila se inserta en la misma transacción que quita la
+-- imagen, así el archivo solo se borra si el cambio se confirmó (un rollback se lleva la
+-- fila). Un hilo en segundo plano las procesa por lotes y reintenta los fallos con espera
+-- creciente (next_attempt_at).
+
+CREATE TABLE IF NOT EXISTS public.file_outbox (
+    id              bigserial PRIMARY KEY,
+    file_url        varchar(1024) NOT NULL,
+    attempts        integer       NOT NULL DEFAULT 0,
+    next_attempt_at timestamp(6)  NOT NULL DEFAULT now(),
+    last_error      varchar(512),
+    created_at      timestamp(6)  NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_file_outbox_next_attempt ON public.file_outbox (next_attempt_at, id);
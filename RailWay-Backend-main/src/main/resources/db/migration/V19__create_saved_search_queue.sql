@@ -0,0 +1,15 @@
+-- V19__create_saved_search_queue.sql
+-- Posts pendientes de comparar con las búsquedas guardadas. La fila se inserta en la misma
+-- transacción que crea o edita el post, así un reinicio no pierde los que aún no se procesaron.
+-- enqueued_at se renueva si el post se vuelve a editar antes del lote: la fila solo se borra si
+-- nadie la renovó mientras se comparaba.
+
+CREATE TABLE IF NOT EXISTS public.saved_search_queue (
+    post_id     uuid PRIMARY KEY,
+    enqueued_at timestamp(6) NOT NULL DEFAULT now(),
+
+    CONSTRAINT fk_saved_search_queue_post
+        FOREIGN KEY (post_id) REFERENCES public.posts(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_search_queue_enqueued ON public.saved_search_queue (enqueued_at);
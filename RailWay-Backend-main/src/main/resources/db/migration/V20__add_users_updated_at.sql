@@ -0,0 +1,10 @@
+-- V20__add_users_updated_at.sql
+-- El nombre del dueño forma parte de PostResponse: su updated_at entra en el ETag de los posts
+-- (PostRepository.findVersionById / findCatalogVersion). Como el resto de las marcas, lo
+-- escribe la base (@CurrentTimestamp de Hibernate o now()), nunca el reloj de la JVM.
+
+ALTER TABLE public.users
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at
+    ON public.users (updated_at);
@@ -0,0 +1,102 @@
+package com.dog.service.impl;
+
+import com.dog.utils.GeoDistanceUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * findNearest y findWithinRadius contra el cálculo por fuerza bruta sobre las mismas habitaciones.
+ */
+class RoomSpatialIndexImplTests {
+
+    private static final double UCA_LAT = 13.6824;
+    private static final double UCA_LNG = -89.2360;
+
+    private final RoomSpatialIndexImpl index = new RoomSpatialIndexImpl(null, 0.01);
+    private final Map<UUID, double[]> rooms = new LinkedHashMap<>();
+
+    @BeforeEach
+    void seed() {
+        // Habitaciones alrededor de la UCA (unos 20 km a la redonda) y una en otro continente
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            add(UCA_LAT + (random.nextDouble() - 0.5) * 0.4, UCA_LNG + (random.nextDouble() - 0.5) * 0.4);
+        }
+        add(40.4168, -3.7038);
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        for (int k : new int[]{1, 5, 25}) {
+            assertEquals(bruteForceNearest(UCA_LAT, UCA_LNG, k), index.findNearest(UCA_LAT, UCA_LNG, k));
+        }
+    }
+
+    @Test
+    void nearestFindsFarAwayRooms() {
+        // Desde Madrid: la habitación de Madrid y después la más cercana de las de la UCA, a miles de km
+        List<UUID> nearest = index.findNearest(40.0, -4.0, 2);
+
+        assertEquals(bruteForceNearest(40.0, -4.0, 2), nearest);
+    }
+
+    @Test
+    void nearestReturnsEveryRoomWhenKExceedsSize() {
+        List<UUID> nearest = index.findNearest(UCA_LAT, UCA_LNG, rooms.size() + 10);
+
+        assertEquals(rooms.size(), nearest.size());
+        assertEquals(bruteForceNearest(UCA_LAT, UCA_LNG, rooms.size()), nearest);
+    }
+
+    @Test
+    void nearestIgnoresRemovedRooms() {
+        UUID closest = index.findNearest(UCA_LAT, UCA_LNG, 1).get(0);
+        index.remove(closest);
+        rooms.remove(closest);
+
+        assertEquals(bruteForceNearest(UCA_LAT, UCA_LNG, 3), index.findNearest(UCA_LAT, UCA_LNG, 3));
+    }
+
+    @Test
+    void nearestWithNonPositiveKIsEmpty() {
+        assertTrue(index.findNearest(UCA_LAT, UCA_LNG, 0).isEmpty());
+    }
+
+    @Test
+    void radiusMatchesBruteForce() {
+        Map<UUID, Double> within = index.findWithinRadius(UCA_LAT, UCA_LNG, 5.0);
+
+        long expected = rooms.values().stream()
+                .filter(pos -> GeoDistanceUtil.distanceInKm(UCA_LAT, UCA_LNG, pos[0], pos[1]) <= 5.0)
+                .count();
+        assertEquals(expected, within.size());
+        within.values().forEach(distance -> assertTrue(distance <= 5.0));
+    }
+
+    // ---------- Helpers ----------
+
+    private void add(double lat, double lng) {
+        UUID id = UUID.randomUUID();
+        rooms.put(id, new double[]{lat, lng});
+        index.upsert(id, lat, lng);
+    }
+
+    private List<UUID> bruteForceNearest(double lat, double lng, int k) {
+        return rooms.entrySet().stream()
+                .sorted(Comparator.comparingDouble(entry ->
+                        GeoDistanceUtil.distanceInKm(lat, lng, entry.getValue()[0], entry.getValue()[1])))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,165 @@
+package com.dog.unistay;
+
+import com.dog.dto.request.Post.PostFilterRequest;
+import com.dog.entities.Post;
+import com.dog.entities.PostFavorite;
+import com.dog.entities.PostImage;
+import com.dog.entities.Room;
+import com.dog.entities.User;
+import com.dog.service.BookmarkService;
+import com.dog.service.PostFilterService;
+import com.dog.service.PostService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Los listados de posts deben costar la misma cantidad de consultas con 1 post que con muchos
+ * (sin N+1 al mapear dueño, habitación, imágenes y amenidades).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class PostListingQueryCountTests {
+
+    // Precio fuera de cualquier dato real para que el filtro solo vea los posts de la prueba
+    private static final double BASE_PRICE = 987654.0;
+    private static final int MANY = 6;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostFilterService postFilterService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    private User ownerWithOnePost;
+    private User ownerWithManyPosts;
+
+    @BeforeEach
+    void seed() {
+        ownerWithOnePost = persistOwner();
+        ownerWithManyPosts = persistOwner();
+
+        persistPosts(ownerWithOnePost, 1, BASE_PRICE);
+        persistPosts(ownerWithManyPosts, MANY, BASE_PRICE + 1);
+
+        entityManager.flush();
+    }
+
+    @Test
+    void catalogPageUsesConstantQueries() {
+        long one = countQueries(() -> postService.findPage(null, 1));
+        long many = countQueries(() -> postService.findPage(null, MANY + 1));
+
+        assertEquals(one, many);
+    }
+
+    @Test
+    void ownerPostsUseConstantQueries() {
+        long one = countQueries(() -> postService.findPostsByOwnerId(ownerWithOnePost.getId()));
+        long many = countQueries(() -> postService.findPostsByOwnerId(ownerWithManyPosts.getId()));
+
+        assertEquals(one, many);
+    }
+
+    @Test
+    void bookmarksUseConstantQueries() {
+        long one = countQueries(() -> bookmarkService.getMyBookmarks(ownerWithOnePost.getEmail()));
+        long many = countQueries(() -> bookmarkService.getMyBookmarks(ownerWithManyPosts.getEmail()));
+
+        assertEquals(one, many);
+    }
+
+    @Test
+    void filteredPageUsesConstantQueries() {
+        long one = countQueries(() -> postFilterService.filterPosts(priceFrom(BASE_PRICE + MANY)));
+        long many = countQueries(() -> postFilterService.filterPosts(priceFrom(BASE_PRICE)));
+
+        assertEquals(one, many);
+    }
+
+    // ---------- Helpers ----------
+
+    private long countQueries(Runnable listing) {
+        // Sin entidades en el contexto de persistencia: todo debe salir de la BD
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        listing.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private PostFilterRequest priceFrom(double minPrice) {
+        PostFilterRequest request = new PostFilterRequest();
+        request.setMinPrice(minPrice);
+        return request;
+    }
+
+    private User persistOwner() {
+        User owner = User.builder()
+                .name("Query")
+                .lastName("Count")
+                .email("query-count-" + UUID.randomUUID() + "@unistay.test")
+                .password("x")
+                .build();
+        entityManager.persist(owner);
+        return owner;
+    }
+
+    private void persistPosts(User owner, int count, double firstPrice) {
+        for (int i = 0; i < count; i++) {
+            Room room = Room.builder()
+                    .description("Habitación de prueba")
+                    .address("Dirección " + i)
+                    .available(true)
+                    .owner(owner)
+                    .amenities(new ArrayList<>(List.of("wifi", "agua")))
+                    .build();
+            entityManager.persist(room);
+
+            Post post = Post.builder()
+                    .title("Post de prueba " + i)
+                    .price(firstPrice + i)
+                    .status("ACTIVE")
+                    .owner(owner)
+                    .room(room)
+                    .securityDeposit(0.0)
+                    .build();
+            for (int order = 0; order < 2; order++) {
+                post.getImages().add(PostImage.builder()
+                        .imageUrl("/uploads_unistay/test-" + i + "-" + order + ".jpg")
+                        .displayOrder(order)
+                        .post(post)
+                        .build());
+            }
+            entityManager.persist(post);
+
+            entityManager.persist(PostFavorite.builder()
+                    .user(owner)
+                    .post(post)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.dog.unistay;
+
+import com.dog.entities.Post;
+import com.dog.entities.Room;
+import com.dog.entities.SavedSearch;
+import com.dog.entities.User;
+import com.dog.repository.SavedSearchRepository;
+import com.dog.service.SavedSearchMatcher;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Un post nuevo se compara con las búsquedas guardadas (SavedSearchMatcher) y sus coincidencias
+ * quedan en saved_search_matches, salvo las búsquedas de su propio dueño.
+ */
+@SpringBootTest
+@Transactional
+class SavedSearchPercolationTests {
+
+    // Precio fuera de cualquier dato real para que solo coincidan las búsquedas de la prueba
+    private static final double PRICE = 876543.0;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchMatcher savedSearchMatcher;
+
+    private Post post;
+    private SavedSearch searcherSearch;
+    private SavedSearch ownerSearch;
+
+    @BeforeEach
+    void seed() {
+        User owner = persistUser();
+        User searcher = persistUser();
+
+        Room room = Room.builder()
+                .description("Habitación de prueba")
+                .address("Dirección de prueba")
+                .available(true)
+                .owner(owner)
+                .amenities(new ArrayList<>(List.of("wifi")))
+                .build();
+        entityManager.persist(room);
+
+        post = Post.builder()
+                .title("Post de prueba")
+                .price(PRICE)
+                .status("ACTIVE")
+                .owner(owner)
+                .room(room)
+                .securityDeposit(0.0)
+                .build();
+        entityManager.persist(post);
+
+        searcherSearch = persistSearch(searcher);
+        ownerSearch = persistSearch(owner);
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void forgetSearches() {
+        savedSearchMatcher.remove(searcherSearch.getId());
+        savedSearchMatcher.remove(ownerSearch.getId());
+    }
+
+    @Test
+    void storesMatchForOtherUsersOnly() {
+        List<UUID> candidates = savedSearchMatcher.match(PRICE, null, List.of("wifi"));
+        assertTrue(candidates.containsAll(List.of(searcherSearch.getId(), ownerSearch.getId())));
+
+        int inserted = savedSearchRepository.insertMatches(post.getId(), candidates, LocalDateTime.now());
+
+        assertEquals(1, inserted);
+        assertEquals(1L, countMatches(searcherSearch));
+        assertEquals(0L, countMatches(ownerSearch));
+    }
+
+    @Test
+    void repeatedPercolationDoesNotDuplicate() {
+        List<UUID> candidates = List.of(searcherSearch.getId());
+
+        assertEquals(1, savedSearchRepository.insertMatches(post.getId(), candidates, LocalDateTime.now()));
+        assertEquals(0, savedSearchRepository.insertMatches(post.getId(), candidates, LocalDateTime.now()));
+        assertEquals(1L, countMatches(searcherSearch));
+    }
+
+    // ---------- Helpers ----------
+
+    private long countMatches(SavedSearch search) {
+        return ((Number) entityManager.createNativeQuery(
+                        "SELECT count(*) FROM public.saved_search_matches WHERE saved_search_id = :searchId AND post_id = :postId")
+                .setParameter("searchId", search.getId())
+                .setParameter("postId", post.getId())
+                .getSingleResult()).longValue();
+    }
+
+    private User persistUser() {
+        User user = User.builder()
+                .name("Saved")
+                .lastName("Search")
+                .email("saved-search-" + UUID.randomUUID() + "@unistay.test")
+                .password("x")
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private SavedSearch persistSearch(User user) {
+        SavedSearch search = SavedSearch.builder()
+                .user(user)
+                .name("Búsqueda de prueba")
+                .minPrice(PRICE - 1)
+                .maxPrice(PRICE + 1)
+                .amenities(new ArrayList<>(List.of("wifi")))
+                .build();
+        entityManager.persist(search);
+        // En producción lo hace SavedSearchServiceImpl.create después del commit
+        savedSearchMatcher.upsert(search.getId(), search.getMinPrice(), search.getMaxPrice(),
+                search.getMaxDistanceKm(), search.getAmenities());
+        return search;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dog.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Range e If-Range según la RFC 9110: un rango inválido o con varios tramos se ignora (archivo
+ * completo) y uno válido que empieza fuera del archivo es 416.
+ */
+class FileResponseUtilTests {
+
+    private static final long SIZE = 1000;
+    private static final String ETAG = "\"3e8-18f\"";
+    // Sun, 06 Nov 1994 08:49:37 GMT
+    private static final long LAST_MODIFIED = 784111777000L;
+
+    @Test
+    void parsesClosedAndOpenRanges() {
+        assertArrayEquals(new long[]{0, 500}, FileResponseUtil.parseRange("bytes=0-499", SIZE));
+        assertArrayEquals(new long[]{500, 1000}, FileResponseUtil.parseRange("bytes=500-", SIZE));
+        assertArrayEquals(new long[]{999, 1000}, FileResponseUtil.parseRange("bytes=999-999", SIZE));
+    }
+
+    @Test
+    void clampsEndToFileSize() {
+        assertArrayEquals(new long[]{900, 1000}, FileResponseUtil.parseRange("bytes=900-5000", SIZE));
+    }
+
+    @Test
+    void parsesSuffixRanges() {
+        assertArrayEquals(new long[]{800, 1000}, FileResponseUtil.parseRange("bytes=-200", SIZE));
+        // Sufijo más largo que el archivo: el archivo completo como 206
+        assertArrayEquals(new long[]{0, 1000}, FileResponseUtil.parseRange("bytes=-5000", SIZE));
+    }
+
+    @Test
+    void rangeStartingPastTheEndIsUnsatisfiable() {
+        assertSame(FileResponseUtil.UNSATISFIABLE, FileResponseUtil.parseRange("bytes=1000-", SIZE));
+        assertSame(FileResponseUtil.UNSATISFIABLE, FileResponseUtil.parseRange("bytes=2000-3000", SIZE));
+        assertSame(FileResponseUtil.UNSATISFIABLE, FileResponseUtil.parseRange("bytes=-0", SIZE));
+        assertSame(FileResponseUtil.UNSATISFIABLE, FileResponseUtil.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void ignoresMissingMalformedAndMultipleRanges() {
+        assertNull(FileResponseUtil.parseRange(null, SIZE));
+        assertNull(FileResponseUtil.parseRange("items=0-1", SIZE));
+        assertNull(FileResponseUtil.parseRange("bytes=abc", SIZE));
+        assertNull(FileResponseUtil.parseRange("bytes=5-3", SIZE));
+        assertNull(FileResponseUtil.parseRange("bytes=-", SIZE));
+        assertNull(FileResponseUtil.parseRange("bytes=--5", SIZE));
+        assertNull(FileResponseUtil.parseRange("bytes=+1-5", SIZE));
+        assertNull(FileResponseUtil.parseRange("bytes=0-1,5-9", SIZE));
+    }
+
+    @Test
+    void ifRangeAbsentAllowsRange() {
+        assertTrue(FileResponseUtil.ifRangeMatches(new MockHttpServletRequest(), ETAG, LAST_MODIFIED));
+    }
+
+    @Test
+    void ifRangeComparesEntityTagsStrongly() {
+        assertTrue(FileResponseUtil.ifRangeMatches(withIfRange(ETAG), ETAG, LAST_MODIFIED));
+        assertFalse(FileResponseUtil.ifRangeMatches(withIfRange("\"otro\""), ETAG, LAST_MODIFIED));
+        assertFalse(FileResponseUtil.ifRangeMatches(withIfRange("W/" + ETAG), ETAG, LAST_MODIFIED));
+    }
+
+    @Test
+    void ifRangeComparesDatesToTheSecond() {
+        assertTrue(FileResponseUtil.ifRangeMatches(withIfRange("Sun, 06 Nov 1994 08:49:37 GMT"), ETAG, LAST_MODIFIED + 400));
+        assertFalse(FileResponseUtil.ifRangeMatches(withIfRange("Sun, 06 Nov 1994 08:49:36 GMT"), ETAG, LAST_MODIFIED));
+        assertFalse(FileResponseUtil.ifRangeMatches(withIfRange("no es una fecha"), ETAG, LAST_MODIFIED));
+    }
+
+    private static MockHttpServletRequest withIfRange(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-Range", value);
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.dog.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el Haversine par a par contra los núcleos en lote.
+ *
+ * Ejecutar (desde RailWay-Backend-main):
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.dog.utils.GeoDistanceUtilBenchmark
+ *
+ * Para incluir el núcleo vectorial compilar con -Pvector; el benchmark "batchDispatch"
+ * lo usa automáticamente porque el fork arranca con -Dunistay.geo.vector=true.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dunistay.geo.vector=true"})
+public class GeoDistanceUtilBenchmark {
+
+    private static final double UCA_LAT = 13.6824;
+    private static final double UCA_LNG = -89.2360;
+
+    @Param({"1000", "20000"})
+    private int rooms;
+
+    private double[] lats;
+    private double[] lngs;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lats = new double[rooms];
+        lngs = new double[rooms];
+        out = new double[rooms];
+        // Puntos dentro del área de San Salvador, igual que valida RoomServiceImpl
+        for (int i = 0; i < rooms; i++) {
+            lats[i] = 13.64 + random.nextDouble() * 0.09;
+            lngs[i] = -89.31 + random.nextDouble() * 0.13;
+        }
+    }
+
+    @Benchmark
+    public double[] pairwiseScalar() {
+        for (int i = 0; i < rooms; i++) {
+            out[i] = GeoDistanceUtil.distanceInKm(UCA_LAT, UCA_LNG, lats[i], lngs[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] batchScalar() {
+        GeoDistanceUtil.scalarDistancesInKm(UCA_LAT, UCA_LNG, lats, lngs, out, rooms);
+        return out;
+    }
+
+    @Benchmark
+    public double[] batchDispatch() {
+        GeoDistanceUtil.distancesInKm(UCA_LAT, UCA_LNG, lats, lngs, out);
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeoDistanceUtilBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}